@@ -0,0 +1,69 @@
+package com.rashid.benchmarks;
+
+import com.rashid.service.context.ContextBudgeter;
+import com.rashid.service.context.ContextPart;
+import com.rashid.service.context.TokenCounter;
+import com.rashid.service.retrieval.Bm25Index;
+import com.rashid.service.retrieval.RetrievedChunk;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Prompt-side text work: token counting, fitting findings into the context budget and follow-up retrieval
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContextBenchmark {
+    private static final String INSTRUCTIONS =
+        "Focus on practical applications for a technical audience, with recent statistics and named sources.";
+
+    @Param({"5", "20", "50"})
+    private int sizeKb;
+
+    private TokenCounter tokenCounter;
+    private ContextBudgeter contextBudgeter;
+    private Bm25Index findingsIndex;
+    private String findings;
+
+    @Setup
+    public void setUp() {
+        tokenCounter = new TokenCounter();
+        // A small window forces the budgeter to cut, which is the expensive path
+        contextBudgeter = new ContextBudgeter(tokenCounter, 4_000, 1_000);
+        findings = ResponseFixtures.searchResponse(sizeKb * 1024, 5);
+        findingsIndex = new Bm25Index();
+        for (int iteration = 1; iteration <= 10; iteration++) {
+            findingsIndex.add("Research iteration " + iteration, ResponseFixtures.searchResponse(sizeKb * 1024, iteration));
+        }
+    }
+
+    @Benchmark
+    public int countTokens() {
+        return tokenCounter.count(findings);
+    }
+
+    @Benchmark
+    public List<String> fitPrompt() {
+        return contextBudgeter.fitAll("Topic: battery storage\n\nFindings:\n",
+            ContextPart.head(INSTRUCTIONS, 1), ContextPart.tail(findings, 3));
+    }
+
+    @Benchmark
+    public List<RetrievedChunk> retrieveFollowUpContext() {
+        return findingsIndex.search("What did regulators in the EU decide about adoption costs?", 8);
+    }
+}
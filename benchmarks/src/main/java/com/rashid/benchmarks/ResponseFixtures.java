@@ -0,0 +1,118 @@
+package com.rashid.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.Random;
+
+// Deterministic model responses shaped like real search, gap-analysis and query-generation output:
+// markdown sections, statistics, inline citations (some with the trailing artifacts the extractor cleans)
+// and the OpenAI chat completion envelope around them
+public final class ResponseFixtures {
+    private static final String[] HEADINGS = {
+        "Overview", "Historical Context", "Current State", "Key Concepts", "Applications & Impact",
+        "Expert Opinions", "Debates & Contradictions"
+    };
+    private static final String[] YEAR_SENTENCES = {
+        "According to the %d annual review, regulators in the EU and the US have taken diverging approaches.",
+        "Critics argue that the benchmark used in %d overstates real-world performance by a wide margin.",
+        "The underlying mechanism relies on a feedback loop first described in %d and refined since.",
+        "A landmark trial completed in %d remains the most cited evidence in the field."
+    };
+    private static final String[] FIGURE_SENTENCES = {
+        "Recent studies published in 2024 report a %d%% increase in adoption across surveyed organisations.",
+        "Researchers at the institute measured an efficiency of %d.4%% under laboratory conditions.",
+        "Industry analysts estimate the market will reach $%d billion by 2030, driven by enterprise demand.",
+        "Independent replications found effect sizes roughly %d%% smaller than the original reports.",
+        "Field deployments across %d sites highlighted maintenance costs as the main barrier to scale."
+    };
+
+    private ResponseFixtures() {
+        throw new AssertionError("Cannot instantiate utility class");
+    }
+
+    // Markdown search findings of roughly the requested size
+    public static String searchResponse(int targetBytes, long seed) {
+        Random random = new Random(seed);
+        StringBuilder text = new StringBuilder(targetBytes + 512);
+        int citation = 0;
+        int section = 0;
+        while (text.length() < targetBytes) {
+            text.append("## ").append(HEADINGS[section++ % HEADINGS.length]).append("\n\n");
+            for (int paragraph = 0; paragraph < 3 && text.length() < targetBytes; paragraph++) {
+                for (int sentence = 0; sentence < 4; sentence++) {
+                    text.append(sentence(random)).append(' ');
+                }
+                citation++;
+                text.append("([Source ").append(citation).append(": Annual Report](https://www.example-")
+                    .append(citation % 17).append(".org/research/")
+                    .append(2020 + citation % 5).append("/article-").append(citation)
+                    .append(citation % 4 == 0 ? "])" : ")").append(")\n\n");
+            }
+            text.append("- **Key statistic**: ").append(random.nextInt(100)).append("% of respondents\n");
+            text.append("- **Published**: 2024-").append(1 + random.nextInt(12)).append("-")
+                .append(1 + random.nextInt(28)).append("\n\n");
+        }
+        return text.toString();
+    }
+
+    // Gap-analysis output: commentary with GAP: lines spread through it
+    public static String gapResponse(int targetBytes, long seed) {
+        return prefixedResponse("GAP:", "Limited coverage of", targetBytes, seed);
+    }
+
+    // Query-generation output: commentary with QUERY: lines spread through it
+    public static String queryResponse(int targetBytes, long seed) {
+        return prefixedResponse("QUERY:", "latest peer-reviewed evidence on", targetBytes, seed);
+    }
+
+    // Wraps content in a non-streaming chat completion response body, including the usage block
+    public static String chatCompletion(String content) {
+        ObjectMapper objectMapper = new ObjectMapper();
+        ObjectNode root = objectMapper.createObjectNode();
+        root.put("id", "chatcmpl-benchmark");
+        root.put("object", "chat.completion");
+        root.put("created", 1_735_689_600L);
+        root.put("model", "gpt-4o-2024-08-06");
+        ObjectNode choice = root.putArray("choices").addObject();
+        choice.put("index", 0);
+        ObjectNode message = choice.putObject("message");
+        message.put("role", "assistant");
+        message.put("content", content);
+        message.putNull("refusal");
+        choice.putNull("logprobs");
+        choice.put("finish_reason", "stop");
+        ObjectNode usage = root.putObject("usage");
+        usage.put("prompt_tokens", 4_213);
+        usage.put("completion_tokens", content.length() / 4);
+        usage.put("total_tokens", 4_213 + content.length() / 4);
+        usage.putObject("prompt_tokens_details").put("cached_tokens", 1_024);
+        root.put("system_fingerprint", "fp_benchmark");
+        try {
+            return objectMapper.writeValueAsString(root);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String sentence(Random random) {
+        if (random.nextBoolean()) {
+            return String.format(YEAR_SENTENCES[random.nextInt(YEAR_SENTENCES.length)], 1990 + random.nextInt(35));
+        }
+        return String.format(FIGURE_SENTENCES[random.nextInt(FIGURE_SENTENCES.length)], 5 + random.nextInt(90));
+    }
+
+    private static String prefixedResponse(String prefix, String subject, int targetBytes, long seed) {
+        Random random = new Random(seed);
+        StringBuilder text = new StringBuilder(targetBytes + 256);
+        int line = 0;
+        while (text.length() < targetBytes) {
+            text.append(sentence(random)).append('\n');
+            if (++line % 6 == 0) {
+                text.append(line % 12 == 0 ? prefix.toLowerCase() : prefix).append(' ').append(subject)
+                    .append(" regional adoption trends ").append(line).append('\n');
+            }
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,67 @@
+package com.rashid.benchmarks;
+
+import com.rashid.model.Source;
+import com.rashid.service.research.GapAnalyzer;
+import com.rashid.service.research.QueryGenerator;
+import com.rashid.service.research.SourceExtractor;
+import com.rashid.service.validation.SourceValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Extraction of gaps, queries and sources from model responses; these run on every iteration of every session
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseParsingBenchmark {
+
+    @Param({"5", "20", "50"})
+    private int sizeKb;
+
+    private GapAnalyzer gapAnalyzer;
+    private QueryGenerator queryGenerator;
+    private SourceExtractor sourceExtractor;
+    private String gapResponse;
+    private String queryResponse;
+    private String searchResponse;
+
+    @Setup
+    public void setUp() {
+        // The extraction methods never reach the AI client or the budgeter
+        gapAnalyzer = new GapAnalyzer(null, null);
+        queryGenerator = new QueryGenerator(null);
+        sourceExtractor = new SourceExtractor(new SourceValidator());
+        gapResponse = ResponseFixtures.gapResponse(sizeKb * 1024, 1);
+        queryResponse = ResponseFixtures.queryResponse(sizeKb * 1024, 2);
+        searchResponse = ResponseFixtures.searchResponse(sizeKb * 1024, 3);
+    }
+
+    @Benchmark
+    public List<String> extractGaps() {
+        return gapAnalyzer.extractGapsFromResponse(gapResponse);
+    }
+
+    @Benchmark
+    public List<String> extractQueries() {
+        return queryGenerator.extractQueriesFromResponse(queryResponse);
+    }
+
+    @Benchmark
+    public List<Source> extractSources() {
+        return sourceExtractor.extractSourcesFromResponse(searchResponse);
+    }
+}
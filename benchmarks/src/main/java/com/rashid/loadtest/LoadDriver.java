@@ -0,0 +1,203 @@
+package com.rashid.loadtest;
+
+import com.rashid.Application;
+import com.rashid.config.ConfigLoader;
+import com.rashid.constants.ConfigConstants;
+import com.rashid.service.api.UserChannel;
+import com.rashid.service.metrics.ResearchMetrics;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// End-to-end load test: runs many complete ResearchAgent sessions (clarification, iterative research,
+// synthesis and one follow-up) against an OpenAI-compatible endpoint and reports sessions per second,
+// session and per-stage latency, and error rates. Without --base-url it starts --endpoints MockOpenAIServers
+// in-process, the last --unhealthy-endpoints of which fail every request, and accepts the mock's latency
+// and rate-limit options. More than one endpoint routes calls over all of them.
+//
+//   java -cp benchmarks.jar com.rashid.loadtest.LoadDriver [--sessions 50] [--concurrency 16]
+//       [--base-url http://localhost:8089/v1] [--endpoints 1] [--unhealthy-endpoints 0] [mock options]
+//
+// Any application setting can be overridden with -D, e.g. -Dresearch.pipelining.enabled=true
+public class LoadDriver {
+    private static final List<String> TOPICS = List.of(
+        "solid-state batteries", "urban heat islands", "mRNA vaccine manufacturing", "quantum error correction",
+        "coral reef restoration", "carbon capture economics", "open-source LLM licensing", "microplastics in soil"
+    );
+    private static final List<String> SCRIPTED_ANSWERS = List.of(
+        "A technical overview focused on developments of the last two years",
+        "What are the main open questions?"
+    );
+
+    public static void main(String[] args) throws Exception {
+        int sessions = (int) LoadTestOptions.longValue(args, "--sessions", 50);
+        int concurrency = (int) LoadTestOptions.longValue(args, "--concurrency", 16);
+        String baseUrl = LoadTestOptions.value(args, "--base-url");
+
+        List<MockOpenAIServer> mocks = new ArrayList<>();
+        try {
+            if (baseUrl == null) {
+                baseUrl = startMocks(args, mocks);
+            }
+            System.setProperty(ConfigConstants.PROP_OPENAI_BASE_URL, baseUrl);
+            // Every session is distinct, so caching and checkpoints would only add disk IO to the measurement
+            setDefault(ConfigConstants.PROP_OPENAI_API_KEY, "load-test");
+            setDefault(ConfigConstants.PROP_CACHE_ENABLED, "false");
+            setDefault(ConfigConstants.PROP_CHECKPOINT_ENABLED, "false");
+            Application application = new Application(new ConfigLoader().load());
+
+            System.out.printf("Running %d sessions, %d at a time, against %s\n", sessions, concurrency, baseUrl);
+            run(application, sessions, concurrency, mocks);
+        } finally {
+            mocks.forEach(MockOpenAIServer::stop);
+        }
+    }
+
+    // Starts the in-process mocks and configures every one after the first as an extra routing endpoint;
+    // returns the first mock's base URL
+    private static String startMocks(String[] args, List<MockOpenAIServer> mocks) throws IOException {
+        int endpoints = (int) LoadTestOptions.longValue(args, "--endpoints", 1);
+        int unhealthy = (int) LoadTestOptions.longValue(args, "--unhealthy-endpoints", 0);
+        if (endpoints < 1 || unhealthy < 0 || unhealthy >= endpoints) {
+            throw new IllegalArgumentException("Need at least one endpoint and at least one healthy endpoint");
+        }
+
+        // Options are read first match wins, so a leading --error-probability overrides the healthy setting
+        String[] unhealthyArgs = new String[args.length + 2];
+        unhealthyArgs[0] = "--error-probability";
+        unhealthyArgs[1] = "1";
+        System.arraycopy(args, 0, unhealthyArgs, 2, args.length);
+
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < endpoints; i++) {
+            MockOpenAIServer mock = MockOpenAIServer.fromArgs(i < endpoints - unhealthy ? args : unhealthyArgs, 0);
+            mock.start();
+            mocks.add(mock);
+            if (i > 0) {
+                String name = "mock-" + i;
+                names.add(name);
+                System.setProperty(ConfigConstants.PROP_OPENAI_ENDPOINT_PREFIX + name
+                    + ConfigConstants.PROP_OPENAI_ENDPOINT_BASE_URL_SUFFIX, mock.getBaseUrl());
+            }
+        }
+        if (!names.isEmpty()) {
+            System.setProperty(ConfigConstants.PROP_OPENAI_ENDPOINTS, String.join(",", names));
+        }
+        return mocks.get(0).getBaseUrl();
+    }
+
+    private static void run(Application application, int sessions, int concurrency, List<MockOpenAIServer> mocks)
+            throws InterruptedException {
+        long[] sessionMillis = new long[sessions];
+        AtomicInteger failed = new AtomicInteger();
+        Semaphore permits = new Semaphore(concurrency);
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < sessions; i++) {
+                int session = i;
+                permits.acquire();
+                executor.submit(() -> {
+                    try {
+                        // Distinct topics keep coalescing from merging work across sessions
+                        String topic = TOPICS.get(session % TOPICS.size()) + " (session " + (session + 1) + ")";
+                        ScriptedChannel channel = new ScriptedChannel();
+                        long sessionStart = System.nanoTime();
+                        application.getAgent().startConversation(topic, channel);
+                        sessionMillis[session] = (System.nanoTime() - sessionStart) / 1_000_000;
+                        if (channel.isFailed()) {
+                            failed.incrementAndGet();
+                        }
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        Arrays.sort(sessionMillis);
+        System.out.println();
+        System.out.printf("Sessions: %d completed, %d failed (%.1f%%) in %.1fs - %.2f sessions/s\n",
+            sessions - failed.get(), failed.get(), 100.0 * failed.get() / sessions, elapsedSeconds,
+            sessions / elapsedSeconds);
+        System.out.printf("Session latency: p50 %dms, p95 %dms, max %dms\n",
+            percentile(sessionMillis, 0.50), percentile(sessionMillis, 0.95), sessionMillis[sessions - 1]);
+
+        ResearchMetrics metrics = application.getMetrics();
+        Map<String, Long> failures = metrics.getCallFailures();
+        Map<String, Double> meanMillis = metrics.getCallMeanMillis();
+        System.out.println();
+        System.out.printf("%-22s %8s %10s %9s\n", "Stage", "Calls", "Mean ms", "Errors");
+        new TreeMap<>(metrics.getCallCounts()).forEach((callSite, calls) -> {
+            if (calls > 0) {
+                System.out.printf("%-22s %8d %10.1f %8.1f%%\n", callSite, calls, meanMillis.getOrDefault(callSite, 0.0),
+                    100.0 * failures.getOrDefault(callSite, 0L) / calls);
+            }
+        });
+        System.out.println();
+        System.out.println("HTTP responses: " + new TreeMap<>(metrics.getHttpStatusCounts()) + " by protocol "
+            + new TreeMap<>(metrics.getHttpProtocolCounts()));
+        for (MockOpenAIServer mock : mocks) {
+            System.out.printf("Mock server %s: %d requests, %d rate limited, %d failed\n", mock.getBaseUrl(),
+                mock.getRequests(), mock.getRateLimited(), mock.getFailed());
+        }
+        application.printUsageStats();
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    private static void setDefault(String key, String value) {
+        if (System.getProperty(key) == null) {
+            System.setProperty(key, value);
+        }
+    }
+
+    // Plays the user: answers clarifying questions and asks one follow-up, then ends the conversation.
+    // Output is discarded apart from the agent's error lines, which mark the session as failed
+    private static class ScriptedChannel implements UserChannel {
+        private final Queue<String> answers = new ArrayDeque<>(SCRIPTED_ANSWERS);
+        private volatile boolean failed;
+
+        // Simulated sessions stand in for remote clients, which are not checkpointed
+        @Override
+        public boolean isCheckpointed() {
+            return false;
+        }
+
+        @Override
+        public void send(String text) {
+            if (text.startsWith("Research error:") || text.startsWith("Unexpected error:")) {
+                failed = true;
+            }
+        }
+
+        @Override
+        public void status(String text) {
+            // Progress updates are not part of the measurement
+        }
+
+        @Override
+        public String readLine() {
+            String answer = answers.poll();
+            return answer != null ? answer : "done";
+        }
+
+        boolean isFailed() {
+            return failed;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.rashid.loadtest;
+
+// Command-line option parsing shared by the mock server and the load driver
+final class LoadTestOptions {
+
+    private LoadTestOptions() {
+        throw new AssertionError("Cannot instantiate utility class");
+    }
+
+    // Returns the value following an option such as --sessions 50, or null if the option is absent
+    static String value(String[] args, String option) {
+        for (int i = 0; i < args.length - 1; i++) {
+            if (args[i].equals(option)) {
+                return args[i + 1];
+            }
+        }
+        return null;
+    }
+
+    static long longValue(String[] args, String option, long defaultValue) {
+        String value = value(args, option);
+        try {
+            return value == null ? defaultValue : Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + option + ": " + value);
+        }
+    }
+
+    static double doubleValue(String[] args, String option, double defaultValue) {
+        String value = value(args, option);
+        try {
+            return value == null ? defaultValue : Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + option + ": " + value);
+        }
+    }
+}
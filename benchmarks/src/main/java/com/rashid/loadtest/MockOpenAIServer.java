@@ -0,0 +1,354 @@
+package com.rashid.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.rashid.benchmarks.ResponseFixtures;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+// Local OpenAI-compatible chat completions server for load tests. Answers are canned but shaped like the
+// real thing for each prompt the agent sends: clarifying questions and READY:, GAP:/QUERY: lists, one-word
+// decisions, structured iteration plans and markdown findings with links. Latency follows a log-normal
+// distribution, a share of requests is rejected with 429 and another share fails with 503, streaming requests
+// get SSE chunks and other responses are gzip-compressed when the client accepts it.
+//
+//   java -cp benchmarks.jar com.rashid.loadtest.MockOpenAIServer [--port 8089] [--latency-median-ms 400]
+//       [--latency-sigma 0.5] [--rate-limit-probability 0.02] [--error-probability 0] [--response-kb 4]
+//       [--complete-probability 0.3]
+public class MockOpenAIServer {
+    private static final String CHAT_COMPLETIONS_PATH = "/chat/completions";
+    private static final int STREAM_CHUNK_CHARS = 48;
+    private static final int REQUESTS_PER_MINUTE = 10_000;
+    private static final int TOKENS_PER_MINUTE = 2_000_000;
+    private static final long RETRY_AFTER_MILLIS = 250;
+    private static final int CHARS_PER_TOKEN = 4;
+
+    private final int port;
+    private final long latencyMedianMillis;
+    private final double latencySigma;
+    private final double rateLimitProbability;
+    private final double errorProbability;
+    private final int responseKb;
+    private final double completeProbability;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong rateLimited = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong windowStartMillis = new AtomicLong(System.currentTimeMillis());
+    private final AtomicLong windowRequests = new AtomicLong();
+    private HttpServer httpServer;
+
+    // Port 0 picks a free port; a sigma of 0 gives a constant latency
+    public MockOpenAIServer(int port, long latencyMedianMillis, double latencySigma, double rateLimitProbability,
+                            double errorProbability, int responseKb, double completeProbability) {
+        this.port = port;
+        this.latencyMedianMillis = latencyMedianMillis;
+        this.latencySigma = latencySigma;
+        this.rateLimitProbability = rateLimitProbability;
+        this.errorProbability = errorProbability;
+        this.responseKb = responseKb;
+        this.completeProbability = completeProbability;
+    }
+
+    // Builds a server from --port, --latency-median-ms, --latency-sigma, --rate-limit-probability,
+    // --error-probability, --response-kb and --complete-probability, ignoring options it does not know
+    public static MockOpenAIServer fromArgs(String[] args, int defaultPort) {
+        return new MockOpenAIServer(
+            (int) LoadTestOptions.longValue(args, "--port", defaultPort),
+            LoadTestOptions.longValue(args, "--latency-median-ms", 400),
+            LoadTestOptions.doubleValue(args, "--latency-sigma", 0.5),
+            LoadTestOptions.doubleValue(args, "--rate-limit-probability", 0.02),
+            LoadTestOptions.doubleValue(args, "--error-probability", 0),
+            (int) LoadTestOptions.longValue(args, "--response-kb", 4),
+            LoadTestOptions.doubleValue(args, "--complete-probability", 0.3)
+        );
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        MockOpenAIServer server = fromArgs(args, 8089);
+        server.start();
+        System.out.println("Mock OpenAI API listening on " + server.getBaseUrl() + " (Ctrl+C to stop)");
+
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop();
+            System.out.printf("Served %d requests, %d rate limited, %d failed\n", server.getRequests(),
+                server.getRateLimited(), server.getFailed());
+            stopped.countDown();
+        }));
+        stopped.await();
+    }
+
+    // Starts accepting requests; each exchange is handled on its own virtual thread
+    public void start() throws IOException {
+        httpServer = HttpServer.create(new InetSocketAddress(port), 0);
+        httpServer.setExecutor(executor);
+        httpServer.createContext("/", this::handle);
+        httpServer.start();
+    }
+
+    public void stop() {
+        if (httpServer != null) {
+            httpServer.stop(0);
+        }
+        executor.shutdownNow();
+    }
+
+    // Base URL to configure as openai.base.url
+    public String getBaseUrl() {
+        return "http://localhost:" + httpServer.getAddress().getPort() + "/v1";
+    }
+
+    public long getRequests() {
+        return requests.get();
+    }
+
+    public long getRateLimited() {
+        return rateLimited.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!exchange.getRequestURI().getPath().endsWith(CHAT_COMPLETIONS_PATH)) {
+                sendError(exchange, 404, "invalid_request_error", "Unknown endpoint");
+                return;
+            }
+            if ("HEAD".equals(exchange.getRequestMethod())) {
+                // Connection pre-warming; a HEAD response carries no body
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                sendError(exchange, 405, "invalid_request_error", "Method not allowed");
+                return;
+            }
+            JsonNode request;
+            try {
+                request = objectMapper.readTree(exchange.getRequestBody());
+            } catch (IOException e) {
+                sendError(exchange, 400, "invalid_request_error", "Request body is not valid JSON");
+                return;
+            }
+            requests.incrementAndGet();
+
+            Thread.sleep(sampleLatencyMillis());
+            setRateLimitHeaders(exchange);
+            if (ThreadLocalRandom.current().nextDouble() < rateLimitProbability) {
+                rateLimited.incrementAndGet();
+                exchange.getResponseHeaders().set("retry-after-ms", Long.toString(RETRY_AFTER_MILLIS));
+                sendError(exchange, 429, "requests", "Rate limit reached for requests");
+                return;
+            }
+            if (ThreadLocalRandom.current().nextDouble() < errorProbability) {
+                failed.incrementAndGet();
+                sendError(exchange, 503, "server_error", "The server is overloaded or not ready yet");
+                return;
+            }
+
+            String content = respondTo(request);
+            int promptTokens = request.toString().length() / CHARS_PER_TOKEN;
+            if (request.path("stream").asBoolean(false)) {
+                stream(exchange, request, content, promptTokens);
+            } else {
+                sendJson(exchange, 200, completion(request, content, promptTokens));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            // The client went away; nothing left to respond to
+        } finally {
+            exchange.close();
+        }
+    }
+
+    // Picks a canned answer matching the prompt the agent sent
+    private String respondTo(JsonNode request) throws IOException {
+        String systemPrompt = "";
+        String userPrompt = "";
+        for (JsonNode message : request.path("messages")) {
+            switch (message.path("role").asText()) {
+                case "system" -> systemPrompt = message.path("content").asText();
+                case "user" -> userPrompt = message.path("content").asText();
+                default -> { }
+            }
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        if ("iteration_plan".equals(request.path("response_format").path("json_schema").path("name").asText())) {
+            return iterationPlan(userPrompt);
+        }
+        if (userPrompt.contains("Respond with EXACTLY one word")) {
+            return random.nextDouble() < completeProbability ? "COMPLETE" : "CONTINUE";
+        }
+        if (systemPrompt.contains("READY:")) {
+            return userPrompt.contains("Question #1:")
+                ? "What specifically interests you about this topic, and how deep should the research go?"
+                : "READY: A well-sourced overview of recent developments, key statistics and open questions.";
+        }
+        if (userPrompt.contains("'GAP:")) {
+            return ResponseFixtures.gapResponse(1024, random.nextLong());
+        }
+        if (userPrompt.contains("'QUERY:")) {
+            return ResponseFixtures.queryResponse(1024, random.nextLong());
+        }
+        return ResponseFixtures.searchResponse(responseKb * 1024, random.nextLong());
+    }
+
+    // Structured plan; iterations below the minimum always continue, as the prompt demands
+    private String iterationPlan(String userPrompt) throws IOException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        ObjectNode plan = objectMapper.createObjectNode();
+        ArrayNode gaps = plan.putArray("gaps");
+        ArrayNode queries = plan.putArray("queries");
+        for (int i = 1; i <= 2; i++) {
+            int subject = random.nextInt(1000);
+            gaps.add("Limited coverage of regional adoption trends " + subject);
+            queries.add("latest peer-reviewed evidence on regional adoption trends " + subject);
+        }
+        boolean complete = !userPrompt.contains("MUST go deeper") && random.nextDouble() < completeProbability;
+        plan.put("decision", complete ? "COMPLETE" : "CONTINUE");
+        return objectMapper.writeValueAsString(plan);
+    }
+
+    private ObjectNode completion(JsonNode request, String content, int promptTokens) {
+        ObjectNode root = envelope(request, "chat.completion");
+        ObjectNode choice = root.putArray("choices").addObject();
+        choice.put("index", 0);
+        ObjectNode message = choice.putObject("message");
+        message.put("role", "assistant");
+        message.put("content", content);
+        choice.put("finish_reason", "stop");
+        root.set("usage", usage(promptTokens, content));
+        return root;
+    }
+
+    // Streams the content as SSE delta chunks, then the usage chunk if requested and the [DONE] marker
+    private void stream(HttpExchange exchange, JsonNode request, String content, int promptTokens)
+            throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream body = exchange.getResponseBody();
+
+        for (int start = 0; start < content.length(); start += STREAM_CHUNK_CHARS) {
+            ObjectNode chunk = envelope(request, "chat.completion.chunk");
+            ObjectNode choice = chunk.putArray("choices").addObject();
+            choice.put("index", 0);
+            ObjectNode delta = choice.putObject("delta");
+            if (start == 0) {
+                delta.put("role", "assistant");
+            }
+            delta.put("content", content.substring(start, Math.min(content.length(), start + STREAM_CHUNK_CHARS)));
+            choice.putNull("finish_reason");
+            writeEvent(body, objectMapper.writeValueAsString(chunk));
+        }
+
+        ObjectNode last = envelope(request, "chat.completion.chunk");
+        ObjectNode choice = last.putArray("choices").addObject();
+        choice.put("index", 0);
+        choice.putObject("delta");
+        choice.put("finish_reason", "stop");
+        writeEvent(body, objectMapper.writeValueAsString(last));
+
+        if (request.path("stream_options").path("include_usage").asBoolean(false)) {
+            ObjectNode usageChunk = envelope(request, "chat.completion.chunk");
+            usageChunk.putArray("choices");
+            usageChunk.set("usage", usage(promptTokens, content));
+            writeEvent(body, objectMapper.writeValueAsString(usageChunk));
+        }
+        writeEvent(body, "[DONE]");
+    }
+
+    private void writeEvent(OutputStream body, String data) throws IOException {
+        body.write(("data: " + data + "\n\n").getBytes(StandardCharsets.UTF_8));
+        body.flush();
+    }
+
+    private ObjectNode envelope(JsonNode request, String object) {
+        ObjectNode root = objectMapper.createObjectNode();
+        root.put("id", "chatcmpl-mock-" + requests.get());
+        root.put("object", object);
+        root.put("created", System.currentTimeMillis() / 1000);
+        root.put("model", request.path("model").asText("mock"));
+        return root;
+    }
+
+    private ObjectNode usage(int promptTokens, String content) {
+        int completionTokens = content.length() / CHARS_PER_TOKEN;
+        ObjectNode usage = objectMapper.createObjectNode();
+        usage.put("prompt_tokens", promptTokens);
+        usage.put("completion_tokens", completionTokens);
+        usage.put("total_tokens", promptTokens + completionTokens);
+        usage.putObject("prompt_tokens_details").put("cached_tokens", 0);
+        return usage;
+    }
+
+    // Reports generous limits with the remaining requests of the current one-minute window
+    private void setRateLimitHeaders(HttpExchange exchange) {
+        long now = System.currentTimeMillis();
+        long windowStart = windowStartMillis.get();
+        if (now - windowStart >= 60_000 && windowStartMillis.compareAndSet(windowStart, now)) {
+            windowRequests.set(0);
+        }
+        long remaining = Math.max(0, REQUESTS_PER_MINUTE - windowRequests.incrementAndGet());
+        exchange.getResponseHeaders().set("x-ratelimit-limit-requests", Integer.toString(REQUESTS_PER_MINUTE));
+        exchange.getResponseHeaders().set("x-ratelimit-remaining-requests", Long.toString(remaining));
+        exchange.getResponseHeaders().set("x-ratelimit-reset-requests", "6ms");
+        exchange.getResponseHeaders().set("x-ratelimit-limit-tokens", Integer.toString(TOKENS_PER_MINUTE));
+        exchange.getResponseHeaders().set("x-ratelimit-remaining-tokens", Integer.toString(TOKENS_PER_MINUTE));
+        exchange.getResponseHeaders().set("x-ratelimit-reset-tokens", "0s");
+    }
+
+    // Log-normal latency around the median
+    private long sampleLatencyMillis() {
+        double factor = Math.exp(latencySigma * ThreadLocalRandom.current().nextGaussian());
+        return Math.max(0, Math.round(latencyMedianMillis * factor));
+    }
+
+    // Compresses the body when the client accepts gzip, as the real API does
+    private void sendJson(HttpExchange exchange, int status, JsonNode json) throws IOException {
+        byte[] body = objectMapper.writeValueAsBytes(json);
+        String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(body);
+            }
+            body = compressed.toByteArray();
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        exchange.getResponseBody().write(body);
+    }
+
+    // Error body in the API's format
+    private void sendError(HttpExchange exchange, int status, String type, String message) throws IOException {
+        ObjectNode root = objectMapper.createObjectNode();
+        ObjectNode error = root.putObject("error");
+        error.put("message", message);
+        error.put("type", type);
+        error.putNull("param");
+        error.put("code", status == 429 ? "rate_limit_exceeded" : null);
+        sendJson(exchange, status, root);
+    }
+}
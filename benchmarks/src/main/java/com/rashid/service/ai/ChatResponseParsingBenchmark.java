@@ -0,0 +1,60 @@
+package com.rashid.service.ai;
+
+import com.rashid.benchmarks.ResponseFixtures;
+import com.rashid.config.HttpConfig;
+import com.rashid.config.ModelProfile;
+import com.rashid.config.ModelProfilesConfig;
+import com.rashid.config.RateLimitConfig;
+import com.rashid.exception.AIException;
+import com.rashid.service.metrics.ResearchMetrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Parsing of chat completion response bodies; lives in the client's package to reach parseResponse
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChatResponseParsingBenchmark {
+
+    @Param({"5", "20", "50"})
+    private int sizeKb;
+
+    private OpenAISearchClient client;
+    private byte[] responseBody;
+
+    @Setup
+    public void setUp() {
+        ResearchMetrics metrics = new ResearchMetrics();
+        HttpConfig httpConfig = new HttpConfig(true, true, false, Duration.ofSeconds(30), Duration.ofSeconds(120), Map.of());
+        ModelProfilesConfig modelProfiles = new ModelProfilesConfig(
+            new ModelProfile("gpt-4o", 3000, 0.7, List.of()), Map.of());
+        client = new OpenAISearchClient("benchmark-key", "http://localhost", modelProfiles,
+            new RateLimitConfig(false, 500, 30_000, 0, 500, 30_000), new HttpTransport(httpConfig, metrics), metrics);
+        responseBody = ResponseFixtures.chatCompletion(ResponseFixtures.searchResponse(sizeKb * 1024, 4))
+            .getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public String parseResponse() throws AIException {
+        return client.parseResponse(new ByteArrayInputStream(responseBody), "gpt-4o");
+    }
+}
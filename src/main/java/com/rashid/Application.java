@@ -0,0 +1,262 @@
+package com.rashid;
+
+import com.rashid.config.AppConfig;
+import com.rashid.config.EndpointConfig;
+import com.rashid.config.RateLimitConfig;
+import com.rashid.config.ResearchConfig;
+import com.rashid.exception.ConfigException;
+import com.rashid.model.CallSite;
+import com.rashid.service.agent.ResearchAgent;
+import com.rashid.service.ai.AdaptiveRateLimiter;
+import com.rashid.service.ai.CachingAIClient;
+import com.rashid.service.ai.CoalescingAIClient;
+import com.rashid.service.ai.HedgingAIClient;
+import com.rashid.service.ai.HttpTransport;
+import com.rashid.service.ai.OpenAISearchClient;
+import com.rashid.service.ai.RoutingAIClient;
+import com.rashid.service.api.AIClient;
+import com.rashid.service.api.ConversationService;
+import com.rashid.service.api.SourceExtractionService;
+import com.rashid.service.api.UserClarificationService;
+import com.rashid.service.cache.ResponseCache;
+import com.rashid.service.checkpoint.CheckpointStore;
+import com.rashid.service.context.ContextBudgeter;
+import com.rashid.service.context.TokenCounter;
+import com.rashid.service.conversation.ClarificationService;
+import com.rashid.service.conversation.ConversationHandler;
+import com.rashid.service.metrics.InstrumentedAIClient;
+import com.rashid.service.metrics.ResearchMetrics;
+import com.rashid.service.research.*;
+import com.rashid.service.validation.SourceValidator;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Wires the research agent and its services from configuration; shared by the console, batch and server
+// entry points and by the load driver, so every mode runs the same stack
+public class Application {
+    private final AppConfig config;
+    private final ResearchMetrics metrics;
+    private final Map<String, OpenAISearchClient> endpointClients = new LinkedHashMap<>();
+    private final HttpTransport transport;
+    private final RoutingAIClient routingClient;
+    private final HedgingAIClient hedgingClient;
+    private final CoalescingAIClient coalescingClient;
+    private final ResponseCache responseCache;
+    private final ResearchOrchestrator researchService;
+    private final SourceExtractionService sourceExtractor;
+    private final ResearchAgent agent;
+
+    public Application(AppConfig config) throws ConfigException {
+        this.config = config;
+
+        // Shared instrumentation, read through JMX and the /metrics endpoint
+        metrics = new ResearchMetrics();
+
+        // Create one AI client per configured endpoint; they share the HTTP transport and its connection pool.
+        // Behind the router an endpoint must not retry its own 429/5xx responses, or failover and ejection would
+        // only see an error after all of its retries
+        transport = new HttpTransport(config.getHttpConfig(), metrics);
+        RateLimitConfig endpointRateLimits = config.getRoutingConfig().isEnabled()
+            ? config.getRateLimitConfig().withoutRetries()
+            : config.getRateLimitConfig();
+        for (EndpointConfig endpoint : config.getRoutingConfig().getEndpoints()) {
+            OpenAISearchClient client = new OpenAISearchClient(
+                endpoint.getApiKey(),
+                endpoint.getBaseUrl(),
+                config.getModelProfilesConfig(),
+                endpointRateLimits,
+                transport,
+                metrics
+            );
+            if (config.getHttpConfig().isPrewarmEnabled()) {
+                // Runs while the user answers the first clarifying question
+                client.prewarm();
+            }
+            endpointClients.put(endpoint.getName(), client);
+        }
+        AIClient aiClient = endpointClients.values().iterator().next();
+
+        // Balance calls over several endpoints and fail over between them; below hedging, so a hedge can
+        // land on a different endpoint than the call it duplicates
+        if (config.getRoutingConfig().isEnabled()) {
+            routingClient = new RoutingAIClient(endpointClients, config.getRoutingConfig(), config.getRateLimitConfig());
+            aiClient = routingClient;
+        } else {
+            routingClient = null;
+        }
+
+        // Duplicate calls that run past their call site's usual latency; sits below coalescing and caching so
+        // only real upstream requests are hedged
+        if (config.getHedgingConfig().isEnabled()) {
+            hedgingClient = new HedgingAIClient(aiClient, config.getHedgingConfig());
+            aiClient = hedgingClient;
+        } else {
+            hedgingClient = null;
+        }
+
+        // Let concurrent identical prompts share one upstream request
+        if (config.isRequestCoalescingEnabled()) {
+            coalescingClient = new CoalescingAIClient(aiClient, config.getModelProfilesConfig());
+            aiClient = coalescingClient;
+        } else {
+            coalescingClient = null;
+        }
+
+        // Serve repeated prompts from the response cache
+        if (config.getCacheConfig().isEnabled()) {
+            responseCache = new ResponseCache(config.getCacheConfig());
+            aiClient = new CachingAIClient(
+                aiClient,
+                responseCache,
+                config.getCacheConfig(),
+                config.getModelProfilesConfig()
+            );
+        } else {
+            responseCache = null;
+        }
+
+        // Record every call's latency as the pipeline sees it, including cache hits and retries
+        aiClient = new InstrumentedAIClient(aiClient, metrics);
+
+        // Shared token budget that fits every prompt into the model's context window
+        ContextBudgeter contextBudgeter = new ContextBudgeter(
+            new TokenCounter(),
+            config.getOpenAiContextWindowTokens(),
+            config.getModelProfilesConfig().getLargestMaxTokens()
+        );
+
+        // Create research services
+        GapAnalyzer gapAnalyzer = new GapAnalyzer(aiClient, contextBudgeter);
+        QueryGenerator queryGenerator = new QueryGenerator(aiClient);
+        IterationController iterationController = new IterationController(aiClient, contextBudgeter);
+        SynthesisService synthesisService = new SynthesisService(aiClient, config.getSynthesisConfig());
+        SourceValidator sourceValidator = new SourceValidator();
+        sourceExtractor = new SourceExtractor(sourceValidator);
+
+        // Let sessions reuse each other's findings for near-duplicate queries through the response cache
+        SharedQueryResults sharedQueryResults = null;
+        ResearchConfig researchConfig = config.getResearchConfig();
+        if (researchConfig.isQueryDedupEnabled() && researchConfig.isQueryDedupSharedEnabled() && responseCache != null) {
+            sharedQueryResults = new SharedQueryResults(
+                responseCache,
+                config.getCacheConfig().getTtl(CallSite.DEEP_DIVE),
+                config.getModelProfilesConfig().getProfile(CallSite.DEEP_DIVE),
+                researchConfig.getQueryDedupSimilarityPercent() / 100.0,
+                // The index is no use beyond what the memory tier can hold
+                config.getCacheConfig().getMemoryMaxEntries()
+            );
+        }
+
+        // Create main research orchestrator
+        researchService = new ResearchOrchestrator(
+            aiClient,
+            gapAnalyzer,
+            queryGenerator,
+            iterationController,
+            synthesisService,
+            sourceExtractor,
+            researchConfig,
+            contextBudgeter,
+            config.getCheckpointConfig().isEnabled() ? new CheckpointStore(config.getCheckpointConfig()) : null,
+            sharedQueryResults,
+            metrics
+        );
+
+        // Create conversation services
+        UserClarificationService clarificationService = new ClarificationService(aiClient);
+        ConversationService conversationService = new ConversationHandler(aiClient, contextBudgeter,
+            config.getConversationConfig());
+
+        // Create research agent with all dependencies injected
+        agent = new ResearchAgent(
+            clarificationService,
+            researchService,
+            conversationService,
+            sourceExtractor
+        );
+    }
+
+    public AppConfig getConfig() {
+        return config;
+    }
+
+    public ResearchMetrics getMetrics() {
+        return metrics;
+    }
+
+    // Tokens used so far across all endpoints
+    public long getTotalTokens() {
+        return endpointClients.values().stream().mapToLong(OpenAISearchClient::getTotalTokens).sum();
+    }
+
+    public ResearchOrchestrator getResearchService() {
+        return researchService;
+    }
+
+    public SourceExtractionService getSourceExtractor() {
+        return sourceExtractor;
+    }
+
+    public ResearchAgent getAgent() {
+        return agent;
+    }
+
+    // Prints token usage, HTTP transport, routing, rate limiting, hedging, cache, novelty, query deduplication,
+    // speculation and coalescing statistics for the process
+    public void printUsageStats() {
+        if (getTotalTokens() > 0) {
+            System.out.printf("Tokens: %d prompt, %d completion\n",
+                endpointClients.values().stream().mapToLong(OpenAISearchClient::getPromptTokens).sum(),
+                endpointClients.values().stream().mapToLong(OpenAISearchClient::getCompletionTokens).sum());
+            if (metrics.getCompletionTokens().size() > 1) {
+                // Model profiles send some call sites to other models
+                System.out.println("Completion tokens by model: " + new TreeMap<>(metrics.getCompletionTokens()));
+            }
+        }
+        System.out.println("HTTP transport: " + transport);
+        if (routingClient != null) {
+            System.out.printf("Routing: %d failovers, %d retries; %s\n", routingClient.getFailovers(),
+                routingClient.getRetries(),
+                String.join("; ", routingClient.getEndpointStats().stream().map(Object::toString).toList()));
+        }
+        if (config.getRateLimitConfig().isEnabled()) {
+            long throttled = 0;
+            long throttledMillis = 0;
+            long rateLimited = 0;
+            long retries = 0;
+            for (OpenAISearchClient client : endpointClients.values()) {
+                AdaptiveRateLimiter rateLimiter = client.getRateLimiter();
+                throttled += rateLimiter.getThrottledRequests();
+                throttledMillis += rateLimiter.getThrottledTime().toMillis();
+                rateLimited += rateLimiter.getRateLimitedResponses();
+                retries += client.getRetryCount();
+            }
+            System.out.printf("Rate limiting: %d throttled (%.1fs waiting), %d rate-limited responses, %d retries\n",
+                throttled, throttledMillis / 1000.0, rateLimited, retries);
+        }
+        if (hedgingClient != null) {
+            System.out.printf("Request hedging: %d of %d calls hedged, %d answered first by the hedge, " +
+                    "~%.1fs of tail latency saved (estimated)\n",
+                hedgingClient.getHedgedCalls(), hedgingClient.getTotalCalls(), hedgingClient.getHedgeWins(),
+                hedgingClient.getEstimatedTimeSaved().toMillis() / 1000.0);
+        }
+        if (responseCache != null) {
+            System.out.println("Response cache: " + responseCache.getStats());
+        }
+        if (config.getResearchConfig().isNoveltyEnabled()) {
+            System.out.println("Novelty detection: " + researchService.getNoveltyStats());
+        }
+        if (config.getResearchConfig().isQueryDedupEnabled()) {
+            System.out.println("Query deduplication: " + researchService.getQueryDedupStats());
+        }
+        if (config.getResearchConfig().isPipeliningEnabled()) {
+            System.out.println("Speculative searches: " + researchService.getSpeculationStats());
+        }
+        if (coalescingClient != null) {
+            System.out.printf("Request coalescing: %d of %d requests shared an in-flight call\n",
+                coalescingClient.getCoalescedRequests(), coalescingClient.getTotalRequests());
+        }
+    }
+}
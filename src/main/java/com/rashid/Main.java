@@ -3,19 +3,27 @@ package com.rashid;
 import com.rashid.config.AppConfig;
 import com.rashid.config.ConfigLoader;
 import com.rashid.exception.ConfigException;
+import com.rashid.exception.ResearchException;
 import com.rashid.service.agent.ResearchAgent;
-import com.rashid.service.ai.OpenAISearchClient;
-import com.rashid.service.api.AIClient;
-import com.rashid.service.api.ConversationService;
-import com.rashid.service.api.ResearchService;
-import com.rashid.service.api.SourceExtractionService;
-import com.rashid.service.api.UserClarificationService;
-import com.rashid.service.conversation.ClarificationService;
-import com.rashid.service.conversation.ConversationHandler;
-import com.rashid.service.research.*;
-import com.rashid.service.validation.SourceValidator;
-
+import com.rashid.service.batch.BatchRunner;
+import com.rashid.service.batch.BatchSummary;
+import com.rashid.service.batch.BatchTopic;
+import com.rashid.service.conversation.ConsoleChannel;
+import com.rashid.service.metrics.MetricsHandler;
+import com.rashid.service.metrics.ResearchMetrics;
+import com.rashid.service.server.ResearchServer;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.CountDownLatch;
+import javax.management.JMException;
+import javax.management.ObjectName;
 
 public class Main {
     public static void main(String[] args) {
@@ -29,46 +37,38 @@ public class Main {
             ConfigLoader configLoader = new ConfigLoader();
             AppConfig config = configLoader.load();
 
-            // Create AI client
-            AIClient aiClient = new OpenAISearchClient(
-                config.getOpenAiApiKey(),
-                config.getOpenAiModel(),
-                config.getOpenAiMaxTokens(),
-                config.getOpenAiTemperature()
-            );
-
-            // Create research services
-            GapAnalyzer gapAnalyzer = new GapAnalyzer(aiClient);
-            QueryGenerator queryGenerator = new QueryGenerator(aiClient);
-            SynthesisService synthesisService = new SynthesisService(aiClient);
-            SourceValidator sourceValidator = new SourceValidator();
-            SourceExtractionService sourceExtractor = new SourceExtractor(sourceValidator);
-
-            // Create main research orchestrator
-            ResearchService researchService = new ResearchOrchestrator(
-                aiClient,
-                gapAnalyzer,
-                queryGenerator,
-                synthesisService,
-                sourceExtractor
-            );
-
-            // Create conversation services
-            UserClarificationService clarificationService = new ClarificationService(aiClient, scanner);
-            ConversationService conversationService = new ConversationHandler(aiClient, scanner);
-
-            // Create research agent with all dependencies injected
-            ResearchAgent agent = new ResearchAgent(
-                clarificationService,
-                researchService,
-                conversationService,
-                sourceExtractor
-            );
-
-            System.out.println("I'll ask clarifying questions, conduct deep iterative research,");
-            System.out.println("and answer any follow-up questions you have.\n");
-
-            runResearchLoop(agent, scanner);
+            // Wire the agent and its services
+            Application application = new Application(config);
+            ResearchAgent agent = application.getAgent();
+
+            if (config.getMetricsConfig().isJmxEnabled()) {
+                registerMetricsMBean(application.getMetrics());
+            }
+
+            if (isServerMode(args)) {
+                runServer(application);
+                return;
+            }
+
+            HttpServer metricsServer = startMetricsEndpoint(config, application.getMetrics());
+            try {
+                String batchFile = optionValue(args, "--batch");
+                if (batchFile != null) {
+                    String outputDirectory = optionValue(args, "--out");
+                    runBatch(application, Path.of(batchFile),
+                        Path.of(outputDirectory != null ? outputDirectory : config.getBatchConfig().getOutputDirectory()));
+                } else {
+                    System.out.println("I'll ask clarifying questions, conduct deep iterative research,");
+                    System.out.println("and answer any follow-up questions you have.\n");
+
+                    runResearchLoop(agent, new ConsoleChannel(scanner));
+                }
+                application.printUsageStats();
+            } finally {
+                if (metricsServer != null) {
+                    metricsServer.stop(0);
+                }
+            }
 
         } catch (ConfigException e) {
             System.err.println("Configuration error: " + e.getMessage());
@@ -79,24 +79,95 @@ public class Main {
         }
     }
 
+    private static boolean isServerMode(String[] args) {
+        for (String arg : args) {
+            if (arg.equals("--server")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Returns the value following an option such as --batch <file>, or null if the option is absent
+    private static String optionValue(String[] args, String option) {
+        for (int i = 0; i < args.length - 1; i++) {
+            if (args[i].equals(option)) {
+                return args[i + 1];
+            }
+        }
+        return null;
+    }
+
+    // Researches every topic in the file without interaction and prints the run's throughput
+    private static void runBatch(Application application, Path topicsFile, Path outputDirectory)
+            throws ResearchException {
+        BatchRunner batchRunner = new BatchRunner(application.getResearchService(), application.getSourceExtractor(),
+            application.getConfig().getBatchConfig(), application::getTotalTokens);
+        List<BatchTopic> topics = batchRunner.readTopics(topicsFile);
+        System.out.println("Writing reports to " + outputDirectory.toAbsolutePath());
+
+        BatchSummary summary = batchRunner.run(topics, outputDirectory);
+        System.out.println();
+        System.out.println("Batch summary: " + summary);
+    }
+
+    // Exposes the metrics as an MXBean for JConsole and other JMX clients
+    private static void registerMetricsMBean(ResearchMetrics metrics) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, new ObjectName(ResearchMetrics.OBJECT_NAME));
+        } catch (JMException e) {
+            System.err.println("JMX metrics unavailable: " + e.getMessage());
+        }
+    }
+
+    // Starts the standalone /metrics endpoint when metrics.port is set; server mode serves it on the server port
+    private static HttpServer startMetricsEndpoint(AppConfig config, ResearchMetrics metrics) throws IOException {
+        int port = config.getMetricsConfig().getPort();
+        if (port == 0) {
+            return null;
+        }
+        HttpServer metricsServer = HttpServer.create(new InetSocketAddress(port), 0);
+        metricsServer.createContext(MetricsHandler.PATH, new MetricsHandler(metrics));
+        metricsServer.start();
+        System.out.println("Metrics available at http://localhost:" + port + MetricsHandler.PATH);
+        return metricsServer;
+    }
+
+    // Serves research sessions over HTTP until the process is stopped
+    private static void runServer(Application application) throws IOException, InterruptedException {
+        ResearchServer server = new ResearchServer(application.getAgent(), application.getConfig().getServerConfig(),
+            application.getMetrics());
+        server.start();
+        System.out.println("Serving research sessions on port " + server.getPort() + " (Ctrl+C to stop)");
+
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop();
+            application.printUsageStats();
+            stopped.countDown();
+        }));
+        stopped.await();
+    }
+
     // Main research loop that processes user topics until quit
-    private static void runResearchLoop(ResearchAgent agent, Scanner scanner) {
+    private static void runResearchLoop(ResearchAgent agent, ConsoleChannel channel) {
         while (true) {
             System.out.println();
             System.out.print("Enter research topic (or 'quit' to exit): ");
-            String topic = scanner.nextLine().trim();
+            String topic = channel.readLine();
 
-            if (topic.equalsIgnoreCase("quit") || topic.equalsIgnoreCase("exit")) {
+            if (topic == null || topic.trim().equalsIgnoreCase("quit") || topic.trim().equalsIgnoreCase("exit")) {
                 System.out.println("\nThank you for using Deep Research Agent!");
                 break;
             }
+            topic = topic.trim();
 
             if (topic.isEmpty()) {
                 System.out.println("Please enter a valid topic.");
                 continue;
             }
 
-            agent.startConversation(topic);
+            agent.startConversation(topic, channel);
         }
     }
 }
@@ -1,29 +1,81 @@
 package com.rashid.config;
 
-// Application configuration holder containing OpenAI settings
+// Application configuration holder containing OpenAI and research settings
 public class AppConfig {
     private final String openAiApiKey;
+    private final String openAiBaseUrl;
     private final String openAiModel;
     private final int openAiMaxTokens;
     private final double openAiTemperature;
+    private final int openAiContextWindowTokens;
+    private final ResearchConfig researchConfig;
+    private final CacheConfig cacheConfig;
+    private final boolean requestCoalescingEnabled;
+    private final RateLimitConfig rateLimitConfig;
+    private final SynthesisConfig synthesisConfig;
+    private final ConversationConfig conversationConfig;
+    private final ServerConfig serverConfig;
+    private final BatchConfig batchConfig;
+    private final CheckpointConfig checkpointConfig;
+    private final MetricsConfig metricsConfig;
+    private final HttpConfig httpConfig;
+    private final HedgingConfig hedgingConfig;
+    private final RoutingConfig routingConfig;
+    private final ModelProfilesConfig modelProfilesConfig;
 
-    // Constructs a new application configuration with OpenAI settings
+    // Constructs a new application configuration with OpenAI and research settings
     public AppConfig(
             String openAiApiKey,
+            String openAiBaseUrl,
             String openAiModel,
             int openAiMaxTokens,
-            double openAiTemperature
+            double openAiTemperature,
+            int openAiContextWindowTokens,
+            ResearchConfig researchConfig,
+            CacheConfig cacheConfig,
+            boolean requestCoalescingEnabled,
+            RateLimitConfig rateLimitConfig,
+            SynthesisConfig synthesisConfig,
+            ConversationConfig conversationConfig,
+            ServerConfig serverConfig,
+            BatchConfig batchConfig,
+            CheckpointConfig checkpointConfig,
+            MetricsConfig metricsConfig,
+            HttpConfig httpConfig,
+            HedgingConfig hedgingConfig,
+            RoutingConfig routingConfig,
+            ModelProfilesConfig modelProfilesConfig
     ) {
         this.openAiApiKey = openAiApiKey;
+        this.openAiBaseUrl = openAiBaseUrl;
         this.openAiModel = openAiModel;
         this.openAiMaxTokens = openAiMaxTokens;
         this.openAiTemperature = openAiTemperature;
+        this.openAiContextWindowTokens = openAiContextWindowTokens;
+        this.researchConfig = researchConfig;
+        this.cacheConfig = cacheConfig;
+        this.requestCoalescingEnabled = requestCoalescingEnabled;
+        this.rateLimitConfig = rateLimitConfig;
+        this.synthesisConfig = synthesisConfig;
+        this.conversationConfig = conversationConfig;
+        this.serverConfig = serverConfig;
+        this.batchConfig = batchConfig;
+        this.checkpointConfig = checkpointConfig;
+        this.metricsConfig = metricsConfig;
+        this.httpConfig = httpConfig;
+        this.hedgingConfig = hedgingConfig;
+        this.routingConfig = routingConfig;
+        this.modelProfilesConfig = modelProfilesConfig;
     }
 
     public String getOpenAiApiKey() {
         return openAiApiKey;
     }
 
+    public String getOpenAiBaseUrl() {
+        return openAiBaseUrl;
+    }
+
     public String getOpenAiModel() {
         return openAiModel;
     }
@@ -35,4 +87,64 @@ public class AppConfig {
     public double getOpenAiTemperature() {
         return openAiTemperature;
     }
+
+    public int getOpenAiContextWindowTokens() {
+        return openAiContextWindowTokens;
+    }
+
+    public ResearchConfig getResearchConfig() {
+        return researchConfig;
+    }
+
+    public CacheConfig getCacheConfig() {
+        return cacheConfig;
+    }
+
+    public boolean isRequestCoalescingEnabled() {
+        return requestCoalescingEnabled;
+    }
+
+    public RateLimitConfig getRateLimitConfig() {
+        return rateLimitConfig;
+    }
+
+    public SynthesisConfig getSynthesisConfig() {
+        return synthesisConfig;
+    }
+
+    public ConversationConfig getConversationConfig() {
+        return conversationConfig;
+    }
+
+    public ServerConfig getServerConfig() {
+        return serverConfig;
+    }
+
+    public BatchConfig getBatchConfig() {
+        return batchConfig;
+    }
+
+    public CheckpointConfig getCheckpointConfig() {
+        return checkpointConfig;
+    }
+
+    public MetricsConfig getMetricsConfig() {
+        return metricsConfig;
+    }
+
+    public HttpConfig getHttpConfig() {
+        return httpConfig;
+    }
+
+    public HedgingConfig getHedgingConfig() {
+        return hedgingConfig;
+    }
+
+    public RoutingConfig getRoutingConfig() {
+        return routingConfig;
+    }
+
+    public ModelProfilesConfig getModelProfilesConfig() {
+        return modelProfilesConfig;
+    }
 }
@@ -0,0 +1,35 @@
+package com.rashid.config;
+
+import java.util.Set;
+
+// Batch research configuration for unattended runs over a topics file
+public class BatchConfig {
+    private final int concurrency;
+    private final String outputDirectory;
+    private final Set<String> outputFormats;
+    private final String defaultInstructions;
+
+    // Constructs batch configuration; output formats are "json" and/or "md"
+    public BatchConfig(int concurrency, String outputDirectory, Set<String> outputFormats, String defaultInstructions) {
+        this.concurrency = concurrency;
+        this.outputDirectory = outputDirectory;
+        this.outputFormats = Set.copyOf(outputFormats);
+        this.defaultInstructions = defaultInstructions;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public String getOutputDirectory() {
+        return outputDirectory;
+    }
+
+    public Set<String> getOutputFormats() {
+        return outputFormats;
+    }
+
+    public String getDefaultInstructions() {
+        return defaultInstructions;
+    }
+}
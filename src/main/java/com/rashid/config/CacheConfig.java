@@ -0,0 +1,61 @@
+package com.rashid.config;
+
+import com.rashid.model.CallSite;
+
+import java.time.Duration;
+import java.util.Map;
+
+// Response cache configuration with per-call-site time-to-live settings
+public class CacheConfig {
+    private final boolean enabled;
+    private final int memoryMaxEntries;
+    private final long memoryMaxBytes;
+    private final boolean diskEnabled;
+    private final String diskDirectory;
+    private final long diskMaxBytes;
+    private final Duration defaultTtl;
+    private final Map<CallSite, Duration> callSiteTtls;
+
+    // Constructs cache configuration with tier bounds and TTLs
+    public CacheConfig(boolean enabled, int memoryMaxEntries, long memoryMaxBytes,
+                       boolean diskEnabled, String diskDirectory, long diskMaxBytes,
+                       Duration defaultTtl, Map<CallSite, Duration> callSiteTtls) {
+        this.enabled = enabled;
+        this.memoryMaxEntries = memoryMaxEntries;
+        this.memoryMaxBytes = memoryMaxBytes;
+        this.diskEnabled = diskEnabled;
+        this.diskDirectory = diskDirectory;
+        this.diskMaxBytes = diskMaxBytes;
+        this.defaultTtl = defaultTtl;
+        this.callSiteTtls = Map.copyOf(callSiteTtls);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getMemoryMaxEntries() {
+        return memoryMaxEntries;
+    }
+
+    public long getMemoryMaxBytes() {
+        return memoryMaxBytes;
+    }
+
+    public boolean isDiskEnabled() {
+        return diskEnabled;
+    }
+
+    public String getDiskDirectory() {
+        return diskDirectory;
+    }
+
+    public long getDiskMaxBytes() {
+        return diskMaxBytes;
+    }
+
+    // Returns how long responses from the given call site stay fresh; zero disables caching for it
+    public Duration getTtl(CallSite callSite) {
+        return callSiteTtls.getOrDefault(callSite, defaultTtl);
+    }
+}
@@ -0,0 +1,27 @@
+package com.rashid.config;
+
+// Research checkpoint configuration: where iteration logs are kept and how often appends are fsynced
+public class CheckpointConfig {
+    private final boolean enabled;
+    private final String directory;
+    private final long syncIntervalMillis;
+
+    // Constructs checkpoint configuration; a sync interval of 0 forces every append to disk immediately
+    public CheckpointConfig(boolean enabled, String directory, long syncIntervalMillis) {
+        this.enabled = enabled;
+        this.directory = directory;
+        this.syncIntervalMillis = syncIntervalMillis;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public long getSyncIntervalMillis() {
+        return syncIntervalMillis;
+    }
+}
@@ -2,11 +2,20 @@ package com.rashid.config;
 
 import com.rashid.constants.ConfigConstants;
 import com.rashid.exception.ConfigException;
+import com.rashid.model.CallProfile;
+import com.rashid.model.CallSite;
 import com.rashid.service.api.ConfigurationService;
 import io.github.cdimascio.dotenv.Dotenv;
 
 import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
 
 // Loads application configuration from properties file and .env file
 public class ConfigLoader implements ConfigurationService {
@@ -18,17 +27,36 @@ public class ConfigLoader implements ConfigurationService {
         this.dotenv = Dotenv.configure().ignoreIfMissing().load();
     }
 
-    // Loads configuration from application.properties file and .env file
+    // Loads configuration from application.properties file and .env file; -D system properties override the file
     @Override
     public AppConfig load() throws ConfigException {
         Properties props = loadPropertiesFile();
+        props.putAll(System.getProperties());
         String apiKey = loadApiKey(props);
+        String baseUrl = props.getProperty(ConfigConstants.PROP_OPENAI_BASE_URL, ConfigConstants.DEFAULT_BASE_URL).trim();
 
         return new AppConfig(
             apiKey,
+            baseUrl,
             props.getProperty(ConfigConstants.PROP_OPENAI_MODEL, ConfigConstants.DEFAULT_MODEL),
             parseMaxTokens(props),
-            parseTemperature(props)
+            parseTemperature(props),
+            parseContextWindowTokens(props),
+            loadResearchConfig(props),
+            loadCacheConfig(props),
+            parseBoolean(props, ConfigConstants.PROP_AI_COALESCING_ENABLED,
+                ConfigConstants.DEFAULT_AI_COALESCING_ENABLED),
+            loadRateLimitConfig(props),
+            loadSynthesisConfig(props),
+            loadConversationConfig(props),
+            loadServerConfig(props),
+            loadBatchConfig(props),
+            loadCheckpointConfig(props),
+            loadMetricsConfig(props),
+            loadHttpConfig(props),
+            loadHedgingConfig(props),
+            loadRoutingConfig(props, apiKey, baseUrl),
+            loadModelProfilesConfig(props)
         );
     }
 
@@ -74,6 +102,112 @@ public class ConfigLoader implements ConfigurationService {
         return apiKey;
     }
 
+    // Loads the endpoint pool: the main endpoint first, then every endpoint named in openai.endpoints
+    private RoutingConfig loadRoutingConfig(Properties props, String apiKey, String baseUrl) throws ConfigException {
+        List<EndpointConfig> endpoints = new ArrayList<>();
+        endpoints.add(new EndpointConfig(ConfigConstants.DEFAULT_ENDPOINT_NAME, baseUrl, apiKey));
+
+        for (String entry : props.getProperty(ConfigConstants.PROP_OPENAI_ENDPOINTS, "").split(",")) {
+            String name = entry.trim().toLowerCase();
+            if (name.isEmpty()) {
+                continue;
+            }
+            boolean duplicate = endpoints.stream().anyMatch(endpoint -> endpoint.getName().equals(name));
+            if (!name.matches("[a-z0-9-]+") || duplicate) {
+                throw new ConfigException("Invalid " + ConfigConstants.PROP_OPENAI_ENDPOINTS
+                    + " configuration: '" + entry.trim() + "' must be a unique name of letters, digits and dashes");
+            }
+            String urlKey = ConfigConstants.PROP_OPENAI_ENDPOINT_PREFIX + name
+                + ConfigConstants.PROP_OPENAI_ENDPOINT_BASE_URL_SUFFIX;
+            String endpointUrl = props.getProperty(urlKey);
+            if (endpointUrl == null || endpointUrl.isBlank()) {
+                throw new ConfigException("Missing " + urlKey + " configuration");
+            }
+            endpoints.add(new EndpointConfig(name, endpointUrl.trim(), loadEndpointApiKey(props, name, apiKey)));
+        }
+
+        return new RoutingConfig(
+            endpoints,
+            parsePositiveInt(props, ConfigConstants.PROP_ROUTING_EJECT_AFTER_FAILURES,
+                ConfigConstants.DEFAULT_ROUTING_EJECT_AFTER_FAILURES),
+            Duration.ofSeconds(parsePositiveInt(props, ConfigConstants.PROP_ROUTING_EJECT_SECONDS,
+                ConfigConstants.DEFAULT_ROUTING_EJECT_SECONDS))
+        );
+    }
+
+    // Loads an endpoint's API key (dotenv, system env, properties), falling back to the main key for
+    // gateways that accept it
+    private String loadEndpointApiKey(Properties props, String name, String defaultApiKey) {
+        String variable = ConfigConstants.ENV_OPENAI_API_KEY + "_" + name.toUpperCase().replace('-', '_');
+        String apiKey = dotenv.get(variable);
+
+        if (apiKey == null || apiKey.isBlank()) {
+            apiKey = System.getenv(variable);
+        }
+
+        if (apiKey == null || apiKey.isBlank()) {
+            apiKey = props.getProperty(ConfigConstants.PROP_OPENAI_ENDPOINT_PREFIX + name
+                + ConfigConstants.PROP_OPENAI_ENDPOINT_API_KEY_SUFFIX);
+        }
+
+        return apiKey == null || apiKey.isBlank() ? defaultApiKey : apiKey.trim();
+    }
+
+    // Loads the per-call-profile model settings; every setting a profile leaves out is taken from openai.*
+    private ModelProfilesConfig loadModelProfilesConfig(Properties props) throws ConfigException {
+        ModelProfile defaultProfile = new ModelProfile(
+            props.getProperty(ConfigConstants.PROP_OPENAI_MODEL, ConfigConstants.DEFAULT_MODEL),
+            parseMaxTokens(props),
+            parseTemperature(props),
+            List.of()
+        );
+        int contextWindow = parseContextWindowTokens(props);
+
+        Map<CallProfile, ModelProfile> profiles = new EnumMap<>(CallProfile.class);
+        for (CallProfile profile : CallProfile.values()) {
+            String prefix = ConfigConstants.PROP_OPENAI_PROFILE_PREFIX + profile.getKey();
+            String modelKey = prefix + ConfigConstants.PROP_OPENAI_PROFILE_MODEL_SUFFIX;
+            String maxTokensKey = prefix + ConfigConstants.PROP_OPENAI_PROFILE_MAX_TOKENS_SUFFIX;
+            String temperatureKey = prefix + ConfigConstants.PROP_OPENAI_PROFILE_TEMPERATURE_SUFFIX;
+            String stopKey = prefix + ConfigConstants.PROP_OPENAI_PROFILE_STOP_SUFFIX;
+
+            String model = props.getProperty(modelKey, "").trim();
+            int maxTokens = parsePositiveInt(props, maxTokensKey, defaultProfile.getMaxTokens());
+            if (maxTokens >= contextWindow) {
+                throw new ConfigException("Invalid " + maxTokensKey + " configuration: must be smaller than "
+                    + ConfigConstants.PROP_OPENAI_CONTEXT_WINDOW_TOKENS);
+            }
+            double temperature;
+            try {
+                temperature = Double.parseDouble(
+                    props.getProperty(temperatureKey, String.valueOf(defaultProfile.getTemperature())).trim());
+            } catch (NumberFormatException e) {
+                throw new ConfigException("Invalid " + temperatureKey + " configuration", e);
+            }
+
+            // Comma-separated; only spaces and tabs are trimmed, so escapes such as \n\n stay usable as stops
+            List<String> stopSequences = new ArrayList<>();
+            for (String stop : props.getProperty(stopKey, "").split(",")) {
+                String sequence = stop.replaceAll("^[ \\t]+|[ \\t]+$", "");
+                if (!sequence.isEmpty()) {
+                    stopSequences.add(sequence);
+                }
+            }
+            if (stopSequences.size() > ConfigConstants.MAX_STOP_SEQUENCES) {
+                throw new ConfigException("Invalid " + stopKey + " configuration: at most "
+                    + ConfigConstants.MAX_STOP_SEQUENCES + " stop sequences are allowed");
+            }
+
+            profiles.put(profile, new ModelProfile(
+                model.isEmpty() ? defaultProfile.getModel() : model,
+                maxTokens,
+                temperature,
+                stopSequences
+            ));
+        }
+        return new ModelProfilesConfig(defaultProfile, profiles);
+    }
+
     // Parses max tokens from properties
     private int parseMaxTokens(Properties props) throws ConfigException {
         try {
@@ -87,6 +221,17 @@ public class ConfigLoader implements ConfigurationService {
         }
     }
 
+    // Parses the model's context window size, which must leave room for the configured completion length
+    private int parseContextWindowTokens(Properties props) throws ConfigException {
+        int contextWindow = parsePositiveInt(props, ConfigConstants.PROP_OPENAI_CONTEXT_WINDOW_TOKENS,
+            ConfigConstants.DEFAULT_CONTEXT_WINDOW_TOKENS);
+        if (contextWindow <= parseMaxTokens(props)) {
+            throw new ConfigException("Invalid " + ConfigConstants.PROP_OPENAI_CONTEXT_WINDOW_TOKENS
+                + " configuration: must be larger than " + ConfigConstants.PROP_OPENAI_MAX_TOKENS);
+        }
+        return contextWindow;
+    }
+
     // Parses temperature from properties
     private double parseTemperature(Properties props) throws ConfigException {
         try {
@@ -99,4 +244,258 @@ public class ConfigLoader implements ConfigurationService {
             throw new ConfigException("Invalid temperature configuration", e);
         }
     }
+
+    // Loads research pipeline settings from properties
+    private ResearchConfig loadResearchConfig(Properties props) throws ConfigException {
+        int noveltyStopPercent = parseNonNegativeInt(props, ConfigConstants.PROP_RESEARCH_NOVELTY_STOP_PERCENT,
+            ConfigConstants.DEFAULT_NOVELTY_STOP_PERCENT);
+        int noveltyContinuePercent = parseNonNegativeInt(props, ConfigConstants.PROP_RESEARCH_NOVELTY_CONTINUE_PERCENT,
+            ConfigConstants.DEFAULT_NOVELTY_CONTINUE_PERCENT);
+        if (noveltyStopPercent > noveltyContinuePercent || noveltyContinuePercent > 100) {
+            throw new ConfigException("Invalid " + ConfigConstants.PROP_RESEARCH_NOVELTY_CONTINUE_PERCENT
+                + " configuration: must be between " + ConfigConstants.PROP_RESEARCH_NOVELTY_STOP_PERCENT + " and 100");
+        }
+        int querySimilarityPercent = parsePositiveInt(props, ConfigConstants.PROP_RESEARCH_QUERY_DEDUP_SIMILARITY_PERCENT,
+            ConfigConstants.DEFAULT_QUERY_DEDUP_SIMILARITY_PERCENT);
+        if (querySimilarityPercent > 100) {
+            throw new ConfigException("Invalid " + ConfigConstants.PROP_RESEARCH_QUERY_DEDUP_SIMILARITY_PERCENT
+                + " configuration: must not exceed 100");
+        }
+
+        return new ResearchConfig(
+            parseBoolean(props, ConfigConstants.PROP_RESEARCH_PARALLEL_QUERIES,
+                ConfigConstants.DEFAULT_PARALLEL_QUERIES),
+            parsePositiveInt(props, ConfigConstants.PROP_RESEARCH_MAX_PARALLEL_QUERIES,
+                ConfigConstants.DEFAULT_MAX_PARALLEL_QUERIES),
+            parseBoolean(props, ConfigConstants.PROP_RESEARCH_STRUCTURED_CONTROLLER,
+                ConfigConstants.DEFAULT_STRUCTURED_CONTROLLER),
+            parseBoolean(props, ConfigConstants.PROP_RESEARCH_PIPELINING,
+                ConfigConstants.DEFAULT_PIPELINING),
+            parseBoolean(props, ConfigConstants.PROP_RESEARCH_FINDINGS_DIGEST,
+                ConfigConstants.DEFAULT_FINDINGS_DIGEST),
+            parsePositiveInt(props, ConfigConstants.PROP_RESEARCH_FINDINGS_DIGEST_MAX_CHARS,
+                ConfigConstants.DEFAULT_FINDINGS_DIGEST_MAX_CHARS),
+            parseBoolean(props, ConfigConstants.PROP_RESEARCH_NOVELTY_ENABLED,
+                ConfigConstants.DEFAULT_NOVELTY_ENABLED),
+            noveltyStopPercent,
+            noveltyContinuePercent,
+            parseBoolean(props, ConfigConstants.PROP_RESEARCH_QUERY_DEDUP_ENABLED,
+                ConfigConstants.DEFAULT_QUERY_DEDUP_ENABLED),
+            querySimilarityPercent,
+            parseBoolean(props, ConfigConstants.PROP_RESEARCH_QUERY_DEDUP_SHARED_ENABLED,
+                ConfigConstants.DEFAULT_QUERY_DEDUP_SHARED_ENABLED)
+        );
+    }
+
+    // Loads response cache settings, including optional per-call-site TTL overrides
+    private CacheConfig loadCacheConfig(Properties props) throws ConfigException {
+        Duration defaultTtl = Duration.ofSeconds(parseNonNegativeLong(props,
+            ConfigConstants.PROP_CACHE_TTL_DEFAULT_SECONDS, ConfigConstants.DEFAULT_CACHE_TTL_SECONDS));
+
+        Map<CallSite, Duration> callSiteTtls = new EnumMap<>(CallSite.class);
+        for (CallSite callSite : CallSite.values()) {
+            String key = ConfigConstants.PROP_CACHE_TTL_PREFIX + callSite.getKey() + ConfigConstants.PROP_CACHE_TTL_SUFFIX;
+            if (props.getProperty(key) != null) {
+                callSiteTtls.put(callSite, Duration.ofSeconds(parseNonNegativeLong(props, key, 0)));
+            }
+        }
+
+        return new CacheConfig(
+            parseBoolean(props, ConfigConstants.PROP_CACHE_ENABLED, ConfigConstants.DEFAULT_CACHE_ENABLED),
+            parsePositiveInt(props, ConfigConstants.PROP_CACHE_MEMORY_MAX_ENTRIES,
+                ConfigConstants.DEFAULT_CACHE_MEMORY_MAX_ENTRIES),
+            megabytes(parsePositiveInt(props, ConfigConstants.PROP_CACHE_MEMORY_MAX_MB,
+                ConfigConstants.DEFAULT_CACHE_MEMORY_MAX_MB)),
+            parseBoolean(props, ConfigConstants.PROP_CACHE_DISK_ENABLED, ConfigConstants.DEFAULT_CACHE_DISK_ENABLED),
+            props.getProperty(ConfigConstants.PROP_CACHE_DISK_DIRECTORY, ConfigConstants.DEFAULT_CACHE_DISK_DIRECTORY),
+            megabytes(parsePositiveInt(props, ConfigConstants.PROP_CACHE_DISK_MAX_MB,
+                ConfigConstants.DEFAULT_CACHE_DISK_MAX_MB)),
+            defaultTtl,
+            callSiteTtls
+        );
+    }
+
+    // Loads client-side rate limiting and retry settings
+    private RateLimitConfig loadRateLimitConfig(Properties props) throws ConfigException {
+        return new RateLimitConfig(
+            parseBoolean(props, ConfigConstants.PROP_RATE_LIMIT_ENABLED, ConfigConstants.DEFAULT_RATE_LIMIT_ENABLED),
+            parsePositiveInt(props, ConfigConstants.PROP_RATE_LIMIT_REQUESTS_PER_MINUTE,
+                ConfigConstants.DEFAULT_RATE_LIMIT_REQUESTS_PER_MINUTE),
+            parsePositiveInt(props, ConfigConstants.PROP_RATE_LIMIT_TOKENS_PER_MINUTE,
+                ConfigConstants.DEFAULT_RATE_LIMIT_TOKENS_PER_MINUTE),
+            (int) parseNonNegativeLong(props, ConfigConstants.PROP_RATE_LIMIT_MAX_RETRIES,
+                ConfigConstants.DEFAULT_RATE_LIMIT_MAX_RETRIES),
+            parseNonNegativeLong(props, ConfigConstants.PROP_RATE_LIMIT_BASE_BACKOFF_MS,
+                ConfigConstants.DEFAULT_RATE_LIMIT_BASE_BACKOFF_MS),
+            parseNonNegativeLong(props, ConfigConstants.PROP_RATE_LIMIT_MAX_BACKOFF_MS,
+                ConfigConstants.DEFAULT_RATE_LIMIT_MAX_BACKOFF_MS)
+        );
+    }
+
+    // Loads final report synthesis settings
+    private SynthesisConfig loadSynthesisConfig(Properties props) throws ConfigException {
+        int fanIn = parsePositiveInt(props, ConfigConstants.PROP_SYNTHESIS_FAN_IN,
+            ConfigConstants.DEFAULT_SYNTHESIS_FAN_IN);
+        if (fanIn < 2) {
+            throw new ConfigException("Invalid " + ConfigConstants.PROP_SYNTHESIS_FAN_IN
+                + " configuration: must be at least 2");
+        }
+        return new SynthesisConfig(
+            parseBoolean(props, ConfigConstants.PROP_SYNTHESIS_MAP_REDUCE, ConfigConstants.DEFAULT_SYNTHESIS_MAP_REDUCE),
+            fanIn,
+            parsePositiveInt(props, ConfigConstants.PROP_SYNTHESIS_MAX_PROMPT_CHARS,
+                ConfigConstants.DEFAULT_SYNTHESIS_MAX_PROMPT_CHARS)
+        );
+    }
+
+    // Loads follow-up conversation retrieval settings
+    private ConversationConfig loadConversationConfig(Properties props) throws ConfigException {
+        return new ConversationConfig(
+            parsePositiveInt(props, ConfigConstants.PROP_CONVERSATION_RETRIEVAL_TOP_K,
+                ConfigConstants.DEFAULT_CONVERSATION_RETRIEVAL_TOP_K),
+            parsePositiveInt(props, ConfigConstants.PROP_CONVERSATION_RETRIEVAL_MAX_TOKENS,
+                ConfigConstants.DEFAULT_CONVERSATION_RETRIEVAL_MAX_TOKENS)
+        );
+    }
+
+    // Loads headless HTTP server settings
+    private ServerConfig loadServerConfig(Properties props) throws ConfigException {
+        return new ServerConfig(
+            parsePositiveInt(props, ConfigConstants.PROP_SERVER_PORT, ConfigConstants.DEFAULT_SERVER_PORT),
+            parsePositiveInt(props, ConfigConstants.PROP_SERVER_MAX_SESSIONS, ConfigConstants.DEFAULT_SERVER_MAX_SESSIONS),
+            parsePositiveInt(props, ConfigConstants.PROP_SERVER_SESSION_RETENTION_MINUTES,
+                ConfigConstants.DEFAULT_SERVER_SESSION_RETENTION_MINUTES)
+        );
+    }
+
+    // Loads batch research settings
+    private BatchConfig loadBatchConfig(Properties props) throws ConfigException {
+        Set<String> formats = new LinkedHashSet<>();
+        String formatList = props.getProperty(ConfigConstants.PROP_BATCH_OUTPUT_FORMATS,
+            ConfigConstants.DEFAULT_BATCH_OUTPUT_FORMATS);
+        for (String format : formatList.split(",")) {
+            String normalized = format.trim().toLowerCase();
+            if (!normalized.equals("json") && !normalized.equals("md")) {
+                throw new ConfigException("Invalid " + ConfigConstants.PROP_BATCH_OUTPUT_FORMATS
+                    + " configuration: unknown format '" + format.trim() + "'");
+            }
+            formats.add(normalized);
+        }
+        return new BatchConfig(
+            parsePositiveInt(props, ConfigConstants.PROP_BATCH_CONCURRENCY, ConfigConstants.DEFAULT_BATCH_CONCURRENCY),
+            props.getProperty(ConfigConstants.PROP_BATCH_OUTPUT_DIRECTORY,
+                ConfigConstants.DEFAULT_BATCH_OUTPUT_DIRECTORY).trim(),
+            formats,
+            props.getProperty(ConfigConstants.PROP_BATCH_DEFAULT_INSTRUCTIONS,
+                ConfigConstants.DEFAULT_BATCH_INSTRUCTIONS).trim()
+        );
+    }
+
+    // Loads research checkpoint settings
+    private CheckpointConfig loadCheckpointConfig(Properties props) throws ConfigException {
+        return new CheckpointConfig(
+            parseBoolean(props, ConfigConstants.PROP_CHECKPOINT_ENABLED, ConfigConstants.DEFAULT_CHECKPOINT_ENABLED),
+            props.getProperty(ConfigConstants.PROP_CHECKPOINT_DIRECTORY,
+                ConfigConstants.DEFAULT_CHECKPOINT_DIRECTORY).trim(),
+            parseNonNegativeLong(props, ConfigConstants.PROP_CHECKPOINT_SYNC_INTERVAL_MS,
+                ConfigConstants.DEFAULT_CHECKPOINT_SYNC_INTERVAL_MS)
+        );
+    }
+
+    // Loads metrics exposure settings
+    private MetricsConfig loadMetricsConfig(Properties props) throws ConfigException {
+        return new MetricsConfig(
+            parseBoolean(props, ConfigConstants.PROP_METRICS_JMX_ENABLED, ConfigConstants.DEFAULT_METRICS_JMX_ENABLED),
+            parseNonNegativeInt(props, ConfigConstants.PROP_METRICS_PORT, ConfigConstants.DEFAULT_METRICS_PORT)
+        );
+    }
+
+    // Loads HTTP transport settings, including per-call-site request timeouts
+    private HttpConfig loadHttpConfig(Properties props) throws ConfigException {
+        Map<CallSite, Duration> callSiteTimeouts = new EnumMap<>(CallSite.class);
+        for (CallSite callSite : CallSite.values()) {
+            String key = ConfigConstants.PROP_HTTP_TIMEOUT_PREFIX + callSite.getKey() + ConfigConstants.PROP_HTTP_TIMEOUT_SUFFIX;
+            if (props.getProperty(key) != null) {
+                callSiteTimeouts.put(callSite, Duration.ofSeconds(parsePositiveInt(props, key, 1)));
+            }
+        }
+
+        return new HttpConfig(
+            parseBoolean(props, ConfigConstants.PROP_HTTP_HTTP2_ENABLED, ConfigConstants.DEFAULT_HTTP_HTTP2_ENABLED),
+            parseBoolean(props, ConfigConstants.PROP_HTTP_GZIP_ENABLED, ConfigConstants.DEFAULT_HTTP_GZIP_ENABLED),
+            parseBoolean(props, ConfigConstants.PROP_HTTP_PREWARM_ENABLED, ConfigConstants.DEFAULT_HTTP_PREWARM_ENABLED),
+            Duration.ofSeconds(parsePositiveInt(props, ConfigConstants.PROP_HTTP_CONNECT_TIMEOUT_SECONDS,
+                ConfigConstants.DEFAULT_HTTP_CONNECT_TIMEOUT_SECONDS)),
+            Duration.ofSeconds(parsePositiveInt(props, ConfigConstants.PROP_HTTP_TIMEOUT_SECONDS,
+                ConfigConstants.DEFAULT_HTTP_TIMEOUT_SECONDS)),
+            callSiteTimeouts
+        );
+    }
+
+    // Loads request hedging settings
+    private HedgingConfig loadHedgingConfig(Properties props) throws ConfigException {
+        int percentile = parsePositiveInt(props, ConfigConstants.PROP_AI_HEDGING_PERCENTILE,
+            ConfigConstants.DEFAULT_AI_HEDGING_PERCENTILE);
+        if (percentile >= 100) {
+            throw new ConfigException("Invalid " + ConfigConstants.PROP_AI_HEDGING_PERCENTILE
+                + " configuration: must be below 100");
+        }
+        return new HedgingConfig(
+            parseBoolean(props, ConfigConstants.PROP_AI_HEDGING_ENABLED, ConfigConstants.DEFAULT_AI_HEDGING_ENABLED),
+            percentile,
+            parsePositiveInt(props, ConfigConstants.PROP_AI_HEDGING_BUDGET_PERCENT,
+                ConfigConstants.DEFAULT_AI_HEDGING_BUDGET_PERCENT),
+            parsePositiveInt(props, ConfigConstants.PROP_AI_HEDGING_MIN_SAMPLES,
+                ConfigConstants.DEFAULT_AI_HEDGING_MIN_SAMPLES)
+        );
+    }
+
+    // Converts megabytes to bytes
+    private long megabytes(int value) {
+        return value * 1_048_576L;
+    }
+
+    // Parses a boolean flag from properties
+    private boolean parseBoolean(Properties props, String key, boolean defaultValue) {
+        return Boolean.parseBoolean(props.getProperty(key, String.valueOf(defaultValue)).trim());
+    }
+
+    // Parses a positive integer from properties
+    private int parsePositiveInt(Properties props, String key, int defaultValue) throws ConfigException {
+        try {
+            int value = Integer.parseInt(props.getProperty(key, String.valueOf(defaultValue)).trim());
+            if (value <= 0) {
+                throw new ConfigException("Invalid " + key + " configuration: must be positive");
+            }
+            return value;
+        } catch (NumberFormatException e) {
+            throw new ConfigException("Invalid " + key + " configuration", e);
+        }
+    }
+
+    // Parses a non-negative integer from properties
+    private int parseNonNegativeInt(Properties props, String key, int defaultValue) throws ConfigException {
+        try {
+            int value = Integer.parseInt(props.getProperty(key, String.valueOf(defaultValue)).trim());
+            if (value < 0) {
+                throw new ConfigException("Invalid " + key + " configuration: must not be negative");
+            }
+            return value;
+        } catch (NumberFormatException e) {
+            throw new ConfigException("Invalid " + key + " configuration", e);
+        }
+    }
+
+    // Parses a non-negative long from properties
+    private long parseNonNegativeLong(Properties props, String key, long defaultValue) throws ConfigException {
+        try {
+            long value = Long.parseLong(props.getProperty(key, String.valueOf(defaultValue)).trim());
+            if (value < 0) {
+                throw new ConfigException("Invalid " + key + " configuration: must not be negative");
+            }
+            return value;
+        } catch (NumberFormatException e) {
+            throw new ConfigException("Invalid " + key + " configuration", e);
+        }
+    }
 }
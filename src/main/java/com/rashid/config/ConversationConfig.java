@@ -0,0 +1,21 @@
+package com.rashid.config;
+
+// Follow-up conversation configuration controlling how research context is retrieved for each question
+public class ConversationConfig {
+    private final int retrievalTopK;
+    private final int retrievalMaxTokens;
+
+    // Constructs conversation configuration; retrieved chunks are added best first until the token budget is used
+    public ConversationConfig(int retrievalTopK, int retrievalMaxTokens) {
+        this.retrievalTopK = retrievalTopK;
+        this.retrievalMaxTokens = retrievalMaxTokens;
+    }
+
+    public int getRetrievalTopK() {
+        return retrievalTopK;
+    }
+
+    public int getRetrievalMaxTokens() {
+        return retrievalMaxTokens;
+    }
+}
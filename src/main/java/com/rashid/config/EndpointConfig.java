@@ -0,0 +1,26 @@
+package com.rashid.config;
+
+// One OpenAI-compatible endpoint calls can be routed to: an API key, project or gateway
+public class EndpointConfig {
+    private final String name;
+    private final String baseUrl;
+    private final String apiKey;
+
+    public EndpointConfig(String name, String baseUrl, String apiKey) {
+        this.name = name;
+        this.baseUrl = baseUrl;
+        this.apiKey = apiKey;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    public String getApiKey() {
+        return apiKey;
+    }
+}
@@ -0,0 +1,35 @@
+package com.rashid.config;
+
+// Request hedging configuration: when a slow call gets a duplicate request and how many duplicates are allowed
+public class HedgingConfig {
+    private final boolean enabled;
+    private final int percentile;
+    private final int budgetPercent;
+    private final int minSamples;
+
+    // Constructs hedging configuration; calls are hedged once they take longer than the given latency
+    // percentile of their call site, and hedges are capped at budgetPercent of all calls
+    public HedgingConfig(boolean enabled, int percentile, int budgetPercent, int minSamples) {
+        this.enabled = enabled;
+        this.percentile = percentile;
+        this.budgetPercent = budgetPercent;
+        this.minSamples = minSamples;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getPercentile() {
+        return percentile;
+    }
+
+    public int getBudgetPercent() {
+        return budgetPercent;
+    }
+
+    // Completed calls a call site needs before its latency percentile is trusted for hedging
+    public int getMinSamples() {
+        return minSamples;
+    }
+}
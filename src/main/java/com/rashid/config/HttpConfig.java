@@ -0,0 +1,48 @@
+package com.rashid.config;
+
+import com.rashid.model.CallSite;
+
+import java.time.Duration;
+import java.util.Map;
+
+// HTTP transport configuration for AI requests: protocol, compression, connection pre-warming and timeouts
+public class HttpConfig {
+    private final boolean http2Enabled;
+    private final boolean gzipEnabled;
+    private final boolean prewarmEnabled;
+    private final Duration connectTimeout;
+    private final Duration defaultRequestTimeout;
+    private final Map<CallSite, Duration> callSiteRequestTimeouts;
+
+    // Constructs HTTP configuration; call sites without their own request timeout use the default one
+    public HttpConfig(boolean http2Enabled, boolean gzipEnabled, boolean prewarmEnabled, Duration connectTimeout,
+                      Duration defaultRequestTimeout, Map<CallSite, Duration> callSiteRequestTimeouts) {
+        this.http2Enabled = http2Enabled;
+        this.gzipEnabled = gzipEnabled;
+        this.prewarmEnabled = prewarmEnabled;
+        this.connectTimeout = connectTimeout;
+        this.defaultRequestTimeout = defaultRequestTimeout;
+        this.callSiteRequestTimeouts = Map.copyOf(callSiteRequestTimeouts);
+    }
+
+    public boolean isHttp2Enabled() {
+        return http2Enabled;
+    }
+
+    public boolean isGzipEnabled() {
+        return gzipEnabled;
+    }
+
+    public boolean isPrewarmEnabled() {
+        return prewarmEnabled;
+    }
+
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    // Returns how long a call from the given call site may wait for the response
+    public Duration getRequestTimeout(CallSite callSite) {
+        return callSiteRequestTimeouts.getOrDefault(callSite, defaultRequestTimeout);
+    }
+}
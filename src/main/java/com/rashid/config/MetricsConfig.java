@@ -0,0 +1,22 @@
+package com.rashid.config;
+
+// Metrics exposure configuration; metrics are always recorded, these settings only control how they are read
+public class MetricsConfig {
+    private final boolean jmxEnabled;
+    private final int port;
+
+    // Constructs metrics configuration; port 0 disables the standalone scrape endpoint
+    // (server mode always serves /metrics on the server port)
+    public MetricsConfig(boolean jmxEnabled, int port) {
+        this.jmxEnabled = jmxEnabled;
+        this.port = port;
+    }
+
+    public boolean isJmxEnabled() {
+        return jmxEnabled;
+    }
+
+    public int getPort() {
+        return port;
+    }
+}
@@ -0,0 +1,41 @@
+package com.rashid.config;
+
+import java.util.List;
+
+// Model, output budget, sampling temperature and stop sequences used for one group of call sites
+public class ModelProfile {
+    private final String model;
+    private final int maxTokens;
+    private final double temperature;
+    private final List<String> stopSequences;
+
+    // Constructs a model profile; an empty stop sequence list leaves the completion unbounded by stops
+    public ModelProfile(String model, int maxTokens, double temperature, List<String> stopSequences) {
+        this.model = model;
+        this.maxTokens = maxTokens;
+        this.temperature = temperature;
+        this.stopSequences = List.copyOf(stopSequences);
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    public int getMaxTokens() {
+        return maxTokens;
+    }
+
+    public double getTemperature() {
+        return temperature;
+    }
+
+    public List<String> getStopSequences() {
+        return stopSequences;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s, %d max tokens, temperature %s%s", model, maxTokens, temperature,
+            stopSequences.isEmpty() ? "" : ", " + stopSequences.size() + " stop sequences");
+    }
+}
@@ -0,0 +1,42 @@
+package com.rashid.config;
+
+import com.rashid.model.CallProfile;
+import com.rashid.model.CallSite;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+// Model profiles per call profile: control calls can use a small, fast model with a tiny output budget
+// while searches and synthesis keep the main model
+public class ModelProfilesConfig {
+    private final ModelProfile defaultProfile;
+    private final Map<CallProfile, ModelProfile> profiles;
+
+    // Constructs the profile table; call profiles without an entry use the default profile
+    public ModelProfilesConfig(ModelProfile defaultProfile, Map<CallProfile, ModelProfile> profiles) {
+        this.defaultProfile = defaultProfile;
+        this.profiles = new EnumMap<>(CallProfile.class);
+        for (CallProfile profile : CallProfile.values()) {
+            this.profiles.put(profile, profiles.getOrDefault(profile, defaultProfile));
+        }
+    }
+
+    // Returns the profile the call site's requests are sent with
+    public ModelProfile getProfile(CallSite callSite) {
+        return profiles.get(callSite.getProfile());
+    }
+
+    public ModelProfile getProfile(CallProfile profile) {
+        return profiles.get(profile);
+    }
+
+    // Returns the profile built from the openai.* settings
+    public ModelProfile getDefaultProfile() {
+        return defaultProfile;
+    }
+
+    // Largest completion any call may request, which prompts must leave room for in the context window
+    public int getLargestMaxTokens() {
+        return profiles.values().stream().mapToInt(ModelProfile::getMaxTokens).max().orElse(defaultProfile.getMaxTokens());
+    }
+}
@@ -0,0 +1,52 @@
+package com.rashid.config;
+
+// Client-side rate limiting and retry configuration for AI requests
+public class RateLimitConfig {
+    private final boolean enabled;
+    private final int initialRequestsPerMinute;
+    private final int initialTokensPerMinute;
+    private final int maxRetries;
+    private final long baseBackoffMillis;
+    private final long maxBackoffMillis;
+
+    // Constructs rate limit configuration; initial limits are refined from response headers at runtime
+    public RateLimitConfig(boolean enabled, int initialRequestsPerMinute, int initialTokensPerMinute,
+                           int maxRetries, long baseBackoffMillis, long maxBackoffMillis) {
+        this.enabled = enabled;
+        this.initialRequestsPerMinute = initialRequestsPerMinute;
+        this.initialTokensPerMinute = initialTokensPerMinute;
+        this.maxRetries = maxRetries;
+        this.baseBackoffMillis = baseBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+    }
+
+    // Same limits without retries, for endpoint clients behind the router, which retries across endpoints itself
+    public RateLimitConfig withoutRetries() {
+        return new RateLimitConfig(enabled, initialRequestsPerMinute, initialTokensPerMinute, 0, baseBackoffMillis,
+            maxBackoffMillis);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getInitialRequestsPerMinute() {
+        return initialRequestsPerMinute;
+    }
+
+    public int getInitialTokensPerMinute() {
+        return initialTokensPerMinute;
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public long getBaseBackoffMillis() {
+        return baseBackoffMillis;
+    }
+
+    public long getMaxBackoffMillis() {
+        return maxBackoffMillis;
+    }
+}
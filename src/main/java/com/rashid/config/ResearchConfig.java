@@ -0,0 +1,89 @@
+package com.rashid.config;
+
+// Research pipeline configuration controlling how iterations are executed
+public class ResearchConfig {
+    private final boolean parallelQueriesEnabled;
+    private final int maxParallelQueries;
+    private final boolean structuredControllerEnabled;
+    private final boolean pipeliningEnabled;
+    private final boolean findingsDigestEnabled;
+    private final int findingsDigestMaxChars;
+    private final boolean noveltyEnabled;
+    private final int noveltyStopPercent;
+    private final int noveltyContinuePercent;
+    private final boolean queryDedupEnabled;
+    private final int queryDedupSimilarityPercent;
+    private final boolean queryDedupSharedEnabled;
+
+    // Constructs research configuration with iteration execution settings; novelty scores are percentages
+    // of new information, below the stop percentage research ends and from the continue percentage up it
+    // goes on without asking the model. Follow-up queries at least queryDedupSimilarityPercent similar to
+    // researched ones are skipped, and optionally shared between sessions through the response cache
+    public ResearchConfig(boolean parallelQueriesEnabled, int maxParallelQueries,
+                          boolean structuredControllerEnabled, boolean pipeliningEnabled,
+                          boolean findingsDigestEnabled, int findingsDigestMaxChars,
+                          boolean noveltyEnabled, int noveltyStopPercent, int noveltyContinuePercent,
+                          boolean queryDedupEnabled, int queryDedupSimilarityPercent, boolean queryDedupSharedEnabled) {
+        this.parallelQueriesEnabled = parallelQueriesEnabled;
+        this.maxParallelQueries = maxParallelQueries;
+        this.structuredControllerEnabled = structuredControllerEnabled;
+        this.pipeliningEnabled = pipeliningEnabled;
+        this.findingsDigestEnabled = findingsDigestEnabled;
+        this.findingsDigestMaxChars = findingsDigestMaxChars;
+        this.noveltyEnabled = noveltyEnabled;
+        this.noveltyStopPercent = noveltyStopPercent;
+        this.noveltyContinuePercent = noveltyContinuePercent;
+        this.queryDedupEnabled = queryDedupEnabled;
+        this.queryDedupSimilarityPercent = queryDedupSimilarityPercent;
+        this.queryDedupSharedEnabled = queryDedupSharedEnabled;
+    }
+
+    public boolean isParallelQueriesEnabled() {
+        return parallelQueriesEnabled;
+    }
+
+    public int getMaxParallelQueries() {
+        return maxParallelQueries;
+    }
+
+    public boolean isStructuredControllerEnabled() {
+        return structuredControllerEnabled;
+    }
+
+    public boolean isPipeliningEnabled() {
+        return pipeliningEnabled;
+    }
+
+    public boolean isFindingsDigestEnabled() {
+        return findingsDigestEnabled;
+    }
+
+    public int getFindingsDigestMaxChars() {
+        return findingsDigestMaxChars;
+    }
+
+    public boolean isNoveltyEnabled() {
+        return noveltyEnabled;
+    }
+
+    public int getNoveltyStopPercent() {
+        return noveltyStopPercent;
+    }
+
+    // Novelty score from which research continues without asking the model; 100 disables local continues
+    public int getNoveltyContinuePercent() {
+        return noveltyContinuePercent;
+    }
+
+    public boolean isQueryDedupEnabled() {
+        return queryDedupEnabled;
+    }
+
+    public int getQueryDedupSimilarityPercent() {
+        return queryDedupSimilarityPercent;
+    }
+
+    public boolean isQueryDedupSharedEnabled() {
+        return queryDedupSharedEnabled;
+    }
+}
@@ -0,0 +1,37 @@
+package com.rashid.config;
+
+import java.time.Duration;
+import java.util.List;
+
+// Multi-endpoint routing configuration: the endpoint pool and when unhealthy endpoints are taken out of it
+public class RoutingConfig {
+    private final List<EndpointConfig> endpoints;
+    private final int ejectAfterFailures;
+    private final Duration ejectionDuration;
+
+    // Constructs routing configuration; the first endpoint is the one configured by openai.base.url
+    public RoutingConfig(List<EndpointConfig> endpoints, int ejectAfterFailures, Duration ejectionDuration) {
+        this.endpoints = List.copyOf(endpoints);
+        this.ejectAfterFailures = ejectAfterFailures;
+        this.ejectionDuration = ejectionDuration;
+    }
+
+    public List<EndpointConfig> getEndpoints() {
+        return endpoints;
+    }
+
+    // Routing is only active when there is more than one endpoint to choose from
+    public boolean isEnabled() {
+        return endpoints.size() > 1;
+    }
+
+    // Consecutive 429/5xx or transport failures after which an endpoint is ejected
+    public int getEjectAfterFailures() {
+        return ejectAfterFailures;
+    }
+
+    // How long an ejected endpoint receives no calls before a probe call may bring it back
+    public Duration getEjectionDuration() {
+        return ejectionDuration;
+    }
+}
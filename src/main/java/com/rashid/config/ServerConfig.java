@@ -0,0 +1,28 @@
+package com.rashid.config;
+
+// Headless HTTP server configuration for serving many research sessions from one process
+public class ServerConfig {
+    private final int port;
+    private final int maxSessions;
+    private final int sessionRetentionMinutes;
+
+    // Constructs server configuration; finished sessions are kept for the retention period so clients can
+    // still read their events
+    public ServerConfig(int port, int maxSessions, int sessionRetentionMinutes) {
+        this.port = port;
+        this.maxSessions = maxSessions;
+        this.sessionRetentionMinutes = sessionRetentionMinutes;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public int getMaxSessions() {
+        return maxSessions;
+    }
+
+    public int getSessionRetentionMinutes() {
+        return sessionRetentionMinutes;
+    }
+}
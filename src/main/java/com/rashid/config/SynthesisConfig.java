@@ -0,0 +1,27 @@
+package com.rashid.config;
+
+// Final report synthesis configuration controlling map-reduce condensation of iteration findings
+public class SynthesisConfig {
+    private final boolean mapReduceEnabled;
+    private final int fanIn;
+    private final int maxPromptChars;
+
+    // Constructs synthesis configuration; fan-in is the number of sections merged by one reduce call
+    public SynthesisConfig(boolean mapReduceEnabled, int fanIn, int maxPromptChars) {
+        this.mapReduceEnabled = mapReduceEnabled;
+        this.fanIn = fanIn;
+        this.maxPromptChars = maxPromptChars;
+    }
+
+    public boolean isMapReduceEnabled() {
+        return mapReduceEnabled;
+    }
+
+    public int getFanIn() {
+        return fanIn;
+    }
+
+    public int getMaxPromptChars() {
+        return maxPromptChars;
+    }
+}
@@ -10,14 +10,146 @@ public final class ConfigConstants {
     // Environment variable and property keys
     public static final String ENV_OPENAI_API_KEY = "OPENAI_API_KEY";
     public static final String PROP_OPENAI_API_KEY = "openai.api.key";
+    public static final String PROP_OPENAI_BASE_URL = "openai.base.url";
+    public static final String PROP_OPENAI_ENDPOINTS = "openai.endpoints";
+    // Per-endpoint keys are built as openai.endpoint.<name>.base.url and openai.endpoint.<name>.api.key;
+    // endpoint API keys can also come from the OPENAI_API_KEY_<NAME> environment variable
+    public static final String PROP_OPENAI_ENDPOINT_PREFIX = "openai.endpoint.";
+    public static final String PROP_OPENAI_ENDPOINT_BASE_URL_SUFFIX = ".base.url";
+    public static final String PROP_OPENAI_ENDPOINT_API_KEY_SUFFIX = ".api.key";
+    public static final String PROP_ROUTING_EJECT_AFTER_FAILURES = "routing.eject.after.failures";
+    public static final String PROP_ROUTING_EJECT_SECONDS = "routing.eject.seconds";
     public static final String PROP_OPENAI_MODEL = "openai.model";
     public static final String PROP_OPENAI_MAX_TOKENS = "openai.max.tokens";
     public static final String PROP_OPENAI_TEMPERATURE = "openai.temperature";
+    public static final String PROP_OPENAI_CONTEXT_WINDOW_TOKENS = "openai.context.window.tokens";
+    public static final String PROP_OPENAI_PROFILE_PREFIX = "openai.profile.";
+    public static final String PROP_OPENAI_PROFILE_MODEL_SUFFIX = ".model";
+    public static final String PROP_OPENAI_PROFILE_MAX_TOKENS_SUFFIX = ".max.tokens";
+    public static final String PROP_OPENAI_PROFILE_TEMPERATURE_SUFFIX = ".temperature";
+    public static final String PROP_OPENAI_PROFILE_STOP_SUFFIX = ".stop";
+    public static final String PROP_RESEARCH_PARALLEL_QUERIES = "research.parallel.queries.enabled";
+    public static final String PROP_RESEARCH_MAX_PARALLEL_QUERIES = "research.parallel.max.concurrency";
+    public static final String PROP_RESEARCH_STRUCTURED_CONTROLLER = "research.controller.structured.enabled";
+    public static final String PROP_RESEARCH_PIPELINING = "research.pipelining.enabled";
+    public static final String PROP_RESEARCH_FINDINGS_DIGEST = "research.findings.digest.enabled";
+    public static final String PROP_RESEARCH_FINDINGS_DIGEST_MAX_CHARS = "research.findings.digest.max.chars";
+    public static final String PROP_RESEARCH_NOVELTY_ENABLED = "research.novelty.enabled";
+    public static final String PROP_RESEARCH_NOVELTY_STOP_PERCENT = "research.novelty.stop.percent";
+    public static final String PROP_RESEARCH_NOVELTY_CONTINUE_PERCENT = "research.novelty.continue.percent";
+    public static final String PROP_RESEARCH_QUERY_DEDUP_ENABLED = "research.query.dedup.enabled";
+    public static final String PROP_RESEARCH_QUERY_DEDUP_SIMILARITY_PERCENT = "research.query.dedup.similarity.percent";
+    public static final String PROP_RESEARCH_QUERY_DEDUP_SHARED_ENABLED = "research.query.dedup.shared.enabled";
+    public static final String PROP_SYNTHESIS_MAP_REDUCE = "synthesis.mapreduce.enabled";
+    public static final String PROP_SYNTHESIS_FAN_IN = "synthesis.mapreduce.fan.in";
+    public static final String PROP_SYNTHESIS_MAX_PROMPT_CHARS = "synthesis.max.prompt.chars";
+    public static final String PROP_CONVERSATION_RETRIEVAL_TOP_K = "conversation.retrieval.top.k";
+    public static final String PROP_CONVERSATION_RETRIEVAL_MAX_TOKENS = "conversation.retrieval.max.tokens";
+    public static final String PROP_SERVER_PORT = "server.port";
+    public static final String PROP_SERVER_MAX_SESSIONS = "server.max.sessions";
+    public static final String PROP_SERVER_SESSION_RETENTION_MINUTES = "server.session.retention.minutes";
+    public static final String PROP_BATCH_CONCURRENCY = "batch.concurrency";
+    public static final String PROP_BATCH_OUTPUT_DIRECTORY = "batch.output.directory";
+    public static final String PROP_BATCH_OUTPUT_FORMATS = "batch.output.formats";
+    public static final String PROP_BATCH_DEFAULT_INSTRUCTIONS = "batch.default.instructions";
+    public static final String PROP_CHECKPOINT_ENABLED = "checkpoint.enabled";
+    public static final String PROP_CHECKPOINT_DIRECTORY = "checkpoint.directory";
+    public static final String PROP_CHECKPOINT_SYNC_INTERVAL_MS = "checkpoint.sync.interval.ms";
+    public static final String PROP_METRICS_JMX_ENABLED = "metrics.jmx.enabled";
+    public static final String PROP_METRICS_PORT = "metrics.port";
+    public static final String PROP_AI_COALESCING_ENABLED = "ai.coalescing.enabled";
+    public static final String PROP_AI_HEDGING_ENABLED = "ai.hedging.enabled";
+    public static final String PROP_AI_HEDGING_PERCENTILE = "ai.hedging.percentile";
+    public static final String PROP_AI_HEDGING_BUDGET_PERCENT = "ai.hedging.budget.percent";
+    public static final String PROP_AI_HEDGING_MIN_SAMPLES = "ai.hedging.min.samples";
+    public static final String PROP_RATE_LIMIT_ENABLED = "ratelimit.enabled";
+    public static final String PROP_RATE_LIMIT_REQUESTS_PER_MINUTE = "ratelimit.initial.requests.per.minute";
+    public static final String PROP_RATE_LIMIT_TOKENS_PER_MINUTE = "ratelimit.initial.tokens.per.minute";
+    public static final String PROP_RATE_LIMIT_MAX_RETRIES = "ratelimit.max.retries";
+    public static final String PROP_RATE_LIMIT_BASE_BACKOFF_MS = "ratelimit.backoff.base.ms";
+    public static final String PROP_RATE_LIMIT_MAX_BACKOFF_MS = "ratelimit.backoff.max.ms";
+    public static final String PROP_CACHE_ENABLED = "cache.enabled";
+    public static final String PROP_CACHE_MEMORY_MAX_ENTRIES = "cache.memory.max.entries";
+    public static final String PROP_CACHE_MEMORY_MAX_MB = "cache.memory.max.mb";
+    public static final String PROP_CACHE_DISK_ENABLED = "cache.disk.enabled";
+    public static final String PROP_CACHE_DISK_DIRECTORY = "cache.disk.directory";
+    public static final String PROP_CACHE_DISK_MAX_MB = "cache.disk.max.mb";
+    public static final String PROP_CACHE_TTL_DEFAULT_SECONDS = "cache.ttl.default.seconds";
+    // Per-call-site TTL keys are built as cache.ttl.<call site key>.seconds
+    public static final String PROP_CACHE_TTL_PREFIX = "cache.ttl.";
+    public static final String PROP_CACHE_TTL_SUFFIX = ".seconds";
+    public static final String PROP_HTTP_HTTP2_ENABLED = "http.http2.enabled";
+    public static final String PROP_HTTP_GZIP_ENABLED = "http.gzip.enabled";
+    public static final String PROP_HTTP_PREWARM_ENABLED = "http.prewarm.enabled";
+    public static final String PROP_HTTP_CONNECT_TIMEOUT_SECONDS = "http.connect.timeout.seconds";
+    public static final String PROP_HTTP_TIMEOUT_SECONDS = "http.timeout.seconds";
+    // Per-call-site request timeout keys are built as http.timeout.<call site key>.seconds
+    public static final String PROP_HTTP_TIMEOUT_PREFIX = "http.timeout.";
+    public static final String PROP_HTTP_TIMEOUT_SUFFIX = ".seconds";
 
     // Default values
+    public static final String DEFAULT_BASE_URL = "https://api.openai.com/v1";
+    public static final String DEFAULT_ENDPOINT_NAME = "default";
+    public static final int DEFAULT_ROUTING_EJECT_AFTER_FAILURES = 3;
+    public static final int DEFAULT_ROUTING_EJECT_SECONDS = 30;
     public static final String DEFAULT_MODEL = "gpt-4-turbo-preview";
     public static final int DEFAULT_MAX_TOKENS = 3000;
     public static final double DEFAULT_TEMPERATURE = 0.7;
+    public static final int DEFAULT_CONTEXT_WINDOW_TOKENS = 128_000;
+    public static final int MAX_STOP_SEQUENCES = 4;
+    public static final boolean DEFAULT_PARALLEL_QUERIES = false;
+    public static final int DEFAULT_MAX_PARALLEL_QUERIES = 3;
+    public static final boolean DEFAULT_STRUCTURED_CONTROLLER = false;
+    public static final boolean DEFAULT_PIPELINING = false;
+    public static final boolean DEFAULT_FINDINGS_DIGEST = true;
+    public static final int DEFAULT_FINDINGS_DIGEST_MAX_CHARS = 2000;
+    public static final boolean DEFAULT_NOVELTY_ENABLED = false;
+    public static final int DEFAULT_NOVELTY_STOP_PERCENT = 15;
+    public static final int DEFAULT_NOVELTY_CONTINUE_PERCENT = 100;
+    public static final boolean DEFAULT_QUERY_DEDUP_ENABLED = false;
+    public static final int DEFAULT_QUERY_DEDUP_SIMILARITY_PERCENT = 60;
+    public static final boolean DEFAULT_QUERY_DEDUP_SHARED_ENABLED = false;
+    public static final boolean DEFAULT_SYNTHESIS_MAP_REDUCE = false;
+    public static final int DEFAULT_SYNTHESIS_FAN_IN = 4;
+    public static final int DEFAULT_SYNTHESIS_MAX_PROMPT_CHARS = 24_000;
+    public static final int DEFAULT_CONVERSATION_RETRIEVAL_TOP_K = 8;
+    public static final int DEFAULT_CONVERSATION_RETRIEVAL_MAX_TOKENS = 2000;
+    public static final int DEFAULT_SERVER_PORT = 8080;
+    public static final int DEFAULT_SERVER_MAX_SESSIONS = 64;
+    public static final int DEFAULT_SERVER_SESSION_RETENTION_MINUTES = 60;
+    public static final int DEFAULT_BATCH_CONCURRENCY = 4;
+    public static final String DEFAULT_BATCH_OUTPUT_DIRECTORY = "batch-output";
+    public static final String DEFAULT_BATCH_OUTPUT_FORMATS = "json,md";
+    public static final String DEFAULT_BATCH_INSTRUCTIONS =
+        "Produce a comprehensive, well-sourced overview of the topic covering key facts, recent developments and open questions.";
+    public static final boolean DEFAULT_CHECKPOINT_ENABLED = true;
+    public static final String DEFAULT_CHECKPOINT_DIRECTORY = ".research-checkpoints";
+    public static final long DEFAULT_CHECKPOINT_SYNC_INTERVAL_MS = 50;
+    public static final boolean DEFAULT_METRICS_JMX_ENABLED = true;
+    public static final int DEFAULT_METRICS_PORT = 0;
+    public static final boolean DEFAULT_AI_COALESCING_ENABLED = true;
+    public static final boolean DEFAULT_AI_HEDGING_ENABLED = false;
+    public static final int DEFAULT_AI_HEDGING_PERCENTILE = 90;
+    public static final int DEFAULT_AI_HEDGING_BUDGET_PERCENT = 5;
+    public static final int DEFAULT_AI_HEDGING_MIN_SAMPLES = 20;
+    public static final boolean DEFAULT_RATE_LIMIT_ENABLED = true;
+    public static final int DEFAULT_RATE_LIMIT_REQUESTS_PER_MINUTE = 500;
+    public static final int DEFAULT_RATE_LIMIT_TOKENS_PER_MINUTE = 30_000;
+    public static final int DEFAULT_RATE_LIMIT_MAX_RETRIES = 4;
+    public static final long DEFAULT_RATE_LIMIT_BASE_BACKOFF_MS = 500;
+    public static final long DEFAULT_RATE_LIMIT_MAX_BACKOFF_MS = 30_000;
+    public static final boolean DEFAULT_CACHE_ENABLED = false;
+    public static final int DEFAULT_CACHE_MEMORY_MAX_ENTRIES = 500;
+    public static final int DEFAULT_CACHE_MEMORY_MAX_MB = 64;
+    public static final boolean DEFAULT_CACHE_DISK_ENABLED = true;
+    public static final String DEFAULT_CACHE_DISK_DIRECTORY = ".cache/responses";
+    public static final int DEFAULT_CACHE_DISK_MAX_MB = 512;
+    public static final long DEFAULT_CACHE_TTL_SECONDS = 86_400;
+    public static final boolean DEFAULT_HTTP_HTTP2_ENABLED = true;
+    public static final boolean DEFAULT_HTTP_GZIP_ENABLED = true;
+    public static final boolean DEFAULT_HTTP_PREWARM_ENABLED = true;
+    public static final int DEFAULT_HTTP_CONNECT_TIMEOUT_SECONDS = 30;
+    public static final int DEFAULT_HTTP_TIMEOUT_SECONDS = 120;
 
     // File paths
     public static final String CONFIG_FILE = "application.properties";
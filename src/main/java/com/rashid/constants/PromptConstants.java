@@ -15,6 +15,11 @@ public final class PromptConstants {
     // Decision keywords from AI
     public static final String DECISION_CONTINUE = "CONTINUE";
 
+    // System prompt used for simple chat requests
+    public static final String DEFAULT_SYSTEM_PROMPT =
+        "You are a professional research assistant with access to current web information. " +
+        "Provide comprehensive, well-researched responses with citations when possible.";
+
     // OpenAI API role constants
     public static final String ROLE_SYSTEM = "system";
     public static final String ROLE_USER = "user";
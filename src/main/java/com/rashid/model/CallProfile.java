@@ -0,0 +1,21 @@
+package com.rashid.model;
+
+// Groups call sites that share a model, output budget and sampling settings
+public enum CallProfile {
+    SEARCH("search"),
+    CONTROL("control"),
+    SYNTHESIS("synthesis"),
+    CLARIFICATION("clarification"),
+    FOLLOW_UP("follow.up");
+
+    private final String key;
+
+    CallProfile(String key) {
+        this.key = key;
+    }
+
+    // Returns the identifier used for this profile in configuration keys
+    public String getKey() {
+        return key;
+    }
+}
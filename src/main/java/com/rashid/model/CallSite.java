@@ -0,0 +1,38 @@
+package com.rashid.model;
+
+// Identifies which step of the research pipeline issued an AI call
+public enum CallSite {
+    INITIAL_SEARCH("initial.search", CallProfile.SEARCH),
+    DEEP_DIVE("deep.dive", CallProfile.SEARCH),
+    GAP_ANALYSIS("gap.analysis", CallProfile.CONTROL),
+    DEEP_DIVE_TOPICS("deep.dive.topics", CallProfile.CONTROL),
+    QUERY_GENERATION("query.generation", CallProfile.CONTROL),
+    DECISION("decision", CallProfile.CONTROL),
+    ITERATION_CONTROL("iteration.control", CallProfile.CONTROL),
+    FINDINGS_DIGEST("findings.digest", CallProfile.SYNTHESIS),
+    SYNTHESIS("synthesis", CallProfile.SYNTHESIS),
+    SYNTHESIS_MAP("synthesis.map", CallProfile.SYNTHESIS),
+    SYNTHESIS_REDUCE("synthesis.reduce", CallProfile.SYNTHESIS),
+    KEY_FINDINGS("key.findings", CallProfile.SYNTHESIS),
+    CLARIFICATION("clarification", CallProfile.CLARIFICATION),
+    FOLLOW_UP("follow.up", CallProfile.FOLLOW_UP),
+    GENERAL("general", CallProfile.SEARCH);
+
+    private final String key;
+    private final CallProfile profile;
+
+    CallSite(String key, CallProfile profile) {
+        this.key = key;
+        this.profile = profile;
+    }
+
+    // Returns the identifier used for this call site in configuration keys
+    public String getKey() {
+        return key;
+    }
+
+    // Returns the model profile this call site's requests are sent with
+    public CallProfile getProfile() {
+        return profile;
+    }
+}
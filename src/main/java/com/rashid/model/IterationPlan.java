@@ -0,0 +1,28 @@
+package com.rashid.model;
+
+import java.util.List;
+
+// Control decision for the next research step: remaining gaps, follow-up queries and whether to continue
+public class IterationPlan {
+    private final List<String> gaps;
+    private final List<String> queries;
+    private final boolean continueResearch;
+
+    public IterationPlan(List<String> gaps, List<String> queries, boolean continueResearch) {
+        this.gaps = gaps;
+        this.queries = queries;
+        this.continueResearch = continueResearch;
+    }
+
+    public List<String> getGaps() {
+        return gaps;
+    }
+
+    public List<String> getQueries() {
+        return queries;
+    }
+
+    public boolean isContinueResearch() {
+        return continueResearch;
+    }
+}
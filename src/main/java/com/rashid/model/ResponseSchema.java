@@ -0,0 +1,23 @@
+package com.rashid.model;
+
+// JSON schema that constrains an AI response to structured output
+public class ResponseSchema {
+    private final String name;
+    private final String schemaJson;
+
+    public ResponseSchema(String name, String schemaJson) {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Schema name cannot be null or empty");
+        }
+        this.name = name;
+        this.schemaJson = schemaJson;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getSchemaJson() {
+        return schemaJson;
+    }
+}
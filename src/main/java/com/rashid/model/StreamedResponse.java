@@ -0,0 +1,26 @@
+package com.rashid.model;
+
+// Represents a streamed AI response with its perceived-latency timings
+public class StreamedResponse {
+    private final String content;
+    private final long timeToFirstTokenMillis;
+    private final long timeToLastTokenMillis;
+
+    public StreamedResponse(String content, long timeToFirstTokenMillis, long timeToLastTokenMillis) {
+        this.content = content;
+        this.timeToFirstTokenMillis = timeToFirstTokenMillis;
+        this.timeToLastTokenMillis = timeToLastTokenMillis;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public long getTimeToFirstTokenMillis() {
+        return timeToFirstTokenMillis;
+    }
+
+    public long getTimeToLastTokenMillis() {
+        return timeToLastTokenMillis;
+    }
+}
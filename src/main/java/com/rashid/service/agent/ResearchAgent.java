@@ -3,12 +3,18 @@ package com.rashid.service.agent;
 import com.rashid.exception.ResearchException;
 import com.rashid.model.ResearchIteration;
 import com.rashid.model.Source;
+import com.rashid.model.StreamedResponse;
 import com.rashid.service.api.ConversationService;
 import com.rashid.service.api.ResearchService;
 import com.rashid.service.api.SourceExtractionService;
+import com.rashid.service.api.UserChannel;
 import com.rashid.service.api.UserClarificationService;
+import com.rashid.service.checkpoint.ResearchCheckpoint;
+import com.rashid.service.retrieval.Bm25Index;
+import com.rashid.util.Futures;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 // Deep research agent with AI-driven questions and iterative research
 public class ResearchAgent {
@@ -28,95 +34,147 @@ public class ResearchAgent {
         this.sourceExtractor = sourceExtractor;
     }
 
-    // Starts a natural conversation to understand user's research needs
-    public void startConversation(String initialTopic) {
+    // Starts a natural conversation to understand user's research needs; all interaction with the
+    // user goes through the channel, so one agent can serve many sessions concurrently
+    public void startConversation(String initialTopic, UserChannel channel) {
         try {
-            displayResearchHeader();
-            String researchInstructions = clarificationService.clarifyThroughConversation(initialTopic);
-            System.out.println("Researching...");
-
-            ResearchResults results = executeResearchWithTimer(initialTopic, researchInstructions);
-            displayResearchResults(results);
-            conversationService.continuousConversation(initialTopic, results.finalSynthesis(), results.iterations());
+            displayResearchHeader(channel);
+            String researchInstructions = offerResume(initialTopic, channel);
+            if (researchInstructions == null) {
+                researchInstructions = clarificationService.clarifyThroughConversation(initialTopic, channel);
+            }
+            channel.sendLine("Researching...");
+
+            long researchStartTime = System.currentTimeMillis();
+            Bm25Index findingsIndex = new Bm25Index();
+            List<ResearchIteration> iterations = executeResearchWithTimer(initialTopic, researchInstructions,
+                researchStartTime, findingsIndex, channel);
+            ResearchResults results = displayResearchResults(initialTopic, iterations, researchStartTime, channel);
+            if (channel.isCheckpointed()) {
+                researchService.discardCheckpoint(initialTopic);
+            }
+            conversationService.continuousConversation(initialTopic, results.finalSynthesis(), results.iterations(),
+                findingsIndex, channel);
 
         } catch (ResearchException e) {
-            System.err.println("Research error: " + e.getMessage());
+            channel.sendLine("Research error: " + e.getMessage());
             e.printStackTrace();
         } catch (Exception e) {
-            System.err.println("Unexpected error: " + e.getMessage());
+            channel.sendLine("Unexpected error: " + e.getMessage());
             e.printStackTrace();
         }
     }
 
+    // Offers to resume an interrupted session on the topic; returns its instructions if the user accepts,
+    // or null to start over with clarifying questions. Channels without checkpoints are never offered one
+    private String offerResume(String topic, UserChannel channel) throws ResearchException {
+        if (!channel.isCheckpointed()) {
+            return null;
+        }
+        ResearchCheckpoint checkpoint = researchService.findCheckpoint(topic);
+        if (checkpoint == null) {
+            return null;
+        }
+        int completed = checkpoint.iterations().size();
+        channel.sendLine(String.format("Found an interrupted research session on this topic (%d iteration%s complete).",
+            completed, completed == 1 ? "" : "s"));
+        channel.send("Resume it? (yes/no): ");
+        String answer = channel.readLine();
+        if (answer != null && answer.trim().toLowerCase().startsWith("y")) {
+            return checkpoint.instructions();
+        }
+        researchService.discardCheckpoint(topic);
+        return null;
+    }
+
     // Displays the research mode header
-    private void displayResearchHeader() {
-        System.out.println("\n" + "=".repeat(80));
-        System.out.println("CONVERSATIONAL RESEARCH MODE");
-        System.out.println("=".repeat(80));
+    private void displayResearchHeader(UserChannel channel) {
+        channel.sendLine("\n" + "=".repeat(80));
+        channel.sendLine("CONVERSATIONAL RESEARCH MODE");
+        channel.sendLine("=".repeat(80));
     }
 
-    // Executes research with timer and returns results
-    private ResearchResults executeResearchWithTimer(String topic, String instructions) throws ResearchException {
-        long researchStartTime = System.currentTimeMillis();
-        Thread timerThread = startDynamicTimer(researchStartTime);
+    // Executes iterative research with timer and returns the completed iterations, indexing each
+    // iteration's findings for follow-up questions as soon as it completes
+    private List<ResearchIteration> executeResearchWithTimer(String topic, String instructions,
+            long researchStartTime, Bm25Index findingsIndex, UserChannel channel) throws ResearchException {
+        AtomicInteger completedIterations = new AtomicInteger();
+        Thread timerThread = startDynamicTimer(researchStartTime, completedIterations, channel);
 
         try {
-            List<ResearchIteration> iterations = researchService.conductDeepIterativeResearch(topic, instructions);
-            String finalSynthesis = researchService.synthesizeAllIterations(topic, iterations);
-            String keyFindings = researchService.extractKeyFindings(topic, finalSynthesis);
-            List<Source> allSources = sourceExtractor.collectAllSources(iterations);
-            long totalTime = System.currentTimeMillis() - researchStartTime;
-
-            return new ResearchResults(iterations, finalSynthesis, keyFindings, allSources, totalTime);
+            boolean checkpointed = channel.isCheckpointed();
+            return researchService.conductDeepIterativeResearch(topic, instructions, checkpointed, iteration -> {
+                findingsIndex.add("Research iteration " + iteration.getIterationNumber(), iteration.getFindings());
+                completedIterations.incrementAndGet();
+            });
         } finally {
             timerThread.interrupt();
-            System.out.print("\r                    \r");
+            channel.status("");
         }
     }
 
-    // Displays research results in formatted output
-    private void displayResearchResults(ResearchResults results) {
-        System.out.println("\n" + "=".repeat(80));
-        System.out.println("RESEARCH FINDINGS");
-        System.out.printf("Iterations: %d | Time: %.1fs\n",
-            results.iterations().size(), results.totalTime() / 1000.0);
-        System.out.println("=".repeat(80));
-
-        System.out.println("\n--- FINAL SYNTHESIS ---");
-        System.out.println(results.finalSynthesis());
-
-        System.out.println("\n--- KEY FINDINGS ---");
-        System.out.println(results.keyFindings());
+    // Displays research results, rendering synthesis and key findings as they are generated
+    private ResearchResults displayResearchResults(String topic, List<ResearchIteration> iterations,
+            long researchStartTime, UserChannel channel) throws ResearchException {
+        channel.sendLine("\n" + "=".repeat(80));
+        channel.sendLine("RESEARCH FINDINGS");
+        channel.sendLine(String.format("Iterations: %d | Research time: %.1fs",
+            iterations.size(), (System.currentTimeMillis() - researchStartTime) / 1000.0));
+        channel.sendLine("=".repeat(80));
+
+        channel.sendLine("\n--- FINAL SYNTHESIS ---");
+        StreamedResponse finalSynthesis = Futures.await(
+            researchService.streamSynthesisAsync(topic, iterations, channel::send));
+        displayStreamTimings(finalSynthesis, channel);
+
+        channel.sendLine("\n--- KEY FINDINGS ---");
+        StreamedResponse keyFindings = Futures.await(
+            researchService.streamKeyFindingsAsync(topic, finalSynthesis.getContent(), channel::send));
+        displayStreamTimings(keyFindings, channel);
+
+        List<Source> allSources = sourceExtractor.collectAllSources(iterations);
+        displaySources(allSources, channel);
+
+        long totalTime = System.currentTimeMillis() - researchStartTime;
+        channel.sendLine(String.format("\nTotal time: %.1fs", totalTime / 1000.0));
+        channel.sendLine("=".repeat(80));
+
+        return new ResearchResults(iterations, finalSynthesis.getContent(), keyFindings.getContent(),
+            allSources, totalTime);
+    }
 
-        displaySources(results.allSources());
-        System.out.println("=".repeat(80));
+    // Displays time-to-first-token and time-to-last-token after a streamed section
+    private void displayStreamTimings(StreamedResponse response, UserChannel channel) {
+        channel.sendLine("");
+        channel.sendLine(String.format("(first token: %.1fs | complete: %.1fs)",
+            response.getTimeToFirstTokenMillis() / 1000.0, response.getTimeToLastTokenMillis() / 1000.0));
     }
 
     // Displays the list of sources
-    private void displaySources(List<Source> sources) {
-        System.out.println("\n--- SOURCES (" + sources.size() + ") ---");
+    private void displaySources(List<Source> sources, UserChannel channel) {
+        channel.sendLine("\n--- SOURCES (" + sources.size() + ") ---");
         for (int i = 0; i < sources.size(); i++) {
             Source source = sources.get(i);
-            System.out.printf("%d. %s\n   %s\n", i + 1, source.getTitle(), source.getUrl());
+            channel.sendLine(String.format("%d. %s\n   %s", i + 1, source.getTitle(), source.getUrl()));
         }
     }
 
-    // Starts a dynamic timer thread that updates every second
-    private Thread startDynamicTimer(long startTime) {
-        Thread timerThread = new Thread(() -> {
+    // Starts a dynamic timer on a virtual thread that reports elapsed time and progress every second
+    private Thread startDynamicTimer(long startTime, AtomicInteger completedIterations, UserChannel channel) {
+        return Thread.ofVirtual().start(() -> {
             try {
                 while (!Thread.currentThread().isInterrupted()) {
                     long elapsed = (System.currentTimeMillis() - startTime) / 1000;
-                    System.out.print(String.format("\r%ds", elapsed));
+                    int completed = completedIterations.get();
+                    channel.status(completed == 0
+                        ? String.format("%ds", elapsed)
+                        : String.format("%ds | %d iteration%s complete", elapsed, completed, completed == 1 ? "" : "s"));
                     Thread.sleep(1000);
                 }
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
             }
         });
-        timerThread.setDaemon(true);
-        timerThread.start();
-        return timerThread;
     }
 
     // Record class to hold research results
@@ -0,0 +1,149 @@
+package com.rashid.service.ai;
+
+import com.rashid.config.RateLimitConfig;
+
+import java.net.http.HttpHeaders;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Request- and token-based client-side limiter that learns the account limits from OpenAI rate-limit headers
+public class AdaptiveRateLimiter {
+    private static final String HEADER_LIMIT_REQUESTS = "x-ratelimit-limit-requests";
+    private static final String HEADER_LIMIT_TOKENS = "x-ratelimit-limit-tokens";
+    private static final String HEADER_REMAINING_REQUESTS = "x-ratelimit-remaining-requests";
+    private static final String HEADER_REMAINING_TOKENS = "x-ratelimit-remaining-tokens";
+    private static final String HEADER_RESET_REQUESTS = "x-ratelimit-reset-requests";
+    private static final String HEADER_RESET_TOKENS = "x-ratelimit-reset-tokens";
+    private static final String HEADER_RETRY_AFTER = "retry-after";
+    private static final String HEADER_RETRY_AFTER_MS = "retry-after-ms";
+    private static final Pattern DURATION_PART_PATTERN = Pattern.compile("(\\d+(?:\\.\\d+)?)(ms|h|m|s)");
+
+    private final TokenBucket requestBucket;
+    private final TokenBucket tokenBucket;
+    private long pausedUntilNanos;
+
+    private final AtomicLong throttledRequests = new AtomicLong();
+    private final AtomicLong throttledNanos = new AtomicLong();
+    private final AtomicLong rateLimitedResponses = new AtomicLong();
+
+    // Constructs limiter starting from the configured limits until the server reports real ones
+    public AdaptiveRateLimiter(RateLimitConfig config) {
+        long now = System.nanoTime();
+        this.requestBucket = new TokenBucket(config.getInitialRequestsPerMinute(), now);
+        this.tokenBucket = new TokenBucket(config.getInitialTokensPerMinute(), now);
+    }
+
+    // Completes once the request may be sent; callers over the limit are delayed, never rejected
+    public CompletableFuture<Void> acquire(int estimatedTokens) {
+        long delayNanos = reserve(estimatedTokens);
+        if (delayNanos <= 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        throttledRequests.incrementAndGet();
+        throttledNanos.addAndGet(delayNanos);
+        return CompletableFuture.runAsync(() -> { },
+            CompletableFuture.delayedExecutor(delayNanos, TimeUnit.NANOSECONDS));
+    }
+
+    // Learns limits and remaining capacity from a response's rate-limit headers
+    public synchronized void update(HttpHeaders headers) {
+        long now = System.nanoTime();
+        headerNumber(headers, HEADER_LIMIT_REQUESTS).ifPresent(requestBucket::setLimit);
+        headerNumber(headers, HEADER_LIMIT_TOKENS).ifPresent(tokenBucket::setLimit);
+        headerNumber(headers, HEADER_REMAINING_REQUESTS).ifPresent(remaining -> requestBucket.observeRemaining(remaining, now));
+        headerNumber(headers, HEADER_REMAINING_TOKENS).ifPresent(remaining -> tokenBucket.observeRemaining(remaining, now));
+    }
+
+    // Pauses all callers after a 429, using retry-after or the reset headers when present
+    public Duration onRateLimited(HttpHeaders headers, Duration fallback) {
+        rateLimitedResponses.incrementAndGet();
+        Duration pause = retryAfter(headers)
+            .or(() -> headerDuration(headers, HEADER_RESET_REQUESTS))
+            .or(() -> headerDuration(headers, HEADER_RESET_TOKENS))
+            .orElse(fallback);
+
+        synchronized (this) {
+            pausedUntilNanos = Math.max(pausedUntilNanos, System.nanoTime() + pause.toNanos());
+        }
+        return pause;
+    }
+
+    // Reads the server's requested retry delay, if any
+    public Optional<Duration> retryAfter(HttpHeaders headers) {
+        Optional<Duration> millis = headerNumber(headers, HEADER_RETRY_AFTER_MS).map(ms -> Duration.ofMillis(ms.longValue()));
+        if (millis.isPresent()) {
+            return millis;
+        }
+        return headerNumber(headers, HEADER_RETRY_AFTER).map(seconds -> Duration.ofMillis((long) (seconds * 1000)));
+    }
+
+    // Number of requests that had to wait for capacity
+    public long getThrottledRequests() {
+        return throttledRequests.get();
+    }
+
+    // Total time requests spent waiting for capacity
+    public Duration getThrottledTime() {
+        return Duration.ofNanos(throttledNanos.get());
+    }
+
+    // Number of 429 responses received despite pacing
+    public long getRateLimitedResponses() {
+        return rateLimitedResponses.get();
+    }
+
+    // Current learned requests-per-minute limit
+    public synchronized double getRequestsPerMinute() {
+        return requestBucket.getCapacity();
+    }
+
+    // Current learned tokens-per-minute limit
+    public synchronized double getTokensPerMinute() {
+        return tokenBucket.getCapacity();
+    }
+
+    // Reserves capacity in both buckets and returns the required wait
+    private synchronized long reserve(int estimatedTokens) {
+        long now = System.nanoTime();
+        long requestWait = requestBucket.reserve(1, now);
+        long tokenWait = tokenBucket.reserve(estimatedTokens, now);
+        long pauseWait = pausedUntilNanos - now;
+        return Math.max(pauseWait, Math.max(requestWait, tokenWait));
+    }
+
+    private Optional<Double> headerNumber(HttpHeaders headers, String name) {
+        return headers.firstValue(name).flatMap(value -> {
+            try {
+                return Optional.of(Double.parseDouble(value.trim()));
+            } catch (NumberFormatException e) {
+                return Optional.empty();
+            }
+        });
+    }
+
+    // Parses OpenAI reset durations such as "20ms", "1s" or "6m0s"
+    private Optional<Duration> headerDuration(HttpHeaders headers, String name) {
+        return headers.firstValue(name).flatMap(value -> {
+            Matcher matcher = DURATION_PART_PATTERN.matcher(value.trim());
+            double millis = 0;
+            boolean matched = false;
+            while (matcher.find()) {
+                matched = true;
+                double amount = Double.parseDouble(matcher.group(1));
+                millis += switch (matcher.group(2)) {
+                    case "h" -> amount * 3_600_000;
+                    case "m" -> amount * 60_000;
+                    case "s" -> amount * 1_000;
+                    default -> amount;
+                };
+            }
+            return matched ? Optional.of(Duration.ofMillis((long) millis)) : Optional.empty();
+        });
+    }
+}
@@ -0,0 +1,103 @@
+package com.rashid.service.ai;
+
+import com.rashid.config.CacheConfig;
+import com.rashid.config.ModelProfilesConfig;
+import com.rashid.model.CallSite;
+import com.rashid.model.ResponseSchema;
+import com.rashid.model.StreamedResponse;
+import com.rashid.service.api.AIClient;
+import com.rashid.service.cache.ResponseCache;
+import com.rashid.util.Futures;
+import com.rashid.util.PromptHashing;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+// AIClient decorator that serves repeated prompts from a content-addressed response cache
+public class CachingAIClient implements AIClient {
+    private final AIClient delegate;
+    private final ResponseCache cache;
+    private final CacheConfig cacheConfig;
+    private final ModelProfilesConfig modelProfiles;
+
+    // Constructs caching client; the call site's model profile is part of every cache key
+    public CachingAIClient(AIClient delegate, ResponseCache cache, CacheConfig cacheConfig,
+                           ModelProfilesConfig modelProfiles) {
+        this.delegate = delegate;
+        this.cache = cache;
+        this.cacheConfig = cacheConfig;
+        this.modelProfiles = modelProfiles;
+    }
+
+    // Returns a cached response when fresh for the call site, otherwise calls through and stores the result;
+    // cancelling a miss cancels the request it is waiting for
+    @Override
+    public CompletableFuture<String> chatWithSearchAsync(CallSite callSite, String systemPrompt, String userPrompt) {
+        Duration ttl = cacheConfig.getTtl(callSite);
+        if (ttl.isZero()) {
+            return delegate.chatWithSearchAsync(callSite, systemPrompt, userPrompt);
+        }
+
+        String key = PromptHashing.hash(modelProfiles.getProfile(callSite), systemPrompt, userPrompt);
+        String cached = cache.get(key, ttl);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        CompletableFuture<String> upstream = delegate.chatWithSearchAsync(callSite, systemPrompt, userPrompt);
+        return Futures.cancelling(upstream.thenApply(content -> store(key, content)), upstream);
+    }
+
+    // Serves structured responses from cache; the schema is part of the key
+    @Override
+    public CompletableFuture<String> chatStructuredAsync(CallSite callSite, String systemPrompt, String userPrompt,
+            ResponseSchema schema) {
+        Duration ttl = cacheConfig.getTtl(callSite);
+        if (ttl.isZero()) {
+            return delegate.chatStructuredAsync(callSite, systemPrompt, userPrompt, schema);
+        }
+
+        String key = PromptHashing.hash(modelProfiles.getProfile(callSite), systemPrompt + schema.getSchemaJson(),
+            userPrompt);
+        String cached = cache.get(key, ttl);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        CompletableFuture<String> upstream = delegate.chatStructuredAsync(callSite, systemPrompt, userPrompt, schema);
+        return Futures.cancelling(upstream.thenApply(content -> store(key, content)), upstream);
+    }
+
+    // Replays a cached response as a single chunk, otherwise streams through and stores the result
+    @Override
+    public CompletableFuture<StreamedResponse> streamChatWithSearchAsync(CallSite callSite, String systemPrompt,
+            String userPrompt, Consumer<String> onToken) {
+        Duration ttl = cacheConfig.getTtl(callSite);
+        if (ttl.isZero()) {
+            return delegate.streamChatWithSearchAsync(callSite, systemPrompt, userPrompt, onToken);
+        }
+
+        String key = PromptHashing.hash(modelProfiles.getProfile(callSite), systemPrompt, userPrompt);
+        String cached = cache.get(key, ttl);
+        if (cached != null) {
+            onToken.accept(cached);
+            return CompletableFuture.completedFuture(new StreamedResponse(cached, 0, 0));
+        }
+
+        CompletableFuture<StreamedResponse> upstream =
+            delegate.streamChatWithSearchAsync(callSite, systemPrompt, userPrompt, onToken);
+        return Futures.cancelling(upstream.thenApply(response -> {
+            store(key, response.getContent());
+            return response;
+        }), upstream);
+    }
+
+    // Stores non-empty responses so failures and blank answers are never replayed
+    private String store(String key, String content) {
+        if (content != null && !content.isBlank()) {
+            cache.put(key, content);
+        }
+        return content;
+    }
+}
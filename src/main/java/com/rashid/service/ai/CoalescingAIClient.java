@@ -0,0 +1,160 @@
+package com.rashid.service.ai;
+
+import com.rashid.config.ModelProfilesConfig;
+import com.rashid.model.CallSite;
+import com.rashid.model.ResponseSchema;
+import com.rashid.model.StreamedResponse;
+import com.rashid.service.api.AIClient;
+import com.rashid.util.PromptHashing;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+// AIClient decorator that lets concurrent callers with byte-identical prompts share one upstream request
+public class CoalescingAIClient implements AIClient {
+    private final AIClient delegate;
+    private final ModelProfilesConfig modelProfiles;
+    private final ConcurrentMap<String, Flight> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong totalRequests = new AtomicLong();
+    private final AtomicLong coalescedRequests = new AtomicLong();
+
+    // Constructs coalescing client; the call site's model profile is part of every request key
+    public CoalescingAIClient(AIClient delegate, ModelProfilesConfig modelProfiles) {
+        this.delegate = delegate;
+        this.modelProfiles = modelProfiles;
+    }
+
+    // Joins an identical in-flight request when one exists, otherwise starts a new one
+    @Override
+    public CompletableFuture<String> chatWithSearchAsync(CallSite callSite, String systemPrompt, String userPrompt) {
+        String key = PromptHashing.hash(modelProfiles.getProfile(callSite), systemPrompt, userPrompt);
+        return coalesce(key, () -> delegate.chatWithSearchAsync(callSite, systemPrompt, userPrompt));
+    }
+
+    // Coalesces structured requests; the schema is part of the key
+    @Override
+    public CompletableFuture<String> chatStructuredAsync(CallSite callSite, String systemPrompt, String userPrompt,
+            ResponseSchema schema) {
+        String key = PromptHashing.hash(modelProfiles.getProfile(callSite), systemPrompt + schema.getSchemaJson(),
+            userPrompt);
+        return coalesce(key, () -> delegate.chatStructuredAsync(callSite, systemPrompt, userPrompt, schema));
+    }
+
+    // Streams to the caller that starts the request; identical concurrent callers receive the full text as one chunk
+    @Override
+    public CompletableFuture<StreamedResponse> streamChatWithSearchAsync(CallSite callSite, String systemPrompt,
+            String userPrompt, Consumer<String> onToken) {
+        totalRequests.incrementAndGet();
+        String key = PromptHashing.hash(modelProfiles.getProfile(callSite), systemPrompt, userPrompt);
+        long startNanos = System.nanoTime();
+
+        Flight started = new Flight();
+        Flight flight = inFlight.putIfAbsent(key, started);
+        if (flight != null && flight.join()) {
+            coalescedRequests.incrementAndGet();
+            return flight.track(flight.result.thenApply(content -> {
+                long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+                onToken.accept(content);
+                return new StreamedResponse(content, elapsedMillis, elapsedMillis);
+            }));
+        }
+
+        // The starting caller keeps its token stream but leaves the flight like any other caller, so it
+        // only cancels the upstream request once no other caller is waiting for it
+        inFlight.put(key, started);
+        CompletableFuture<StreamedResponse> stream =
+            delegate.streamChatWithSearchAsync(callSite, systemPrompt, userPrompt, onToken);
+        launch(key, started, stream, stream.thenApply(StreamedResponse::getContent));
+        return started.track(stream.copy());
+    }
+
+    // Total number of requests seen by this client
+    public long getTotalRequests() {
+        return totalRequests.get();
+    }
+
+    // Number of requests that were served by joining an identical in-flight request
+    public long getCoalescedRequests() {
+        return coalescedRequests.get();
+    }
+
+    // Number of distinct upstream requests currently in flight
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    // Returns a future for the shared flight with this key, starting the upstream request if none is running
+    private CompletableFuture<String> coalesce(String key, Supplier<CompletableFuture<String>> request) {
+        totalRequests.incrementAndGet();
+
+        Flight started = new Flight();
+        Flight flight = inFlight.putIfAbsent(key, started);
+        if (flight != null && flight.join()) {
+            coalescedRequests.incrementAndGet();
+            return flight.subscribe();
+        }
+
+        // Either no flight existed or the existing one was being torn down after all callers left
+        inFlight.put(key, started);
+        CompletableFuture<String> call = request.get();
+        launch(key, started, call, call);
+        return started.subscribe();
+    }
+
+    // Connects a flight to its upstream request and removes it from the table once the content is known
+    private void launch(String key, Flight flight, CompletableFuture<?> upstream, CompletableFuture<String> content) {
+        flight.upstream = upstream;
+        content.whenComplete((text, error) -> {
+            inFlight.remove(key, flight);
+            if (error != null) {
+                flight.result.completeExceptionally(error);
+            } else {
+                flight.result.complete(text);
+            }
+        });
+    }
+
+    // One shared upstream request and the number of callers still waiting for it; the caller that creates
+    // the flight is counted before the flight is published, so a joiner leaving early cannot close it
+    private final class Flight {
+        private final CompletableFuture<String> result = new CompletableFuture<>();
+        private final AtomicInteger waiters = new AtomicInteger(1);
+        private volatile CompletableFuture<?> upstream;
+
+        // Registers a caller; fails once every previous caller has cancelled and the flight is closing
+        boolean join() {
+            return waiters.getAndUpdate(count -> count < 0 ? count : count + 1) >= 0;
+        }
+
+        // Gives the caller its own future so that cancelling it does not affect other callers
+        CompletableFuture<String> subscribe() {
+            return track(result.copy());
+        }
+
+        // Makes cancelling a caller's own future leave the flight
+        <T> CompletableFuture<T> track(CompletableFuture<T> callerFuture) {
+            callerFuture.whenComplete((value, error) -> {
+                if (callerFuture.isCancelled()) {
+                    leave();
+                }
+            });
+            return callerFuture;
+        }
+
+        // Cancels the shared upstream request when the last waiting caller has cancelled
+        private void leave() {
+            if (waiters.decrementAndGet() == 0 && waiters.compareAndSet(0, -1)) {
+                CompletableFuture<?> request = upstream;
+                if (request != null && !request.isDone()) {
+                    request.cancel(true);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.rashid.service.ai;
+
+import com.rashid.config.HedgingConfig;
+import com.rashid.model.CallSite;
+import com.rashid.model.ResponseSchema;
+import com.rashid.model.StreamedResponse;
+import com.rashid.service.api.AIClient;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+// AIClient decorator that hedges slow calls: a call still unanswered after the learned latency percentile of its
+// call site gets an identical second request, the first answer wins and the other request is cancelled.
+// A global budget caps hedges at a share of all calls. Streamed calls are passed through unhedged, since
+// two streams would deliver the answer to the user twice
+public class HedgingAIClient implements AIClient {
+    private static final int WINDOW_SIZE = 256;
+    private static final int RECOMPUTE_INTERVAL = 16;
+
+    private final AIClient delegate;
+    private final HedgingConfig config;
+    private final Map<CallSite, LatencyWindow> windows = new EnumMap<>(CallSite.class);
+
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong hedges = new AtomicLong();
+    private final AtomicLong hedgeWins = new AtomicLong();
+    private final AtomicLong savedNanos = new AtomicLong();
+
+    public HedgingAIClient(AIClient delegate, HedgingConfig config) {
+        this.delegate = delegate;
+        this.config = config;
+        // Every call site is registered up front so lookups never mutate the map
+        for (CallSite callSite : CallSite.values()) {
+            windows.put(callSite, new LatencyWindow(config.getPercentile() / 100.0,
+                Math.min(config.getMinSamples(), WINDOW_SIZE)));
+        }
+    }
+
+    @Override
+    public CompletableFuture<String> chatWithSearchAsync(CallSite callSite, String systemPrompt, String userPrompt) {
+        return hedged(callSite, () -> delegate.chatWithSearchAsync(callSite, systemPrompt, userPrompt));
+    }
+
+    @Override
+    public CompletableFuture<String> chatStructuredAsync(CallSite callSite, String systemPrompt, String userPrompt,
+            ResponseSchema schema) {
+        return hedged(callSite, () -> delegate.chatStructuredAsync(callSite, systemPrompt, userPrompt, schema));
+    }
+
+    @Override
+    public CompletableFuture<StreamedResponse> streamChatWithSearchAsync(CallSite callSite, String systemPrompt,
+            String userPrompt, Consumer<String> onToken) {
+        return delegate.streamChatWithSearchAsync(callSite, systemPrompt, userPrompt, onToken);
+    }
+
+    // Total number of non-streamed calls seen by this client
+    public long getTotalCalls() {
+        return calls.get();
+    }
+
+    // Number of calls that were sent a second time
+    public long getHedgedCalls() {
+        return hedges.get();
+    }
+
+    // Number of hedged calls answered by the second request
+    public long getHedgeWins() {
+        return hedgeWins.get();
+    }
+
+    // Estimated latency saved by hedge wins. The cancelled first request's latency is unknown, so it is taken
+    // as the mean of the call site's recent latencies above the time the hedge answered
+    public Duration getEstimatedTimeSaved() {
+        return Duration.ofNanos(savedNanos.get());
+    }
+
+    // Starts the call and schedules its hedge for when the call site's latency percentile has passed
+    private <T> CompletableFuture<T> hedged(CallSite callSite, Supplier<CompletableFuture<T>> call) {
+        calls.incrementAndGet();
+        LatencyWindow window = windows.get(callSite);
+        long startNanos = System.nanoTime();
+        long thresholdNanos = window.getThresholdNanos();
+
+        CompletableFuture<T> primary = call.get();
+        if (thresholdNanos < 0) {
+            // Not enough samples yet to know what slow means for this call site
+            primary.whenComplete((value, error) -> {
+                if (error == null) {
+                    window.record(System.nanoTime() - startNanos);
+                }
+            });
+            return primary;
+        }
+
+        Race<T> race = new Race<>(window, startNanos, primary);
+        CompletableFuture.delayedExecutor(thresholdNanos, TimeUnit.NANOSECONDS).execute(() -> race.hedge(call));
+        return race.result;
+    }
+
+    // Takes one hedge from the budget if the share of hedged calls allows it
+    private boolean tryReserveHedge() {
+        while (true) {
+            long sent = hedges.get();
+            if ((sent + 1) * 100 > config.getBudgetPercent() * calls.get()) {
+                return false;
+            }
+            if (hedges.compareAndSet(sent, sent + 1)) {
+                return true;
+            }
+        }
+    }
+
+    // One call and its optional hedge; the first success completes the result and cancels the other request,
+    // a failure only completes it once no other request is left running
+    private final class Race<T> {
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final LatencyWindow window;
+        private final long startNanos;
+        private final CompletableFuture<T> primary;
+        private volatile CompletableFuture<T> hedge;
+        private int running = 1;
+
+        private Race(LatencyWindow window, long startNanos, CompletableFuture<T> primary) {
+            this.window = window;
+            this.startNanos = startNanos;
+            this.primary = primary;
+            primary.whenComplete((value, error) -> settle(primary, value, error));
+            // Dependent stages do not propagate cancellation upstream, so cancel both requests explicitly
+            result.whenComplete((value, error) -> {
+                if (result.isCancelled()) {
+                    primary.cancel(true);
+                    CompletableFuture<T> second = hedge;
+                    if (second != null) {
+                        second.cancel(true);
+                    }
+                }
+            });
+        }
+
+        private void hedge(Supplier<CompletableFuture<T>> call) {
+            synchronized (this) {
+                if (result.isDone() || !tryReserveHedge()) {
+                    return;
+                }
+                running++;
+            }
+            CompletableFuture<T> second = call.get();
+            hedge = second;
+            if (result.isDone()) {
+                // The first request answered while the hedge was being sent
+                second.cancel(true);
+            }
+            second.whenComplete((value, error) -> settle(second, value, error));
+        }
+
+        private void settle(CompletableFuture<T> source, T value, Throwable error) {
+            long elapsedNanos = System.nanoTime() - startNanos;
+            synchronized (this) {
+                running--;
+                if (result.isDone() || (error != null && running > 0)) {
+                    return;
+                }
+            }
+            if (error != null) {
+                result.completeExceptionally(error);
+                return;
+            }
+            if (!result.complete(value)) {
+                return;
+            }
+
+            if (source == primary) {
+                window.record(elapsedNanos);
+                CompletableFuture<T> second = hedge;
+                if (second != null) {
+                    second.cancel(true);
+                }
+            } else {
+                hedgeWins.incrementAndGet();
+                savedNanos.addAndGet(window.meanAbove(elapsedNanos) - elapsedNanos);
+                // The first request took at least this long, which keeps slow calls in the percentile
+                window.record(elapsedNanos);
+                primary.cancel(true);
+            }
+        }
+    }
+
+    // Sliding window of a call site's recent latencies with a cached percentile threshold
+    private static final class LatencyWindow {
+        private final long[] samples = new long[WINDOW_SIZE];
+        private final double quantile;
+        private final int minSamples;
+        private int count;
+        private int next;
+        private int sinceRecompute;
+        private volatile long thresholdNanos = -1;
+
+        private LatencyWindow(double quantile, int minSamples) {
+            this.quantile = quantile;
+            this.minSamples = minSamples;
+        }
+
+        private synchronized void record(long nanos) {
+            samples[next] = nanos;
+            next = (next + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+            sinceRecompute++;
+            if (count >= minSamples && (thresholdNanos < 0 || sinceRecompute >= RECOMPUTE_INTERVAL)) {
+                long[] sorted = Arrays.copyOf(samples, count);
+                Arrays.sort(sorted);
+                thresholdNanos = sorted[Math.max(0, (int) Math.ceil(quantile * count) - 1)];
+                sinceRecompute = 0;
+            }
+        }
+
+        // Latency threshold after which calls are hedged, or -1 until enough samples were recorded
+        private long getThresholdNanos() {
+            return thresholdNanos;
+        }
+
+        // Mean of the recorded latencies above the given one, or the latency itself if none is slower
+        private synchronized long meanAbove(long nanos) {
+            long sum = 0;
+            int slower = 0;
+            for (int i = 0; i < count; i++) {
+                if (samples[i] > nanos) {
+                    sum += samples[i];
+                    slower++;
+                }
+            }
+            return slower == 0 ? nanos : sum / slower;
+        }
+    }
+}
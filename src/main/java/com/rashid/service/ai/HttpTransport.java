@@ -0,0 +1,147 @@
+package com.rashid.service.ai;
+
+import com.rashid.config.HttpConfig;
+import com.rashid.model.CallSite;
+import com.rashid.service.metrics.ResearchMetrics;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPInputStream;
+
+// HTTP transport for AI requests: one shared HttpClient that speaks HTTP/2 where the server supports it,
+// gzip-decoded responses, per-call-site timeouts and background connection pre-warming. The JDK client
+// multiplexes every HTTP/2 exchange with an origin over a single connection, so the protocol counts and the
+// peak number of concurrent exchanges show whether calls shared a connection or needed sockets of their own
+public class HttpTransport {
+    private static final String GZIP = "gzip";
+
+    private final HttpClient httpClient;
+    private final HttpConfig httpConfig;
+    private final ResearchMetrics metrics;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private final LongAdder http2Responses = new LongAdder();
+    private final LongAdder http1Responses = new LongAdder();
+    private volatile long prewarmMillis = -1;
+    private volatile HttpClient.Version prewarmVersion;
+
+    // Constructs the transport; the metrics receive the protocol of every response
+    public HttpTransport(HttpConfig httpConfig, ResearchMetrics metrics) {
+        this.httpConfig = httpConfig;
+        this.metrics = metrics;
+        this.httpClient = HttpClient.newBuilder()
+                .version(httpConfig.isHttp2Enabled() ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .connectTimeout(httpConfig.getConnectTimeout())
+                .build();
+    }
+
+    // Starts a request with the call site's timeout; gzip is only asked for when the body is read whole,
+    // since compressing a server-sent event stream would hold back its chunks
+    public HttpRequest.Builder newRequest(URI uri, CallSite callSite, boolean compressible) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri).timeout(httpConfig.getRequestTimeout(callSite));
+        if (compressible && httpConfig.isGzipEnabled()) {
+            builder.header("Accept-Encoding", GZIP);
+        }
+        return builder;
+    }
+
+    // Sends the request without blocking; cancelling the returned future aborts the exchange
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request,
+            HttpResponse.BodyHandler<T> bodyHandler) {
+        peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        CompletableFuture<HttpResponse<T>> response = httpClient.sendAsync(request, bodyHandler);
+        response.whenComplete((completed, error) -> {
+            inFlight.decrementAndGet();
+            if (completed != null) {
+                recordProtocol(completed.version());
+            }
+        });
+        return response;
+    }
+
+    // Returns the response body, decompressing it if the server sent it gzip-encoded
+    public InputStream decodedBody(HttpResponse<InputStream> response) throws IOException {
+        InputStream body = response.body();
+        boolean gzip = response.headers().firstValue("Content-Encoding")
+            .map(encoding -> encoding.trim().equalsIgnoreCase(GZIP))
+            .orElse(false);
+        if (!gzip) {
+            return body;
+        }
+        try {
+            return new GZIPInputStream(body);
+        } catch (IOException e) {
+            body.close();
+            throw e;
+        }
+    }
+
+    // Opens the connection to the URI's origin in the background (DNS, TCP, TLS and HTTP/2 setup) with a
+    // HEAD request, so the first real call finds it in the pool; failures are left for that call to report
+    public CompletableFuture<Void> prewarm(URI uri) {
+        long startNanos = System.nanoTime();
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .method("HEAD", HttpRequest.BodyPublishers.noBody())
+                .timeout(httpConfig.getConnectTimeout())
+                .build();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+            .handle((response, error) -> {
+                if (response != null) {
+                    prewarmVersion = response.version();
+                    prewarmMillis = (System.nanoTime() - startNanos) / 1_000_000;
+                }
+                return null;
+            });
+    }
+
+    private void recordProtocol(HttpClient.Version version) {
+        if (version == HttpClient.Version.HTTP_2) {
+            http2Responses.increment();
+        } else {
+            http1Responses.increment();
+        }
+        metrics.recordHttpProtocol(protocolName(version));
+    }
+
+    private static String protocolName(HttpClient.Version version) {
+        return version == HttpClient.Version.HTTP_2 ? "HTTP/2" : "HTTP/1.1";
+    }
+
+    // Responses received over HTTP/2, i.e. on a stream of a shared connection
+    public long getHttp2Responses() {
+        return http2Responses.sum();
+    }
+
+    // Responses received over HTTP/1.1, where each concurrent exchange needs its own connection
+    public long getHttp1Responses() {
+        return http1Responses.sum();
+    }
+
+    // Most exchanges that were waiting for a response at the same time
+    public int getPeakConcurrentExchanges() {
+        return peakInFlight.get();
+    }
+
+    // How long pre-warming the connection took, or -1 if it did not run or failed
+    public long getPrewarmMillis() {
+        return prewarmMillis;
+    }
+
+    @Override
+    public String toString() {
+        String summary = String.format("%d responses over HTTP/2, %d over HTTP/1.1, peak %d concurrent exchanges",
+            getHttp2Responses(), getHttp1Responses(), getPeakConcurrentExchanges());
+        HttpClient.Version version = prewarmVersion;
+        if (version != null) {
+            summary += String.format(", connection pre-warmed over %s in %dms", protocolName(version), prewarmMillis);
+        }
+        return summary;
+    }
+}
@@ -1,133 +1,581 @@
 package com.rashid.service.ai;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.rashid.config.ModelProfile;
+import com.rashid.config.ModelProfilesConfig;
+import com.rashid.config.RateLimitConfig;
 import com.rashid.constants.PromptConstants;
 import com.rashid.exception.AIException;
+import com.rashid.model.CallSite;
+import com.rashid.model.ResponseSchema;
+import com.rashid.model.StreamedResponse;
 import com.rashid.service.api.AIClient;
+import com.rashid.service.metrics.ResearchMetrics;
+import com.rashid.util.Futures;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ConnectException;
 import java.net.URI;
-import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 // Direct HTTP client for OpenAI's search-enabled models using REST API
 public class OpenAISearchClient implements AIClient {
-    private static final String OPENAI_API_URL = "https://api.openai.com/v1/chat/completions";
-    private static final int CONNECTION_TIMEOUT_SECONDS = 30;
-    private static final int REQUEST_TIMEOUT_SECONDS = 120;
+    private static final String CHAT_COMPLETIONS_PATH = "/chat/completions";
     private static final int HTTP_OK = 200;
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+    static final Set<Integer> RETRYABLE_STATUS_CODES = Set.of(HTTP_TOO_MANY_REQUESTS, 500, 502, 503, 504);
+    private static final int CHARS_PER_TOKEN_ESTIMATE = 4;
+    // Response bodies are parsed while they arrive, which blocks; virtual threads keep that off the client's executor
+    private static final Executor RESPONSE_PARSER = Executors.newThreadPerTaskExecutor(
+        Thread.ofVirtual().name("response-parser-", 0).factory());
 
-    private final HttpClient httpClient;
+    private final HttpTransport transport;
     private final ObjectMapper objectMapper;
     private final String apiKey;
-    private final String model;
-    private final int maxTokens;
-    private final double temperature;
-
-    // Constructs OpenAI search client with API key and model settings
-    public OpenAISearchClient(String apiKey, String model, int maxTokens, double temperature) {
-        this.httpClient = HttpClient.newBuilder()
-                .connectTimeout(Duration.ofSeconds(CONNECTION_TIMEOUT_SECONDS))
-                .build();
+    private final URI chatCompletionsUri;
+    private final ModelProfilesConfig modelProfiles;
+    private final AdaptiveRateLimiter rateLimiter;
+    private final RateLimitConfig rateLimitConfig;
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong promptTokens = new AtomicLong();
+    private final AtomicLong completionTokens = new AtomicLong();
+    private final ResearchMetrics metrics;
+
+    // Constructs OpenAI search client with API key, API base URL, per-call-site model profiles, rate limiting
+    // policy, the HTTP transport and the metrics that receive token usage and HTTP statuses
+    public OpenAISearchClient(String apiKey, String baseUrl, ModelProfilesConfig modelProfiles,
+                              RateLimitConfig rateLimitConfig, HttpTransport transport, ResearchMetrics metrics) {
+        this.transport = transport;
         this.objectMapper = new ObjectMapper();
         this.apiKey = apiKey;
-        this.model = model;
-        this.maxTokens = maxTokens;
-        this.temperature = temperature;
+        this.chatCompletionsUri = URI.create(baseUrl.replaceAll("/+$", "") + CHAT_COMPLETIONS_PATH);
+        this.modelProfiles = modelProfiles;
+        this.rateLimitConfig = rateLimitConfig;
+        this.rateLimiter = rateLimitConfig.isEnabled() ? new AdaptiveRateLimiter(rateLimitConfig) : null;
+        this.metrics = metrics;
     }
 
-    // Sends a chat request with web search capability to OpenAI
+    // Sends a chat request with web search capability to OpenAI without blocking the caller
     @Override
-    public String chatWithSearch(String systemPrompt, String userPrompt) throws AIException {
+    public CompletableFuture<String> chatWithSearchAsync(CallSite callSite, String systemPrompt, String userPrompt) {
+        ModelProfile profile = modelProfiles.getProfile(callSite);
+        byte[] requestBody;
         try {
-            String requestBodyJson = buildRequestBody(systemPrompt, userPrompt);
-            HttpRequest request = buildHttpRequest(requestBodyJson);
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            requestBody = buildRequestBody(profile, systemPrompt, userPrompt, false, null);
+        } catch (AIException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return sendChatAsync(callSite, profile, requestBody);
+    }
 
-            validateResponse(response);
-            return parseResponse(response.body());
+    // Sends a chat request constrained to the JSON schema via OpenAI structured outputs
+    @Override
+    public CompletableFuture<String> chatStructuredAsync(CallSite callSite, String systemPrompt, String userPrompt,
+            ResponseSchema schema) {
+        ModelProfile profile = modelProfiles.getProfile(callSite);
+        byte[] requestBody;
+        try {
+            requestBody = buildRequestBody(profile, systemPrompt, userPrompt, false, schema);
         } catch (AIException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new AIException("Failed to communicate with AI service", e);
+            return CompletableFuture.failedFuture(e);
         }
+        return sendChatAsync(callSite, profile, requestBody);
     }
 
-    // Builds the JSON request body for OpenAI API
-    private String buildRequestBody(String systemPrompt, String userPrompt) throws AIException {
+    // Sends a non-streaming request body and extracts the message content, parsing the body as it arrives
+    private CompletableFuture<String> sendChatAsync(CallSite callSite, ModelProfile profile, byte[] requestBody) {
+        Exchange exchange = new Exchange(buildHttpRequest(callSite, requestBody, false),
+            estimateTokens(requestBody, profile));
+        CompletableFuture<HttpResponse<InputStream>> responseFuture =
+            sendWithRetry(exchange, HttpResponse.BodyHandlers.ofInputStream(), 0);
+
+        return cancellable(exchange, responseFuture.handleAsync((response, error) -> {
+            try {
+                if (error != null) {
+                    throw new AIException("Failed to communicate with AI service", Futures.unwrap(error));
+                }
+                try (InputStream body = transport.decodedBody(response)) {
+                    exchange.attach(body);
+                    if (response.statusCode() != HTTP_OK) {
+                        throw apiError(response.statusCode(), new String(body.readAllBytes(), StandardCharsets.UTF_8));
+                    }
+                    return parseResponse(body, profile.getModel());
+                } catch (IOException e) {
+                    throw new AIException("Failed to read AI response", e);
+                }
+            } catch (AIException e) {
+                throw new CompletionException(e);
+            }
+        }, RESPONSE_PARSER));
+    }
+
+    // Streams a chat request via server-sent events, forwarding content deltas as they arrive
+    @Override
+    public CompletableFuture<StreamedResponse> streamChatWithSearchAsync(CallSite callSite, String systemPrompt,
+            String userPrompt, Consumer<String> onToken) {
+        ModelProfile profile = modelProfiles.getProfile(callSite);
+        byte[] requestBody;
         try {
-            ObjectNode requestBody = objectMapper.createObjectNode();
-            requestBody.put("model", model);
-            requestBody.put("max_tokens", maxTokens);
-            requestBody.put("temperature", temperature);
+            requestBody = buildRequestBody(profile, systemPrompt, userPrompt, true, null);
+        } catch (AIException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        long startNanos = System.nanoTime();
+        SseStreamSubscriber streamSubscriber = new SseStreamSubscriber(objectMapper, onToken, startNanos);
+
+        // Only successful responses are parsed as an event stream; error bodies are read whole
+        HttpResponse.BodyHandler<String> bodyHandler = responseInfo -> responseInfo.statusCode() == HTTP_OK
+            ? HttpResponse.BodySubscribers.fromLineSubscriber(
+                streamSubscriber, SseStreamSubscriber::getContent, StandardCharsets.UTF_8, null)
+            : HttpResponse.BodySubscribers.ofString(StandardCharsets.UTF_8);
+
+        Exchange exchange = new Exchange(buildHttpRequest(callSite, requestBody, true),
+            estimateTokens(requestBody, profile));
+        CompletableFuture<HttpResponse<String>> responseFuture = sendWithRetry(exchange, bodyHandler, 0);
+
+        return cancellable(exchange, responseFuture.handle((response, error) -> {
+            try {
+                if (error != null) {
+                    throw new AIException("Failed to communicate with AI service", Futures.unwrap(error));
+                }
+                if (response.statusCode() != HTTP_OK) {
+                    throw apiError(response.statusCode(), response.body());
+                }
+                if (streamSubscriber.getStreamError() != null) {
+                    throw new AIException("OpenAI API error: " + streamSubscriber.getStreamError());
+                }
+                recordUsage(profile.getModel(), streamSubscriber.getUsage());
+
+                long totalMillis = (System.nanoTime() - startNanos) / 1_000_000;
+                long firstTokenMillis = streamSubscriber.getTimeToFirstTokenMillis();
+                long lastTokenMillis = streamSubscriber.getTimeToLastTokenMillis();
+                return new StreamedResponse(
+                    response.body(),
+                    firstTokenMillis < 0 ? totalMillis : firstTokenMillis,
+                    lastTokenMillis < 0 ? totalMillis : lastTokenMillis
+                );
+            } catch (AIException e) {
+                throw new CompletionException(e);
+            }
+        }));
+    }
+
+    // Sends the request once the rate limiter allows it, retrying 429/5xx responses and connection
+    // failures with jittered exponential backoff
+    private <T> CompletableFuture<HttpResponse<T>> sendWithRetry(Exchange exchange,
+            HttpResponse.BodyHandler<T> bodyHandler, int attempt) {
+        CompletableFuture<Void> permit = rateLimiter == null
+            ? CompletableFuture.completedFuture(null)
+            : rateLimiter.acquire(exchange.estimatedTokens);
+
+        return permit
+            .thenCompose(ignored -> exchange.send(transport, bodyHandler))
+            .handle((response, error) -> {
+                boolean canRetry = attempt < rateLimitConfig.getMaxRetries() && !exchange.cancelled;
+
+                if (error != null) {
+                    if (canRetry && isRetryableFailure(Futures.unwrap(error))) {
+                        return retryAfterDelay(exchange, bodyHandler, attempt, backoff(attempt));
+                    }
+                    return CompletableFuture.<HttpResponse<T>>failedFuture(Futures.unwrap(error));
+                }
+
+                metrics.recordHttpStatus(response.statusCode());
+                if (rateLimiter != null) {
+                    rateLimiter.update(response.headers());
+                }
+                if (RETRYABLE_STATUS_CODES.contains(response.statusCode())) {
+                    // Computed even when not retrying, so a 429 still pauses the shared rate limiter
+                    Duration delay = retryDelay(response, attempt);
+                    if (canRetry) {
+                        discardBody(response);
+                        return retryAfterDelay(exchange, bodyHandler, attempt, delay);
+                    }
+                }
+                return CompletableFuture.completedFuture(response);
+            })
+            .thenCompose(next -> next);
+    }
+
+    // Schedules the next attempt without holding a thread during the delay
+    private <T> CompletableFuture<HttpResponse<T>> retryAfterDelay(Exchange exchange,
+            HttpResponse.BodyHandler<T> bodyHandler, int attempt, Duration delay) {
+        retries.incrementAndGet();
+        return CompletableFuture
+            .runAsync(() -> { }, CompletableFuture.delayedExecutor(delay.toNanos(), TimeUnit.NANOSECONDS))
+            .thenCompose(ignored -> sendWithRetry(exchange, bodyHandler, attempt + 1));
+    }
 
-            ArrayNode messages = requestBody.putArray("messages");
-            addMessage(messages, PromptConstants.ROLE_SYSTEM, systemPrompt);
-            addMessage(messages, PromptConstants.ROLE_USER, userPrompt);
+    // Uses the server's retry-after when given; 429s also pause every caller sharing the limiter
+    private Duration retryDelay(HttpResponse<?> response, int attempt) {
+        Duration backoff = backoff(attempt);
+        if (rateLimiter == null) {
+            return backoff;
+        }
+        if (response.statusCode() == HTTP_TOO_MANY_REQUESTS) {
+            Duration pause = rateLimiter.onRateLimited(response.headers(), backoff);
+            return pause.compareTo(backoff) > 0 ? pause.plus(jitter(backoff)) : backoff;
+        }
+        return rateLimiter.retryAfter(response.headers()).orElse(backoff);
+    }
+
+    // Releases the connection of a response that is being retried; string bodies are already fully read
+    private void discardBody(HttpResponse<?> response) {
+        if (response.body() instanceof InputStream body) {
+            try {
+                body.close();
+            } catch (IOException e) {
+                // The response is discarded anyway
+            }
+        }
+    }
+
+    // Full-jitter exponential backoff capped at the configured maximum
+    private Duration backoff(int attempt) {
+        long ceiling = Math.min(rateLimitConfig.getMaxBackoffMillis(),
+            rateLimitConfig.getBaseBackoffMillis() << Math.min(attempt, 20));
+        return jitter(Duration.ofMillis(Math.max(1, ceiling)));
+    }
+
+    private Duration jitter(Duration ceiling) {
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(Math.max(1, ceiling.toMillis())));
+    }
+
+    // Only failures before the request reached the server are safe to retry
+    static boolean isRetryableFailure(Throwable error) {
+        return error instanceof ConnectException || error instanceof HttpConnectTimeoutException;
+    }
+
+    // Rough prompt-plus-completion token estimate used to pace the token bucket
+    private int estimateTokens(byte[] requestBody, ModelProfile profile) {
+        return requestBody.length / CHARS_PER_TOKEN_ESTIMATE + profile.getMaxTokens();
+    }
+
+    // Dependent stages do not propagate cancellation upstream, so abort the HTTP exchange explicitly
+    private <T> CompletableFuture<T> cancellable(Exchange exchange, CompletableFuture<T> result) {
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                exchange.cancel();
+            }
+        });
+        return result;
+    }
+
+    // Number of attempts that were retried after a 429/5xx response or connection failure
+    public long getRetryCount() {
+        return retries.get();
+    }
+
+    // Adds the token usage of a streamed response to the running totals and the per-model metrics
+    private void recordUsage(String model, JsonNode usage) {
+        if (usage != null && usage.isObject()) {
+            recordUsage(model, usage.path("prompt_tokens").asLong(0), usage.path("completion_tokens").asLong(0),
+                usage.path("prompt_tokens_details").path("cached_tokens").asLong(0));
+        }
+    }
+
+    // Adds the token usage reported by the API to the running totals and the per-model metrics
+    private void recordUsage(String model, long prompt, long completion, long cached) {
+        promptTokens.addAndGet(prompt);
+        completionTokens.addAndGet(completion);
+        metrics.recordTokens(model, prompt, completion, cached);
+    }
 
-            return objectMapper.writeValueAsString(requestBody);
-        } catch (Exception e) {
+    // Prompt tokens billed so far, as reported by the API
+    public long getPromptTokens() {
+        return promptTokens.get();
+    }
+
+    // Completion tokens billed so far, as reported by the API
+    public long getCompletionTokens() {
+        return completionTokens.get();
+    }
+
+    public long getTotalTokens() {
+        return promptTokens.get() + completionTokens.get();
+    }
+
+    // Opens the connection to the API in the background so the first call does not wait for the handshakes
+    public CompletableFuture<Void> prewarm() {
+        return transport.prewarm(chatCompletionsUri);
+    }
+
+    // Returns the HTTP transport, for its protocol and connection statistics
+    public HttpTransport getTransport() {
+        return transport;
+    }
+
+    // Returns the adaptive rate limiter, or null when client-side pacing is disabled
+    public AdaptiveRateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    // Writes the JSON request body for OpenAI API straight into a byte array, with the profile's model settings
+    private byte[] buildRequestBody(ModelProfile profile, String systemPrompt, String userPrompt, boolean stream,
+            ResponseSchema schema) throws AIException {
+        ByteArrayBuilder buffer = new ByteArrayBuilder(systemPrompt.length() + userPrompt.length() + 256);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(buffer, JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeStringField("model", profile.getModel());
+            generator.writeNumberField("max_tokens", profile.getMaxTokens());
+            generator.writeNumberField("temperature", profile.getTemperature());
+            if (!profile.getStopSequences().isEmpty()) {
+                generator.writeArrayFieldStart("stop");
+                for (String stop : profile.getStopSequences()) {
+                    generator.writeString(stop);
+                }
+                generator.writeEndArray();
+            }
+            if (stream) {
+                generator.writeBooleanField("stream", true);
+                // Ask for a final chunk with token usage, which streamed responses omit by default
+                generator.writeObjectFieldStart("stream_options");
+                generator.writeBooleanField("include_usage", true);
+                generator.writeEndObject();
+            }
+            if (schema != null) {
+                generator.writeObjectFieldStart("response_format");
+                generator.writeStringField("type", "json_schema");
+                generator.writeObjectFieldStart("json_schema");
+                generator.writeStringField("name", schema.getName());
+                generator.writeBooleanField("strict", true);
+                generator.writeFieldName("schema");
+                generator.writeRawValue(schema.getSchemaJson());
+                generator.writeEndObject();
+                generator.writeEndObject();
+            }
+
+            generator.writeArrayFieldStart("messages");
+            writeMessage(generator, PromptConstants.ROLE_SYSTEM, systemPrompt);
+            writeMessage(generator, PromptConstants.ROLE_USER, userPrompt);
+            generator.writeEndArray();
+            generator.writeEndObject();
+        } catch (IOException e) {
             throw new AIException("Failed to build request body", e);
         }
+        return buffer.toByteArray();
     }
 
-    // Adds a message to the messages array
-    private void addMessage(ArrayNode messages, String role, String content) {
-        ObjectNode message = messages.addObject();
-        message.put("role", role);
-        message.put("content", content);
+    // Writes a message to the messages array
+    private void writeMessage(JsonGenerator generator, String role, String content) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("role", role);
+        generator.writeStringField("content", content);
+        generator.writeEndObject();
     }
 
-    // Builds the HTTP request for OpenAI API
-    private HttpRequest buildHttpRequest(String requestBodyJson) {
-        return HttpRequest.newBuilder()
-                .uri(URI.create(OPENAI_API_URL))
+    // Builds the HTTP request for OpenAI API with the call site's timeout
+    private HttpRequest buildHttpRequest(CallSite callSite, byte[] requestBody, boolean stream) {
+        return transport.newRequest(chatCompletionsUri, callSite, !stream)
                 .header("Content-Type", "application/json")
                 .header("Authorization", "Bearer " + apiKey)
-                .timeout(Duration.ofSeconds(REQUEST_TIMEOUT_SECONDS))
-                .POST(HttpRequest.BodyPublishers.ofString(requestBodyJson))
+                .POST(HttpRequest.BodyPublishers.ofByteArray(requestBody))
                 .build();
     }
 
-    // Validates the HTTP response from OpenAI API
-    private void validateResponse(HttpResponse<String> response) throws AIException {
-        if (response.statusCode() != HTTP_OK) {
-            throw new AIException("OpenAI API error: " + response.statusCode() + " - " + response.body(),
-                response.statusCode());
+    // Error for a non-200 response from OpenAI API
+    private AIException apiError(int statusCode, String responseBody) {
+        return new AIException("OpenAI API error: " + statusCode + " - " + responseBody, statusCode);
+    }
+
+    // Parses an OpenAI API response from the stream without building a tree: only the first choice's
+    // message content, the usage block and any error are read, everything else is skipped.
+    // Package-private for the parsing benchmarks
+    String parseResponse(InputStream responseBody, String model) throws AIException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(responseBody)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new AIException("Failed to parse AI response: expected a JSON object");
+            }
+            String content = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "error" -> throw new AIException("OpenAI API error: " + readErrorMessage(parser));
+                    case "choices" -> content = readFirstChoiceContent(parser);
+                    case "usage" -> readUsage(parser, model);
+                    default -> parser.skipChildren();
+                }
+            }
+            if (content == null) {
+                throw new AIException("Failed to parse AI response: no choices");
+            }
+            return content;
+        } catch (IOException e) {
+            throw new AIException("Failed to parse AI response", e);
         }
     }
 
-    // Parses OpenAI API response and extracts the content
-    private String parseResponse(String responseBody) throws AIException {
-        try {
-            JsonNode root = objectMapper.readTree(responseBody);
+    // Reads choices[0].message.content, skipping other choices and fields; null if there are no choices
+    private String readFirstChoiceContent(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return null;
+        }
+        String content = null;
+        boolean first = true;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (!first || parser.currentToken() != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            first = false;
+            content = "";
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                if (field.equals("message") && parser.currentToken() == JsonToken.START_OBJECT) {
+                    content = readMessageContent(parser);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return content;
+    }
 
-            if (root.has("error")) {
-                String errorMessage = root.path("error").path("message").asText();
-                throw new AIException("OpenAI API error: " + errorMessage);
+    private String readMessageContent(JsonParser parser) throws IOException {
+        String content = "";
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            if (field.equals("content") && parser.currentToken() == JsonToken.VALUE_STRING) {
+                content = parser.getText();
+            } else {
+                parser.skipChildren();
             }
+        }
+        return content;
+    }
 
-            return root.path("choices")
-                    .get(0)
-                    .path("message")
-                    .path("content")
-                    .asText();
-        } catch (Exception e) {
-            throw new AIException("Failed to parse AI response", e);
+    // Reads the usage block into the token counters
+    private void readUsage(JsonParser parser, String model) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return;
         }
+        long prompt = 0;
+        long completion = 0;
+        long cached = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "prompt_tokens" -> prompt = parser.getValueAsLong(0);
+                case "completion_tokens" -> completion = parser.getValueAsLong(0);
+                case "prompt_tokens_details" -> cached = readCachedTokens(parser);
+                default -> parser.skipChildren();
+            }
+        }
+        recordUsage(model, prompt, completion, cached);
     }
 
-    // Sends a simple chat request with default system prompt
-    @Override
-    public String chat(String userPrompt) throws AIException {
-        return chatWithSearch(
-            "You are a professional research assistant with access to current web information. " +
-            "Provide comprehensive, well-researched responses with citations when possible.",
-            userPrompt
-        );
+    private long readCachedTokens(JsonParser parser) throws IOException {
+        long cached = 0;
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return cached;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            if (field.equals("cached_tokens")) {
+                cached = parser.getValueAsLong(0);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return cached;
+    }
+
+    private String readErrorMessage(JsonParser parser) throws IOException {
+        String message = "";
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            return parser.getValueAsString("");
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            if (field.equals("message")) {
+                message = parser.getValueAsString("");
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return message;
+    }
+
+    // Tracks the attempt currently on the wire so a cancelled call can abort it, including during retries
+    private static final class Exchange {
+        private final HttpRequest request;
+        private final int estimatedTokens;
+        private volatile CompletableFuture<?> current;
+        private volatile Closeable body;
+        private volatile boolean cancelled;
+
+        private Exchange(HttpRequest request, int estimatedTokens) {
+            this.request = request;
+            this.estimatedTokens = estimatedTokens;
+        }
+
+        private <T> CompletableFuture<HttpResponse<T>> send(HttpTransport transport,
+                HttpResponse.BodyHandler<T> bodyHandler) {
+            if (cancelled) {
+                return CompletableFuture.failedFuture(new AIException("Request cancelled"));
+            }
+            CompletableFuture<HttpResponse<T>> attempt = transport.sendAsync(request, bodyHandler);
+            current = attempt;
+            return attempt;
+        }
+
+        // Registers a body being read so cancelling stops the read; closes it at once if already cancelled
+        private void attach(Closeable responseBody) {
+            body = responseBody;
+            if (cancelled) {
+                closeBody();
+            }
+        }
+
+        private void cancel() {
+            cancelled = true;
+            CompletableFuture<?> attempt = current;
+            if (attempt != null) {
+                attempt.cancel(true);
+            }
+            closeBody();
+        }
+
+        private void closeBody() {
+            Closeable responseBody = body;
+            if (responseBody != null) {
+                try {
+                    responseBody.close();
+                } catch (IOException e) {
+                    // The call is being abandoned
+                }
+            }
+        }
     }
 }
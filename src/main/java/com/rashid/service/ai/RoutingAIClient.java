@@ -0,0 +1,313 @@
+package com.rashid.service.ai;
+
+import com.fasterxml.jackson.core.JacksonException;
+import com.rashid.config.RateLimitConfig;
+import com.rashid.config.RoutingConfig;
+import com.rashid.exception.AIException;
+import com.rashid.model.CallSite;
+import com.rashid.model.ResponseSchema;
+import com.rashid.model.StreamedResponse;
+import com.rashid.service.api.AIClient;
+import com.rashid.util.Futures;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// AIClient that spreads calls over a pool of OpenAI-compatible endpoints (API keys, projects or gateways).
+// Each call goes to the healthy endpoint with the lowest expected wait: its latency EWMA scaled by the calls
+// already outstanding on it. Repeated 429/5xx or transport failures eject an endpoint for a while, after which
+// a single probe call decides whether it rejoins. A call that fails on one endpoint fails over to the next best
+// one; streamed calls only fail over while nothing has been delivered to the listener yet. Once every endpoint
+// has failed a call, retryable failures are retried with jittered exponential backoff on the best endpoint at
+// that moment. The endpoint clients themselves do not retry, so every failure reaches the router
+public class RoutingAIClient implements AIClient {
+    private static final double EWMA_ALPHA = 0.3;
+    private static final double INITIAL_LATENCY_MILLIS = 1000;
+
+    private final List<Endpoint> endpoints = new ArrayList<>();
+    private final int ejectAfterFailures;
+    private final long ejectionNanos;
+    private final int maxRetries;
+    private final long baseBackoffMillis;
+    private final long maxBackoffMillis;
+    private final AtomicLong failovers = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+
+    // Constructs the router over the named endpoint clients, in configuration order; retries follow the
+    // rate limit configuration
+    public RoutingAIClient(Map<String, ? extends AIClient> endpointClients, RoutingConfig config,
+            RateLimitConfig retryConfig) {
+        endpointClients.forEach((name, client) -> endpoints.add(new Endpoint(name, client)));
+        this.ejectAfterFailures = config.getEjectAfterFailures();
+        this.ejectionNanos = config.getEjectionDuration().toNanos();
+        this.maxRetries = retryConfig.getMaxRetries();
+        this.baseBackoffMillis = retryConfig.getBaseBackoffMillis();
+        this.maxBackoffMillis = retryConfig.getMaxBackoffMillis();
+    }
+
+    @Override
+    public CompletableFuture<String> chatWithSearchAsync(CallSite callSite, String systemPrompt, String userPrompt) {
+        return route(client -> client.chatWithSearchAsync(callSite, systemPrompt, userPrompt), () -> true);
+    }
+
+    @Override
+    public CompletableFuture<String> chatStructuredAsync(CallSite callSite, String systemPrompt, String userPrompt,
+            ResponseSchema schema) {
+        return route(client -> client.chatStructuredAsync(callSite, systemPrompt, userPrompt, schema), () -> true);
+    }
+
+    @Override
+    public CompletableFuture<StreamedResponse> streamChatWithSearchAsync(CallSite callSite, String systemPrompt,
+            String userPrompt, Consumer<String> onToken) {
+        AtomicBoolean delivered = new AtomicBoolean();
+        Consumer<String> tracking = token -> {
+            delivered.set(true);
+            onToken.accept(token);
+        };
+        return route(client -> client.streamChatWithSearchAsync(callSite, systemPrompt, userPrompt, tracking),
+            () -> !delivered.get());
+    }
+
+    // Number of calls that were retried on another endpoint
+    public long getFailovers() {
+        return failovers.get();
+    }
+
+    // Number of backoff retries made after every endpoint had failed a call
+    public long getRetries() {
+        return retries.get();
+    }
+
+    // Per-endpoint statistics, in configuration order
+    public synchronized List<EndpointStats> getEndpointStats() {
+        long now = System.nanoTime();
+        List<EndpointStats> stats = new ArrayList<>();
+        for (Endpoint endpoint : endpoints) {
+            stats.add(new EndpointStats(endpoint.name, endpoint.calls, endpoint.failures, endpoint.ejections,
+                Math.round(endpoint.latencyEwmaMillis), endpoint.ejectedUntilNanos - now > 0));
+        }
+        return stats;
+    }
+
+    private <T> CompletableFuture<T> route(Function<AIClient, CompletableFuture<T>> call, BooleanSupplier canFailOver) {
+        RoutedCall<T> routed = new RoutedCall<>(call, canFailOver);
+        routed.attempt(new AIException("No endpoint available"));
+        return routed.result;
+    }
+
+    // Picks the endpoint for the next attempt, or null once every endpoint has been tried. An endpoint whose
+    // ejection has expired is probed by exactly one call; if every remaining endpoint is ejected, the one
+    // returning soonest is used rather than failing the call
+    private synchronized Endpoint select(Set<Endpoint> tried) {
+        long now = System.nanoTime();
+        Endpoint best = null;
+        double bestScore = Double.MAX_VALUE;
+        for (Endpoint endpoint : endpoints) {
+            if (tried.contains(endpoint) || endpoint.ejectedUntilNanos - now > 0) {
+                continue;
+            }
+            if (endpoint.ejectedUntilNanos != 0) {
+                if (endpoint.probing) {
+                    continue;
+                }
+                endpoint.probing = true;
+                return start(endpoint);
+            }
+            double score = endpoint.latencyEwmaMillis * (endpoint.outstanding + 1);
+            if (score < bestScore) {
+                best = endpoint;
+                bestScore = score;
+            }
+        }
+        if (best == null) {
+            for (Endpoint endpoint : endpoints) {
+                if (!tried.contains(endpoint) && (best == null || endpoint.ejectedUntilNanos < best.ejectedUntilNanos)) {
+                    best = endpoint;
+                }
+            }
+        }
+        return best == null ? null : start(best);
+    }
+
+    private Endpoint start(Endpoint endpoint) {
+        endpoint.outstanding++;
+        endpoint.calls++;
+        return endpoint;
+    }
+
+    // The endpoint answered: it is healthy again and its latency feeds the EWMA
+    private synchronized void succeeded(Endpoint endpoint, long latencyNanos) {
+        endpoint.outstanding--;
+        endpoint.consecutiveFailures = 0;
+        endpoint.ejectedUntilNanos = 0;
+        endpoint.probing = false;
+        endpoint.latencyEwmaMillis += EWMA_ALPHA * (latencyNanos / 1e6 - endpoint.latencyEwmaMillis);
+    }
+
+    // The call failed for reasons that say nothing about the endpoint (bad request, cancellation)
+    private synchronized void released(Endpoint endpoint) {
+        endpoint.outstanding--;
+        endpoint.probing = false;
+    }
+
+    // The endpoint failed; a failed probe or too many consecutive failures eject it
+    private synchronized void failed(Endpoint endpoint) {
+        endpoint.outstanding--;
+        endpoint.failures++;
+        endpoint.consecutiveFailures++;
+        if (endpoint.probing || endpoint.consecutiveFailures >= ejectAfterFailures) {
+            endpoint.ejectedUntilNanos = System.nanoTime() + ejectionNanos;
+            endpoint.ejections++;
+            endpoint.consecutiveFailures = 0;
+        }
+        endpoint.probing = false;
+    }
+
+    // Same rule as the single-endpoint client: 429/5xx responses and failures before the request reached the server
+    private static boolean isRetryable(Throwable error) {
+        if (error instanceof AIException aiException && aiException.getStatusCode() != null) {
+            return OpenAISearchClient.RETRYABLE_STATUS_CODES.contains(aiException.getStatusCode());
+        }
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (OpenAISearchClient.isRetryableFailure(cause)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Full-jitter exponential backoff capped at the configured maximum
+    private long backoffMillis(int retry) {
+        long ceiling = Math.min(maxBackoffMillis, baseBackoffMillis << Math.min(retry, 20));
+        return ThreadLocalRandom.current().nextLong(Math.max(1, ceiling));
+    }
+
+    // Rate limiting, server errors, rejected keys and transport failures count against the endpoint;
+    // malformed requests and unparseable answers would fail the same way anywhere
+    private static boolean isEndpointFailure(Throwable error) {
+        if (error instanceof AIException aiException && aiException.getStatusCode() != null) {
+            int status = aiException.getStatusCode();
+            return status == 401 || status == 403 || status == 408 || status == 429 || status >= 500;
+        }
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof JacksonException) {
+                return false;
+            }
+            if (cause instanceof IOException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // One call and its attempts; cancelling the result aborts the attempt in progress
+    private final class RoutedCall<T> {
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final Function<AIClient, CompletableFuture<T>> call;
+        private final BooleanSupplier canFailOver;
+        private final Set<Endpoint> tried = new HashSet<>();
+        private int retryCount;
+        private volatile CompletableFuture<T> current;
+
+        private RoutedCall(Function<AIClient, CompletableFuture<T>> call, BooleanSupplier canFailOver) {
+            this.call = call;
+            this.canFailOver = canFailOver;
+            // Dependent stages do not propagate cancellation upstream, so abort the attempt explicitly
+            result.whenComplete((value, error) -> {
+                CompletableFuture<T> attempt = current;
+                if (result.isCancelled() && attempt != null) {
+                    attempt.cancel(true);
+                }
+            });
+        }
+
+        private void attempt(Throwable previousError) {
+            if (result.isDone()) {
+                return;
+            }
+            Endpoint endpoint = select(tried);
+            if (endpoint == null) {
+                result.completeExceptionally(previousError);
+                return;
+            }
+            tried.add(endpoint);
+            long startNanos = System.nanoTime();
+
+            CompletableFuture<T> attempt = call.apply(endpoint.client);
+            current = attempt;
+            if (result.isCancelled()) {
+                attempt.cancel(true);
+            }
+            attempt.whenComplete((value, error) -> {
+                if (error == null) {
+                    succeeded(endpoint, System.nanoTime() - startNanos);
+                    result.complete(value);
+                    return;
+                }
+                Throwable cause = Futures.unwrap(error);
+                if (result.isDone() || !isEndpointFailure(cause)) {
+                    released(endpoint);
+                    result.completeExceptionally(cause);
+                    return;
+                }
+                failed(endpoint);
+                if (!canFailOver.getAsBoolean()) {
+                    result.completeExceptionally(cause);
+                } else if (retryCount == 0 && tried.size() < endpoints.size()) {
+                    failovers.incrementAndGet();
+                    attempt(cause);
+                } else if (retryCount < maxRetries && isRetryable(cause)) {
+                    // Every endpoint failed this call; wait, then let the best endpoint at that moment try again
+                    long delayMillis = backoffMillis(retryCount++);
+                    retries.incrementAndGet();
+                    tried.clear();
+                    CompletableFuture.runAsync(() -> attempt(cause),
+                        CompletableFuture.delayedExecutor(delayMillis, TimeUnit.MILLISECONDS));
+                } else {
+                    result.completeExceptionally(cause);
+                }
+            });
+        }
+    }
+
+    // Mutable routing state of one endpoint, guarded by the router's lock
+    private static final class Endpoint {
+        private final String name;
+        private final AIClient client;
+        private int outstanding;
+        private double latencyEwmaMillis = INITIAL_LATENCY_MILLIS;
+        private int consecutiveFailures;
+        private long ejectedUntilNanos;
+        private boolean probing;
+        private long calls;
+        private long failures;
+        private long ejections;
+
+        private Endpoint(String name, AIClient client) {
+            this.name = name;
+            this.client = client;
+        }
+    }
+
+    // Snapshot of one endpoint's routing statistics
+    public record EndpointStats(String name, long calls, long failures, long ejections, long latencyEwmaMillis,
+                                boolean ejected) {
+        @Override
+        public String toString() {
+            return String.format("%s: %d calls, %d failed, %d ejections, ~%dms%s", name, calls, failures, ejections,
+                latencyEwmaMillis, ejected ? " (ejected)" : "");
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.rashid.service.ai;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
+
+// Consumes a chat completions server-sent-event stream line by line, forwarding content deltas
+class SseStreamSubscriber implements Flow.Subscriber<String> {
+    private static final String DATA_PREFIX = "data:";
+    private static final String DONE_MARKER = "[DONE]";
+
+    private final ObjectMapper objectMapper;
+    private final Consumer<String> onToken;
+    private final long startNanos;
+    private final StringBuilder content = new StringBuilder();
+
+    private volatile long firstTokenNanos = -1;
+    private volatile long lastTokenNanos = -1;
+    private volatile String streamError;
+    private volatile JsonNode usage;
+
+    SseStreamSubscriber(ObjectMapper objectMapper, Consumer<String> onToken, long startNanos) {
+        this.objectMapper = objectMapper;
+        this.onToken = onToken;
+        this.startNanos = startNanos;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        subscription.request(Long.MAX_VALUE);
+    }
+
+    // Handles one SSE line; only "data:" lines carry chunks, blank lines and comments are skipped
+    @Override
+    public void onNext(String line) {
+        if (!line.startsWith(DATA_PREFIX)) {
+            return;
+        }
+
+        String data = line.substring(DATA_PREFIX.length()).trim();
+        if (data.isEmpty() || data.equals(DONE_MARKER)) {
+            return;
+        }
+
+        try {
+            JsonNode chunk = objectMapper.readTree(data);
+            if (chunk.has("error")) {
+                streamError = chunk.path("error").path("message").asText();
+                return;
+            }
+
+            if (chunk.hasNonNull("usage")) {
+                usage = chunk.get("usage");
+            }
+
+            String delta = chunk.path("choices").path(0).path("delta").path("content").asText("");
+            if (!delta.isEmpty()) {
+                recordToken();
+                content.append(delta);
+                onToken.accept(delta);
+            }
+        } catch (Exception e) {
+            // Malformed keep-alive or partial chunks are ignored; the final content is still usable
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        // Transport errors are surfaced through the HttpClient response future
+    }
+
+    @Override
+    public void onComplete() {
+        // Completion is observed through the body subscriber's finisher
+    }
+
+    // Records first and last token arrival times
+    private void recordToken() {
+        long now = System.nanoTime();
+        if (firstTokenNanos < 0) {
+            firstTokenNanos = now;
+        }
+        lastTokenNanos = now;
+    }
+
+    String getContent() {
+        return content.toString();
+    }
+
+    String getStreamError() {
+        return streamError;
+    }
+
+    // Token usage from the final chunk, or null if the stream did not report it
+    JsonNode getUsage() {
+        return usage;
+    }
+
+    long getTimeToFirstTokenMillis() {
+        return firstTokenNanos < 0 ? -1 : (firstTokenNanos - startNanos) / 1_000_000;
+    }
+
+    long getTimeToLastTokenMillis() {
+        return lastTokenNanos < 0 ? -1 : (lastTokenNanos - startNanos) / 1_000_000;
+    }
+}
@@ -0,0 +1,59 @@
+package com.rashid.service.ai;
+
+import java.util.concurrent.TimeUnit;
+
+// Per-minute token bucket that hands out reservations; a negative balance means callers are queued
+class TokenBucket {
+    private static final double NANOS_PER_MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    private double capacity;
+    private double refillPerNano;
+    private double available;
+    private long lastRefillNanos;
+
+    TokenBucket(double perMinuteLimit, long nowNanos) {
+        setLimit(perMinuteLimit);
+        this.available = capacity;
+        this.lastRefillNanos = nowNanos;
+    }
+
+    // Reserves the amount and returns how long the caller must wait before using it
+    long reserve(double amount, long nowNanos) {
+        refill(nowNanos);
+        // Oversized requests only wait for a full bucket so they can never stall forever
+        available -= Math.min(amount, capacity);
+        return available >= 0 ? 0 : (long) (-available / refillPerNano);
+    }
+
+    // Applies a limit learned from the server, keeping the current fill level proportional
+    void setLimit(double perMinuteLimit) {
+        if (perMinuteLimit <= 0) {
+            return;
+        }
+        if (capacity > 0) {
+            available = available * perMinuteLimit / capacity;
+        }
+        capacity = perMinuteLimit;
+        refillPerNano = perMinuteLimit / NANOS_PER_MINUTE;
+    }
+
+    // Lowers the local balance when the server reports less remaining capacity than we assumed
+    void observeRemaining(double remaining, long nowNanos) {
+        refill(nowNanos);
+        if (remaining < available) {
+            available = remaining;
+        }
+    }
+
+    double getCapacity() {
+        return capacity;
+    }
+
+    private void refill(long nowNanos) {
+        long elapsed = nowNanos - lastRefillNanos;
+        if (elapsed > 0) {
+            available = Math.min(capacity, available + elapsed * refillPerNano);
+            lastRefillNanos = nowNanos;
+        }
+    }
+}
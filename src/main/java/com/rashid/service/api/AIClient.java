@@ -1,13 +1,61 @@
 package com.rashid.service.api;
 
+import com.rashid.constants.PromptConstants;
 import com.rashid.exception.AIException;
+import com.rashid.model.CallSite;
+import com.rashid.model.ResponseSchema;
+import com.rashid.model.StreamedResponse;
+import com.rashid.util.Futures;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 // Interface for AI chat clients (OpenAI, Claude, Gemini, etc.)
 public interface AIClient {
 
+    // Sends a chat request with web search capability without blocking the caller;
+    // cancelling the returned future aborts the underlying request
+    CompletableFuture<String> chatWithSearchAsync(CallSite callSite, String systemPrompt, String userPrompt);
+
+    // Sends a chat request whose response must be JSON matching the schema. Clients without native
+    // structured output embed the schema in the system prompt instead.
+    default CompletableFuture<String> chatStructuredAsync(CallSite callSite, String systemPrompt, String userPrompt,
+            ResponseSchema schema) {
+        return chatWithSearchAsync(callSite,
+            systemPrompt + "\n\nRespond ONLY with a JSON object matching this JSON schema:\n" + schema.getSchemaJson(),
+            userPrompt);
+    }
+
+    // Sends a simple chat request with default system prompt without blocking the caller
+    default CompletableFuture<String> chatAsync(CallSite callSite, String userPrompt) {
+        return chatWithSearchAsync(callSite, PromptConstants.DEFAULT_SYSTEM_PROMPT, userPrompt);
+    }
+
+    // Streams a chat request with web search capability, delivering text to the listener as it arrives.
+    // Clients without native streaming deliver the whole response as a single chunk.
+    default CompletableFuture<StreamedResponse> streamChatWithSearchAsync(CallSite callSite, String systemPrompt,
+            String userPrompt, Consumer<String> onToken) {
+        long startNanos = System.nanoTime();
+        return chatWithSearchAsync(callSite, systemPrompt, userPrompt).thenApply(content -> {
+            long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+            onToken.accept(content);
+            return new StreamedResponse(content, elapsedMillis, elapsedMillis);
+        });
+    }
+
+    // Streams a simple chat request with default system prompt
+    default CompletableFuture<StreamedResponse> streamChatAsync(CallSite callSite, String userPrompt,
+            Consumer<String> onToken) {
+        return streamChatWithSearchAsync(callSite, PromptConstants.DEFAULT_SYSTEM_PROMPT, userPrompt, onToken);
+    }
+
     // Sends a chat request with web search capability
-    String chatWithSearch(String systemPrompt, String userPrompt) throws AIException;
+    default String chatWithSearch(CallSite callSite, String systemPrompt, String userPrompt) throws AIException {
+        return Futures.awaitAI(chatWithSearchAsync(callSite, systemPrompt, userPrompt));
+    }
 
     // Sends a simple chat request with default system prompt
-    String chat(String userPrompt) throws AIException;
+    default String chat(CallSite callSite, String userPrompt) throws AIException {
+        return Futures.awaitAI(chatAsync(callSite, userPrompt));
+    }
 }
@@ -2,13 +2,15 @@ package com.rashid.service.api;
 
 import com.rashid.exception.ResearchException;
 import com.rashid.model.ResearchIteration;
+import com.rashid.service.retrieval.Bm25Index;
 
 import java.util.List;
 
 // Interface for handling follow-up conversations after research
 public interface ConversationService {
 
-    // Handles unlimited follow-up conversation after initial research
-    void continuousConversation(String topic, String previousFindings,
-                                List<ResearchIteration> iterations) throws ResearchException;
+    // Handles unlimited follow-up conversation after initial research through the given channel; the index
+    // already holds the session's iteration findings and is extended with the conversation as it goes
+    void continuousConversation(String topic, String previousFindings, List<ResearchIteration> iterations,
+                                Bm25Index findingsIndex, UserChannel channel) throws ResearchException;
 }
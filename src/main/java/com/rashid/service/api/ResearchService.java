@@ -2,19 +2,77 @@ package com.rashid.service.api;
 
 import com.rashid.exception.ResearchException;
 import com.rashid.model.ResearchIteration;
-import com.rashid.model.Source;
+import com.rashid.model.StreamedResponse;
+import com.rashid.service.checkpoint.ResearchCheckpoint;
+import com.rashid.util.Futures;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 // Interface for conducting iterative research
 public interface ResearchService {
 
+    // Conducts deep iterative research with adaptive iterations without blocking the caller,
+    // handing each iteration to the listener as soon as it completes. Unless checkpointed is false, completed
+    // iterations are checkpointed and an interrupted session on the topic with the same instructions is resumed
+    CompletableFuture<List<ResearchIteration>> conductDeepIterativeResearchAsync(String topic, String instructions,
+                                                                               boolean checkpointed,
+                                                                               Consumer<ResearchIteration> onIteration);
+
+    // Conducts deep iterative research with checkpoints without blocking the caller,
+    // handing each iteration to the listener as soon as it completes
+    default CompletableFuture<List<ResearchIteration>> conductDeepIterativeResearchAsync(String topic, String instructions,
+            Consumer<ResearchIteration> onIteration) {
+        return conductDeepIterativeResearchAsync(topic, instructions, true, onIteration);
+    }
+
+    // Conducts deep iterative research with adaptive iterations without blocking the caller
+    default CompletableFuture<List<ResearchIteration>> conductDeepIterativeResearchAsync(String topic, String instructions) {
+        return conductDeepIterativeResearchAsync(topic, instructions, iteration -> {});
+    }
+
+    // Synthesizes findings from all iterations into a comprehensive report without blocking the caller
+    CompletableFuture<String> synthesizeAllIterationsAsync(String topic, List<ResearchIteration> iterations);
+
+    // Extracts key findings from the final synthesis without blocking the caller
+    CompletableFuture<String> extractKeyFindingsAsync(String topic, String synthesis);
+
+    // Synthesizes findings from all iterations, delivering the report text as it is generated
+    CompletableFuture<StreamedResponse> streamSynthesisAsync(String topic, List<ResearchIteration> iterations,
+                                                             Consumer<String> onToken);
+
+    // Extracts key findings from the final synthesis, delivering the text as it is generated
+    CompletableFuture<StreamedResponse> streamKeyFindingsAsync(String topic, String synthesis,
+                                                               Consumer<String> onToken);
+
+    // Returns a resumable checkpoint of an interrupted session on the topic, or null if there is none
+    default ResearchCheckpoint findCheckpoint(String topic) {
+        return null;
+    }
+
+    // Deletes the topic's checkpoint once its results have been delivered
+    default void discardCheckpoint(String topic) {
+    }
+
     // Conducts deep iterative research with adaptive iterations
-    List<ResearchIteration> conductDeepIterativeResearch(String topic, String instructions) throws ResearchException;
+    default List<ResearchIteration> conductDeepIterativeResearch(String topic, String instructions) throws ResearchException {
+        return Futures.await(conductDeepIterativeResearchAsync(topic, instructions));
+    }
+
+    // Conducts deep iterative research, handing each iteration to the listener as soon as it completes
+    default List<ResearchIteration> conductDeepIterativeResearch(String topic, String instructions,
+            boolean checkpointed, Consumer<ResearchIteration> onIteration) throws ResearchException {
+        return Futures.await(conductDeepIterativeResearchAsync(topic, instructions, checkpointed, onIteration));
+    }
 
     // Synthesizes findings from all iterations into a comprehensive report
-    String synthesizeAllIterations(String topic, List<ResearchIteration> iterations) throws ResearchException;
+    default String synthesizeAllIterations(String topic, List<ResearchIteration> iterations) throws ResearchException {
+        return Futures.await(synthesizeAllIterationsAsync(topic, iterations));
+    }
 
     // Extracts key findings from the final synthesis
-    String extractKeyFindings(String topic, String synthesis) throws ResearchException;
+    default String extractKeyFindings(String topic, String synthesis) throws ResearchException {
+        return Futures.await(extractKeyFindingsAsync(topic, synthesis));
+    }
 }
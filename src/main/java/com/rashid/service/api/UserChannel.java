@@ -0,0 +1,28 @@
+package com.rashid.service.api;
+
+import com.rashid.exception.ResearchException;
+
+// Interface for exchanging messages with the user of one research session (console or remote client)
+public interface UserChannel {
+
+    // Sends text to the user; streamed answers arrive in several chunks
+    void send(String text);
+
+    // Shows a transient status such as elapsed research time; an empty status clears it
+    void status(String text);
+
+    // Waits for the user's next line of input, or returns null once the session has ended
+    String readLine() throws ResearchException;
+
+    // Whether the session's research is checkpointed and interrupted research on its topic is offered for
+    // resume. Checkpoints are keyed by topic and shared by the whole process, so only a channel that speaks
+    // for the local user may use them
+    default boolean isCheckpointed() {
+        return true;
+    }
+
+    // Sends a complete line of text to the user
+    default void sendLine(String text) {
+        send(text + "\n");
+    }
+}
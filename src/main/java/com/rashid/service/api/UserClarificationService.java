@@ -5,6 +5,6 @@ import com.rashid.exception.ResearchException;
 // Interface for clarifying user research needs through conversation
 public interface UserClarificationService {
 
-    // AI-driven conversation to clarify what user wants
-    String clarifyThroughConversation(String topic) throws ResearchException;
+    // AI-driven conversation to clarify what user wants, asking questions through the given channel
+    String clarifyThroughConversation(String topic, UserChannel channel) throws ResearchException;
 }
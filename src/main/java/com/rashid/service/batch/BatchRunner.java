@@ -0,0 +1,252 @@
+package com.rashid.service.batch;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.rashid.config.BatchConfig;
+import com.rashid.exception.ResearchException;
+import com.rashid.model.ResearchIteration;
+import com.rashid.model.Source;
+import com.rashid.service.api.ResearchService;
+import com.rashid.service.api.SourceExtractionService;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+// Runs research over a file of topics without user interaction: clarification is skipped in favour of
+// per-topic or default instructions, and up to batch.concurrency research + synthesis pipelines run at once.
+// Each finished topic is written to its own report files, which is also what makes a rerun resume
+public class BatchRunner {
+    private final ResearchService researchService;
+    private final SourceExtractionService sourceExtractor;
+    private final BatchConfig batchConfig;
+    private final LongSupplier tokensUsed;
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    // Constructs a batch runner; tokensUsed reports the process-wide token count used for the tokens/min rate
+    public BatchRunner(ResearchService researchService, SourceExtractionService sourceExtractor,
+                       BatchConfig batchConfig, LongSupplier tokensUsed) {
+        this.researchService = researchService;
+        this.sourceExtractor = sourceExtractor;
+        this.batchConfig = batchConfig;
+        this.tokensUsed = tokensUsed;
+    }
+
+    // Reads a topics file: each line is either {"topic": "...", "instructions": "..."} or a plain topic.
+    // Blank lines and lines starting with # are ignored, as are repeats of a topic already listed
+    public List<BatchTopic> readTopics(Path file) throws ResearchException {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new ResearchException("Failed to read topics file " + file, e);
+        }
+
+        List<BatchTopic> topics = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            BatchTopic topic = parseTopic(line, i + 1);
+            if (seen.add(topic.fileStem())) {
+                topics.add(topic);
+            }
+        }
+        return topics;
+    }
+
+    // Researches every topic that has no reports yet in the output directory and returns the run's throughput
+    public BatchSummary run(List<BatchTopic> topics, Path outputDirectory) throws ResearchException {
+        try {
+            Files.createDirectories(outputDirectory);
+        } catch (IOException e) {
+            throw new ResearchException("Failed to create output directory " + outputDirectory, e);
+        }
+
+        List<BatchTopic> pending = new ArrayList<>();
+        for (BatchTopic topic : topics) {
+            if (!isComplete(topic, outputDirectory)) {
+                pending.add(topic);
+            }
+        }
+        int skipped = topics.size() - pending.size();
+        System.out.printf("Batch: %d topic%s, %d already done, %d to research (concurrency %d)%n",
+            topics.size(), topics.size() == 1 ? "" : "s", skipped, pending.size(), batchConfig.getConcurrency());
+
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger failed = new AtomicInteger();
+        AtomicInteger finished = new AtomicInteger();
+        Semaphore permits = new Semaphore(batchConfig.getConcurrency());
+        long tokensAtStart = tokensUsed.getAsLong();
+        long startTime = System.currentTimeMillis();
+
+        // Virtual threads block cheaply on the research futures; the semaphore bounds the pipelines in flight
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (BatchTopic topic : pending) {
+                executor.submit(() -> {
+                    try {
+                        permits.acquire();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    long topicStart = System.currentTimeMillis();
+                    try {
+                        researchTopic(topic, outputDirectory);
+                        long latency = System.currentTimeMillis() - topicStart;
+                        latencies.add(latency);
+                        System.out.printf("[%d/%d] Done in %.1fs: %s%n", finished.incrementAndGet(), pending.size(),
+                            latency / 1000.0, topic.topic());
+                    } catch (Exception e) {
+                        failed.incrementAndGet();
+                        System.out.printf("[%d/%d] Failed: %s (%s)%n", finished.incrementAndGet(), pending.size(),
+                            topic.topic(), e.getMessage());
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+
+        Duration elapsed = Duration.ofMillis(System.currentTimeMillis() - startTime);
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        return new BatchSummary(sorted.size(), skipped, failed.get(), elapsed,
+            tokensUsed.getAsLong() - tokensAtStart, percentile(sorted, 50), percentile(sorted, 95));
+    }
+
+    // Runs one topic through research, synthesis and key-finding extraction and writes its reports
+    private void researchTopic(BatchTopic topic, Path outputDirectory) throws ResearchException {
+        List<ResearchIteration> iterations =
+            researchService.conductDeepIterativeResearch(topic.topic(), topic.instructions());
+        String synthesis = researchService.synthesizeAllIterations(topic.topic(), iterations);
+        String keyFindings = researchService.extractKeyFindings(topic.topic(), synthesis);
+        List<Source> sources = sourceExtractor.collectAllSources(iterations);
+
+        try {
+            if (batchConfig.getOutputFormats().contains("md")) {
+                writeAtomically(outputDirectory.resolve(topic.fileStem() + ".md"),
+                    buildMarkdown(topic, iterations, synthesis, keyFindings, sources).getBytes(StandardCharsets.UTF_8));
+            }
+            if (batchConfig.getOutputFormats().contains("json")) {
+                writeAtomically(outputDirectory.resolve(topic.fileStem() + ".json"),
+                    objectMapper.writeValueAsBytes(buildJson(topic, iterations, synthesis, keyFindings, sources)));
+            }
+        } catch (IOException e) {
+            throw new ResearchException("Failed to write reports for '" + topic.topic() + "'", e);
+        }
+        researchService.discardCheckpoint(topic.topic());
+    }
+
+    // A topic is complete once every configured report exists; reports are only ever written whole
+    private boolean isComplete(BatchTopic topic, Path outputDirectory) {
+        for (String format : batchConfig.getOutputFormats()) {
+            if (!Files.exists(outputDirectory.resolve(topic.fileStem() + "." + format))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Writes to a temporary file and renames it into place, so an interrupted run never leaves a partial report
+    private void writeAtomically(Path target, byte[] content) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        Files.write(temp, content);
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private JsonNode buildJson(BatchTopic topic, List<ResearchIteration> iterations, String synthesis,
+                               String keyFindings, List<Source> sources) {
+        ObjectNode report = objectMapper.createObjectNode();
+        report.put("topic", topic.topic());
+        report.put("instructions", topic.instructions());
+        report.put("iterations", iterations.size());
+        report.put("synthesis", synthesis);
+        report.put("keyFindings", keyFindings);
+        ArrayNode sourceList = report.putArray("sources");
+        for (Source source : sources) {
+            sourceList.addObject().put("title", source.getTitle()).put("url", source.getUrl());
+        }
+        return report;
+    }
+
+    private String buildMarkdown(BatchTopic topic, List<ResearchIteration> iterations, String synthesis,
+                                 String keyFindings, List<Source> sources) {
+        StringBuilder markdown = new StringBuilder();
+        markdown.append("# ").append(topic.topic()).append("\n\n");
+        markdown.append("_Iterations: ").append(iterations.size()).append("_\n\n");
+        markdown.append("## Synthesis\n\n").append(synthesis.strip()).append("\n\n");
+        markdown.append("## Key Findings\n\n").append(keyFindings.strip()).append("\n\n");
+        markdown.append("## Sources\n\n");
+        for (int i = 0; i < sources.size(); i++) {
+            Source source = sources.get(i);
+            markdown.append(i + 1).append(". [").append(source.getTitle()).append("](")
+                .append(source.getUrl()).append(")\n");
+        }
+        return markdown.toString();
+    }
+
+    private BatchTopic parseTopic(String line, int lineNumber) throws ResearchException {
+        String topic = line;
+        String instructions = null;
+        if (line.startsWith("{")) {
+            try {
+                JsonNode node = objectMapper.readTree(line);
+                topic = node.path("topic").asText("").strip();
+                instructions = node.path("instructions").asText("").strip();
+            } catch (IOException e) {
+                throw new ResearchException("Invalid JSON on line " + lineNumber + " of topics file", e);
+            }
+            if (topic.isEmpty()) {
+                throw new ResearchException("Missing topic on line " + lineNumber + " of topics file");
+            }
+        }
+        if (instructions == null || instructions.isEmpty()) {
+            instructions = batchConfig.getDefaultInstructions();
+        }
+        return new BatchTopic(topic, instructions, fileStem(topic));
+    }
+
+    // Readable slug of the topic plus its hash, so distinct topics with the same slug never share a file
+    private static String fileStem(String topic) {
+        String slug = topic.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", "-").replaceAll("^-+|-+$", "");
+        if (slug.length() > 60) {
+            slug = slug.substring(0, 60).replaceAll("-+$", "");
+        }
+        String hash = String.format("%08x", topic.hashCode());
+        return slug.isEmpty() ? hash : slug + "-" + hash;
+    }
+
+    // Nearest-rank percentile of sorted latencies
+    private static long percentile(List<Long> sorted, int percentile) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.size());
+        return sorted.get(Math.max(0, rank - 1));
+    }
+}
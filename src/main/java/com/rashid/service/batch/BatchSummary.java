@@ -0,0 +1,30 @@
+package com.rashid.service.batch;
+
+import java.time.Duration;
+
+// Throughput summary of a batch run; rates and latencies cover the topics researched in this run
+public record BatchSummary(int completed, int skipped, int failed, Duration elapsed, long tokens,
+                           long p50LatencyMillis, long p95LatencyMillis) {
+
+    public double getTopicsPerMinute() {
+        return perMinute(completed);
+    }
+
+    public double getTokensPerMinute() {
+        return perMinute(tokens);
+    }
+
+    private double perMinute(double value) {
+        double minutes = elapsed.toMillis() / 60_000.0;
+        return minutes > 0 ? value / minutes : 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "%d completed, %d skipped (already done), %d failed in %.1fs | %.2f topics/min | %.0f tokens/min | " +
+            "session latency p50 %.1fs, p95 %.1fs",
+            completed, skipped, failed, elapsed.toMillis() / 1000.0, getTopicsPerMinute(), getTokensPerMinute(),
+            p50LatencyMillis / 1000.0, p95LatencyMillis / 1000.0);
+    }
+}
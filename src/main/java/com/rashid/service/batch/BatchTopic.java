@@ -0,0 +1,5 @@
+package com.rashid.service.batch;
+
+// One entry of a batch topics file: the topic, the research instructions used instead of clarification,
+// and the file name stem its reports are written under
+public record BatchTopic(String topic, String instructions, String fileStem) {}
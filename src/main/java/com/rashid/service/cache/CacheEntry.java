@@ -0,0 +1,15 @@
+package com.rashid.service.cache;
+
+// A cached response together with the time it was stored
+record CacheEntry(String content, long createdAtMillis) {
+
+    // Approximate heap footprint of the entry in bytes
+    long sizeInBytes() {
+        return (long) content.length() * Character.BYTES;
+    }
+
+    // Checks whether the entry is still fresh for the given time-to-live
+    boolean isFresh(long ttlMillis, long nowMillis) {
+        return nowMillis - createdAtMillis <= ttlMillis;
+    }
+}
@@ -0,0 +1,82 @@
+package com.rashid.service.cache;
+
+// Snapshot of response cache hit/miss and size statistics
+public class CacheStats {
+    private final long memoryHits;
+    private final long diskHits;
+    private final long misses;
+    private final long expirations;
+    private final long evictions;
+    private final int memoryEntries;
+    private final long memoryBytes;
+    private final int diskEntries;
+    private final long diskBytes;
+
+    public CacheStats(long memoryHits, long diskHits, long misses, long expirations, long evictions,
+                      int memoryEntries, long memoryBytes, int diskEntries, long diskBytes) {
+        this.memoryHits = memoryHits;
+        this.diskHits = diskHits;
+        this.misses = misses;
+        this.expirations = expirations;
+        this.evictions = evictions;
+        this.memoryEntries = memoryEntries;
+        this.memoryBytes = memoryBytes;
+        this.diskEntries = diskEntries;
+        this.diskBytes = diskBytes;
+    }
+
+    public long getMemoryHits() {
+        return memoryHits;
+    }
+
+    public long getDiskHits() {
+        return diskHits;
+    }
+
+    public long getHits() {
+        return memoryHits + diskHits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getExpirations() {
+        return expirations;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public int getMemoryEntries() {
+        return memoryEntries;
+    }
+
+    public long getMemoryBytes() {
+        return memoryBytes;
+    }
+
+    public int getDiskEntries() {
+        return diskEntries;
+    }
+
+    public long getDiskBytes() {
+        return diskBytes;
+    }
+
+    // Fraction of lookups served from either tier
+    public double getHitRate() {
+        long lookups = getHits() + misses;
+        return lookups == 0 ? 0.0 : (double) getHits() / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "hits=%d (memory=%d, disk=%d) misses=%d hitRate=%.1f%% expired=%d evicted=%d " +
+            "memory=%d entries/%.1fMB disk=%d entries/%.1fMB",
+            getHits(), memoryHits, diskHits, misses, getHitRate() * 100, expirations, evictions,
+            memoryEntries, memoryBytes / 1_048_576.0, diskEntries, diskBytes / 1_048_576.0);
+    }
+}
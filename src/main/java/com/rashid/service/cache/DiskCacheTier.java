@@ -0,0 +1,161 @@
+package com.rashid.service.cache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+// On-disk cache tier storing one JSON file per entry, bounded by total size (least recently used evicted first)
+class DiskCacheTier {
+    private static final String FILE_SUFFIX = ".json";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final Path directory;
+    private final long maxBytes;
+    private final ObjectMapper objectMapper;
+    private final LinkedHashMap<String, Long> fileSizes = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long currentBytes;
+    private long evictions;
+
+    // Creates the disk tier, indexing entries left by previous runs oldest first and deleting temporary
+    // files of writes that a previous run did not finish
+    DiskCacheTier(Path directory, long maxBytes, ObjectMapper objectMapper) throws IOException {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        this.objectMapper = objectMapper;
+
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(path -> path.getFileName().toString().endsWith(TEMP_SUFFIX))
+                .forEach(DiskCacheTier::deleteQuietly);
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> existing = files
+                .filter(path -> path.getFileName().toString().endsWith(FILE_SUFFIX))
+                .sorted(Comparator.comparing(DiskCacheTier::lastModified))
+                .toList();
+            for (Path path : existing) {
+                long size = Files.size(path);
+                fileSizes.put(keyOf(path), size);
+                currentBytes += size;
+            }
+        }
+        evictIfNeeded();
+    }
+
+    // Reads an entry from disk, returning null when absent or unreadable
+    synchronized CacheEntry get(String key) {
+        // get() rather than containsKey() so the lookup also marks the entry as recently used
+        if (fileSizes.get(key) == null) {
+            return null;
+        }
+
+        try {
+            JsonNode node = objectMapper.readTree(pathOf(key).toFile());
+            return new CacheEntry(node.path("content").asText(), node.path("createdAt").asLong());
+        } catch (IOException e) {
+            // A corrupt or concurrently deleted file is treated as a miss
+            removeFile(key);
+            return null;
+        }
+    }
+
+    // Writes an entry atomically and evicts least recently used files over the size bound
+    synchronized void put(String key, CacheEntry entry) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("createdAt", entry.createdAtMillis());
+        node.put("content", entry.content());
+
+        Path target = pathOf(key);
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(directory, key, TEMP_SUFFIX);
+            objectMapper.writeValue(temp.toFile(), node);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            Long previous = fileSizes.put(key, Files.size(target));
+            currentBytes += fileSizes.get(key) - (previous == null ? 0 : previous);
+            evictIfNeeded();
+        } catch (IOException e) {
+            // The disk tier is best effort; the response is still served from memory
+            if (temp != null) {
+                deleteQuietly(temp);
+            }
+        }
+    }
+
+    // Removes an entry, typically because it expired
+    synchronized void remove(String key) {
+        removeFile(key);
+    }
+
+    synchronized int size() {
+        return fileSizes.size();
+    }
+
+    synchronized long getCurrentBytes() {
+        return currentBytes;
+    }
+
+    synchronized long getEvictions() {
+        return evictions;
+    }
+
+    // Deletes least recently used files until the size bound holds
+    private void evictIfNeeded() {
+        // Sizes are read from the entries: get() would reorder the access-ordered map while it is iterated
+        Iterator<Map.Entry<String, Long>> eldest = fileSizes.entrySet().iterator();
+        while (currentBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<String, Long> entry = eldest.next();
+            currentBytes -= entry.getValue();
+            eldest.remove();
+            deleteQuietly(pathOf(entry.getKey()));
+            evictions++;
+        }
+    }
+
+    private void removeFile(String key) {
+        Long size = fileSizes.remove(key);
+        if (size != null) {
+            currentBytes -= size;
+        }
+        deleteQuietly(pathOf(key));
+    }
+
+    private Path pathOf(String key) {
+        return directory.resolve(key + FILE_SUFFIX);
+    }
+
+    private static String keyOf(Path path) {
+        String fileName = path.getFileName().toString();
+        return fileName.substring(0, fileName.length() - FILE_SUFFIX.length());
+    }
+
+    private static FileTime lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            // Leftover files are re-indexed and evicted on the next start
+        }
+    }
+}
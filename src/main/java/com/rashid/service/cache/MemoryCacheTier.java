@@ -0,0 +1,65 @@
+package com.rashid.service.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// In-memory LRU cache tier bounded by entry count and total size
+class MemoryCacheTier {
+    private final int maxEntries;
+    private final long maxBytes;
+    private final LinkedHashMap<String, CacheEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long currentBytes;
+    private long evictions;
+
+    MemoryCacheTier(int maxEntries, long maxBytes) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    // Returns the entry for the key and marks it as most recently used
+    synchronized CacheEntry get(String key) {
+        return entries.get(key);
+    }
+
+    // Stores an entry, evicting least recently used entries until both bounds hold
+    synchronized void put(String key, CacheEntry entry) {
+        if (entry.sizeInBytes() > maxBytes) {
+            return;
+        }
+
+        CacheEntry previous = entries.put(key, entry);
+        if (previous != null) {
+            currentBytes -= previous.sizeInBytes();
+        }
+        currentBytes += entry.sizeInBytes();
+
+        Iterator<Map.Entry<String, CacheEntry>> eldest = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || currentBytes > maxBytes) && eldest.hasNext()) {
+            currentBytes -= eldest.next().getValue().sizeInBytes();
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    // Removes an entry, typically because it expired
+    synchronized void remove(String key) {
+        CacheEntry removed = entries.remove(key);
+        if (removed != null) {
+            currentBytes -= removed.sizeInBytes();
+        }
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized long getCurrentBytes() {
+        return currentBytes;
+    }
+
+    synchronized long getEvictions() {
+        return evictions;
+    }
+}
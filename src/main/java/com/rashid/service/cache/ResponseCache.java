@@ -0,0 +1,93 @@
+package com.rashid.service.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rashid.config.CacheConfig;
+import com.rashid.exception.ConfigException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Content-addressed two-tier (memory LRU + disk) cache for AI responses
+public class ResponseCache {
+    private final MemoryCacheTier memoryTier;
+    private final DiskCacheTier diskTier;
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    // Creates the cache tiers described by the configuration
+    public ResponseCache(CacheConfig config) throws ConfigException {
+        this.memoryTier = new MemoryCacheTier(config.getMemoryMaxEntries(), config.getMemoryMaxBytes());
+        if (config.isDiskEnabled()) {
+            try {
+                this.diskTier = new DiskCacheTier(
+                    Path.of(config.getDiskDirectory()), config.getDiskMaxBytes(), new ObjectMapper());
+            } catch (IOException e) {
+                throw new ConfigException("Unable to open cache directory " + config.getDiskDirectory(), e);
+            }
+        } else {
+            this.diskTier = null;
+        }
+    }
+
+    // Returns the cached response if present and younger than the TTL, otherwise null
+    public String get(String key, Duration ttl) {
+        long now = System.currentTimeMillis();
+        long ttlMillis = ttl.toMillis();
+
+        CacheEntry entry = memoryTier.get(key);
+        if (entry != null) {
+            if (entry.isFresh(ttlMillis, now)) {
+                memoryHits.incrementAndGet();
+                return entry.content();
+            }
+            memoryTier.remove(key);
+        }
+
+        if (diskTier != null) {
+            entry = diskTier.get(key);
+            if (entry != null) {
+                if (entry.isFresh(ttlMillis, now)) {
+                    diskHits.incrementAndGet();
+                    memoryTier.put(key, entry);
+                    return entry.content();
+                }
+                diskTier.remove(key);
+            }
+        }
+
+        if (entry != null) {
+            expirations.incrementAndGet();
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    // Stores a response in every tier
+    public void put(String key, String content) {
+        CacheEntry entry = new CacheEntry(content, System.currentTimeMillis());
+        memoryTier.put(key, entry);
+        if (diskTier != null) {
+            diskTier.put(key, entry);
+        }
+    }
+
+    // Returns a snapshot of hit/miss and size statistics
+    public CacheStats getStats() {
+        return new CacheStats(
+            memoryHits.get(),
+            diskHits.get(),
+            misses.get(),
+            expirations.get(),
+            memoryTier.getEvictions() + (diskTier == null ? 0 : diskTier.getEvictions()),
+            memoryTier.size(),
+            memoryTier.getCurrentBytes(),
+            diskTier == null ? 0 : diskTier.size(),
+            diskTier == null ? 0 : diskTier.getCurrentBytes()
+        );
+    }
+}
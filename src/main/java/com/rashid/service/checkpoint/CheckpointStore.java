@@ -0,0 +1,145 @@
+package com.rashid.service.checkpoint;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rashid.config.CheckpointConfig;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Directory of per-topic iteration logs. Appends from all open logs are fsynced together once per sync
+// interval (group commit), so concurrent sessions share one sync pass instead of forcing the disk per record
+public class CheckpointStore {
+    private final Path directory;
+    private final long syncIntervalMillis;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Set<String> openKeys = ConcurrentHashMap.newKeySet();
+    private final Set<IterationLog> pendingSync = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean syncScheduled = new AtomicBoolean();
+    private final Executor syncExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public CheckpointStore(CheckpointConfig checkpointConfig) {
+        this.directory = Path.of(checkpointConfig.getDirectory());
+        this.syncIntervalMillis = checkpointConfig.getSyncIntervalMillis();
+    }
+
+    // Opens the topic's log, restoring earlier iterations if they were researched with the same instructions.
+    // Returns null if another session is using the log or it cannot be opened; research then runs unchecked
+    public IterationLog open(String topic, String instructions) {
+        String key = keyFor(topic);
+        if (!openKeys.add(key)) {
+            return null;
+        }
+        FileChannel channel = null;
+        try {
+            Files.createDirectories(directory);
+            channel = FileChannel.open(logPath(key),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            // Guards against another process resuming the same session
+            FileLock lock = channel.tryLock();
+            if (lock != null) {
+                return new IterationLog(this, key, channel, lock, objectMapper, topic, instructions);
+            }
+        } catch (IOException e) {
+            // Fall through and run without a checkpoint
+        }
+        closeQuietly(channel);
+        openKeys.remove(key);
+        return null;
+    }
+
+    // Returns the checkpoint of an earlier session on the topic that can be resumed, or null if there is none
+    public ResearchCheckpoint find(String topic) {
+        String key = keyFor(topic);
+        Path path = logPath(key);
+        if (openKeys.contains(key) || !Files.exists(path)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ResearchCheckpoint checkpoint = IterationLog.replay(IterationLog.readAll(channel), objectMapper).checkpoint();
+            return checkpoint == null || checkpoint.iterations().isEmpty() ? null : checkpoint;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    // Deletes the topic's log once its results have been delivered
+    public void discard(String topic) {
+        String key = keyFor(topic);
+        if (openKeys.contains(key)) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(logPath(key));
+        } catch (IOException e) {
+            // A stale log is harmless; it is replaced when the topic is researched with other instructions
+        }
+    }
+
+    // Queues the log for the next group sync, scheduling one if none is pending
+    void scheduleSync(IterationLog log) {
+        if (syncIntervalMillis == 0) {
+            log.sync();
+            return;
+        }
+        pendingSync.add(log);
+        if (syncScheduled.compareAndSet(false, true)) {
+            CompletableFuture.runAsync(this::syncPending,
+                CompletableFuture.delayedExecutor(syncIntervalMillis, TimeUnit.MILLISECONDS, syncExecutor));
+        }
+    }
+
+    void released(String key) {
+        openKeys.remove(key);
+    }
+
+    private void syncPending() {
+        // Re-arm first so appends racing with this pass schedule the next one
+        syncScheduled.set(false);
+        for (IterationLog log : pendingSync) {
+            pendingSync.remove(log);
+            log.sync();
+        }
+    }
+
+    private Path logPath(String key) {
+        return directory.resolve(key + ".log");
+    }
+
+    // Logs are keyed by the normalized topic so an interrupted session can be found before its instructions are known
+    private static String keyFor(String topic) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(topic.strip().toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Nothing was written through this channel
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.rashid.service.checkpoint;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.rashid.model.ResearchIteration;
+import com.rashid.model.Source;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+// Append-only log of one research session. Every line is a CRC32-checked JSON record: a session header,
+// one record per completed iteration and a final marker once the research loop has finished. A torn or
+// corrupt tail left by a crash is cut off when the log is reopened
+public class IterationLog {
+    private static final String TYPE_SESSION = "session";
+    private static final String TYPE_ITERATION = "iteration";
+    private static final String TYPE_COMPLETE = "complete";
+
+    private final CheckpointStore store;
+    private final String key;
+    private final FileChannel channel;
+    private final FileLock lock;
+    private final ObjectMapper objectMapper;
+    private final ResearchCheckpoint restored;
+    private boolean failed;
+    private boolean closed;
+
+    IterationLog(CheckpointStore store, String key, FileChannel channel, FileLock lock, ObjectMapper objectMapper,
+                 String topic, String instructions) throws IOException {
+        this.store = store;
+        this.key = key;
+        this.channel = channel;
+        this.lock = lock;
+        this.objectMapper = objectMapper;
+
+        Replay replay = replay(readAll(channel), objectMapper);
+        if (replay.checkpoint() != null && replay.checkpoint().instructions().equals(instructions)) {
+            restored = replay.checkpoint();
+            channel.truncate(replay.validLength());
+        } else {
+            // Different instructions make the earlier iterations unusable, so the session starts over
+            restored = new ResearchCheckpoint(instructions, List.of(), false);
+            channel.truncate(0);
+            ObjectNode header = objectMapper.createObjectNode();
+            header.put("type", TYPE_SESSION);
+            header.put("topic", topic);
+            header.put("instructions", instructions);
+            write(header);
+            channel.force(false);
+        }
+        channel.position(channel.size());
+    }
+
+    // Returns the iterations recovered when the log was opened; empty for a new session
+    public ResearchCheckpoint getRestored() {
+        return restored;
+    }
+
+    // Appends a completed iteration; it reaches the disk with the store's next group sync
+    public void append(ResearchIteration iteration) {
+        ObjectNode record = objectMapper.createObjectNode();
+        record.put("type", TYPE_ITERATION);
+        record.put("iterationNumber", iteration.getIterationNumber());
+        record.put("findings", iteration.getFindings());
+        addStrings(record.putArray("identifiedGaps"), iteration.getIdentifiedGaps());
+        addStrings(record.putArray("followUpQueries"), iteration.getFollowUpQueries());
+        ArrayNode sources = record.putArray("sources");
+        for (Source source : iteration.getSources()) {
+            sources.addObject().put("title", source.getTitle()).put("url", source.getUrl());
+        }
+        if (write(record)) {
+            store.scheduleSync(this);
+        }
+    }
+
+    // Records that the research loop has finished, so a resumed session goes straight to synthesis
+    public void markComplete() {
+        ObjectNode record = objectMapper.createObjectNode();
+        record.put("type", TYPE_COMPLETE);
+        write(record);
+    }
+
+    // Forces outstanding appends to disk and releases the log for other sessions
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        sync();
+        closed = true;
+        try {
+            lock.release();
+            channel.close();
+        } catch (IOException e) {
+            // The channel is unusable either way; the lock goes with the file handle
+        }
+        store.released(key);
+    }
+
+    // Forces appended records to disk; called by the store for many logs in one pass
+    synchronized void sync() {
+        if (closed || failed) {
+            return;
+        }
+        try {
+            channel.force(false);
+        } catch (IOException e) {
+            failed = true;
+        }
+    }
+
+    // Checkpointing is best effort: after a write failure the session carries on without it
+    private synchronized boolean write(JsonNode record) {
+        if (closed || failed) {
+            return false;
+        }
+        try {
+            ByteBuffer line = ByteBuffer.wrap(encode(record));
+            while (line.hasRemaining()) {
+                channel.write(line);
+            }
+            return true;
+        } catch (IOException e) {
+            failed = true;
+            return false;
+        }
+    }
+
+    private byte[] encode(JsonNode record) throws IOException {
+        byte[] json = objectMapper.writeValueAsBytes(record);
+        CRC32 crc = new CRC32();
+        crc.update(json);
+        byte[] prefix = String.format("%08x ", crc.getValue()).getBytes(StandardCharsets.US_ASCII);
+        byte[] line = new byte[prefix.length + json.length + 1];
+        System.arraycopy(prefix, 0, line, 0, prefix.length);
+        System.arraycopy(json, 0, line, prefix.length, json.length);
+        line[line.length - 1] = '\n';
+        return line;
+    }
+
+    private static void addStrings(ArrayNode array, List<String> values) {
+        values.forEach(array::add);
+    }
+
+    static byte[] readAll(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+        channel.position(0);
+        while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+            // Keep reading until the whole file is buffered
+        }
+        return buffer.array();
+    }
+
+    // Replays records up to the first torn or corrupt line; the checkpoint is null if there is no valid header
+    static Replay replay(byte[] data, ObjectMapper objectMapper) {
+        String instructions = null;
+        List<ResearchIteration> iterations = new ArrayList<>();
+        boolean complete = false;
+        int validLength = 0;
+
+        int start = 0;
+        for (int end = indexOf(data, start); end >= 0; end = indexOf(data, start)) {
+            JsonNode record = decode(data, start, end, objectMapper);
+            if (record == null) {
+                break;
+            }
+            String type = record.path("type").asText();
+            if (instructions == null && !TYPE_SESSION.equals(type)) {
+                break;
+            }
+            switch (type) {
+                case TYPE_SESSION -> instructions = record.path("instructions").asText();
+                case TYPE_ITERATION -> iterations.add(toIteration(record));
+                case TYPE_COMPLETE -> complete = true;
+                default -> { }
+            }
+            start = end + 1;
+            validLength = start;
+        }
+
+        ResearchCheckpoint checkpoint = instructions == null ? null
+            : new ResearchCheckpoint(instructions, List.copyOf(iterations), complete);
+        return new Replay(checkpoint, validLength);
+    }
+
+    private static JsonNode decode(byte[] data, int start, int end, ObjectMapper objectMapper) {
+        if (end - start < 10 || data[start + 8] != ' ') {
+            return null;
+        }
+        try {
+            long expected = Long.parseLong(new String(data, start, 8, StandardCharsets.US_ASCII), 16);
+            CRC32 crc = new CRC32();
+            crc.update(data, start + 9, end - start - 9);
+            if (crc.getValue() != expected) {
+                return null;
+            }
+            return objectMapper.readTree(data, start + 9, end - start - 9);
+        } catch (NumberFormatException | IOException e) {
+            return null;
+        }
+    }
+
+    private static ResearchIteration toIteration(JsonNode record) {
+        List<Source> sources = new ArrayList<>();
+        for (JsonNode source : record.path("sources")) {
+            sources.add(new Source(source.path("title").asText(), source.path("url").asText()));
+        }
+        return new ResearchIteration(
+            record.path("iterationNumber").asInt(),
+            record.path("findings").asText(),
+            toStrings(record.path("identifiedGaps")),
+            toStrings(record.path("followUpQueries")),
+            sources);
+    }
+
+    private static List<String> toStrings(JsonNode array) {
+        List<String> values = new ArrayList<>();
+        array.forEach(value -> values.add(value.asText()));
+        return values;
+    }
+
+    private static int indexOf(byte[] data, int from) {
+        for (int i = from; i < data.length; i++) {
+            if (data[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    record Replay(ResearchCheckpoint checkpoint, int validLength) {}
+}
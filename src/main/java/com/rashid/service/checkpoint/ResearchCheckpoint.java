@@ -0,0 +1,9 @@
+package com.rashid.service.checkpoint;
+
+import com.rashid.model.ResearchIteration;
+
+import java.util.List;
+
+// State recovered from an iteration log: the session's instructions, the iterations that completed,
+// and whether the research loop itself had finished (only synthesis was outstanding)
+public record ResearchCheckpoint(String instructions, List<ResearchIteration> iterations, boolean complete) {}
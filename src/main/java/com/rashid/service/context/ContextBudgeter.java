@@ -0,0 +1,92 @@
+package com.rashid.service.context;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Shared context-window budget for AI calls. Each call's window is split between the completion
+// (openai.max.tokens), the fixed prompt text (system prompt and template) and the variable parts
+// such as instructions and findings, which are cut only when they do not fit together
+public class ContextBudgeter {
+    private static final String TRUNCATION_MARKER = "[Context truncated]";
+    // Headroom for the estimator's error and the chat message framing
+    private static final double SAFETY_MARGIN = 0.05;
+
+    private final TokenCounter tokenCounter;
+    private final int contextWindowTokens;
+    private final int maxOutputTokens;
+
+    public ContextBudgeter(TokenCounter tokenCounter, int contextWindowTokens, int maxOutputTokens) {
+        this.tokenCounter = tokenCounter;
+        this.contextWindowTokens = contextWindowTokens;
+        this.maxOutputTokens = maxOutputTokens;
+    }
+
+    // Estimates the number of tokens in the text
+    public int count(String text) {
+        return tokenCounter.count(text);
+    }
+
+    // Tokens left for the prompt once the completion and the safety margin are reserved
+    public int promptBudget() {
+        return Math.max(0, contextWindowTokens - maxOutputTokens - (int) (contextWindowTokens * SAFETY_MARGIN));
+    }
+
+    // Fits the variable parts into what the fixed prompt text leaves of the budget and returns them in order.
+    // Parts below their weighted share are kept whole and their unused share goes to the larger parts
+    public List<String> fitAll(String fixedText, ContextPart... parts) {
+        int available = Math.max(0, promptBudget() - count(fixedText));
+        int[] sizes = new int[parts.length];
+        int[] allocations = new int[parts.length];
+        boolean[] settled = new boolean[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            sizes[i] = count(parts[i].text());
+        }
+
+        // Water-filling: settle every part that fits its share, then re-share the remainder among the rest
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            int openWeight = 0;
+            for (int i = 0; i < parts.length; i++) {
+                if (!settled[i]) {
+                    openWeight += Math.max(1, parts[i].weight());
+                }
+            }
+            if (openWeight == 0) {
+                break;
+            }
+            for (int i = 0; i < parts.length; i++) {
+                if (!settled[i]) {
+                    int share = (int) ((long) available * Math.max(1, parts[i].weight()) / openWeight);
+                    if (sizes[i] <= share) {
+                        allocations[i] = sizes[i];
+                        available -= sizes[i];
+                        settled[i] = true;
+                        changed = true;
+                    } else {
+                        allocations[i] = share;
+                    }
+                }
+            }
+        }
+
+        List<String> fitted = new ArrayList<>(parts.length);
+        for (int i = 0; i < parts.length; i++) {
+            fitted.add(settled[i] ? parts[i].text() : cut(parts[i], allocations[i]));
+        }
+        return fitted;
+    }
+
+    // Fits a single variable part into what the fixed prompt text leaves of the budget
+    public String fit(String fixedText, ContextPart part) {
+        return fitAll(fixedText, part).get(0);
+    }
+
+    private String cut(ContextPart part, int maxTokens) {
+        int contentTokens = Math.max(0, maxTokens - count(TRUNCATION_MARKER) - 1);
+        if (part.keepTail()) {
+            return TRUNCATION_MARKER + "\n" + tokenCounter.tail(part.text(), contentTokens);
+        }
+        return tokenCounter.head(part.text(), contentTokens) + "\n" + TRUNCATION_MARKER;
+    }
+}
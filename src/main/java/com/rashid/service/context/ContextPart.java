@@ -0,0 +1,16 @@
+package com.rashid.service.context;
+
+// A variable-length section of a prompt competing for the context budget; weight sets its relative share
+// and keepTail whether the end (most recent content) or the beginning survives when it is cut
+public record ContextPart(String text, int weight, boolean keepTail) {
+
+    // Part whose beginning is kept when it has to be cut, e.g. user instructions
+    public static ContextPart head(String text, int weight) {
+        return new ContextPart(text, weight, false);
+    }
+
+    // Part whose end is kept when it has to be cut, e.g. findings or conversation history
+    public static ContextPart tail(String text, int weight) {
+        return new ContextPart(text, weight, true);
+    }
+}
@@ -0,0 +1,90 @@
+package com.rashid.service.context;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Fast local token estimator compatible with OpenAI's BPE encodings. Text is split with the same
+// pre-tokenization pattern the cl100k/o200k encoders use, and each piece is costed by its character class.
+// Merges inside a piece are approximated on the high side, so estimates err towards more tokens
+public class TokenCounter {
+    private static final Pattern PRE_TOKENIZER = Pattern.compile(
+        "(?i:'s|'t|'re|'ve|'m|'ll|'d)|[^\\r\\n\\p{L}\\p{N}]?\\p{L}+|\\p{N}{1,3}| ?[^\\s\\p{L}\\p{N}]+[\\r\\n]*" +
+        "|\\s*[\\r\\n]+|\\s+(?!\\S)|\\s+");
+    private static final int LATIN_CHARS_PER_TOKEN = 6;
+    private static final int SYMBOL_CHARS_PER_TOKEN = 2;
+
+    // Estimates the number of tokens in the text
+    public int count(String text) {
+        int tokens = 0;
+        Matcher matcher = PRE_TOKENIZER.matcher(text);
+        while (matcher.find()) {
+            tokens += countPiece(text, matcher.start(), matcher.end());
+        }
+        return tokens;
+    }
+
+    // Returns the longest prefix of the text that fits the token limit, cut at a piece boundary
+    public String head(String text, int maxTokens) {
+        int tokens = 0;
+        Matcher matcher = PRE_TOKENIZER.matcher(text);
+        while (matcher.find()) {
+            tokens += countPiece(text, matcher.start(), matcher.end());
+            if (tokens > maxTokens) {
+                return text.substring(0, matcher.start());
+            }
+        }
+        return text;
+    }
+
+    // Returns the longest suffix of the text that fits the token limit, cut at a piece boundary
+    public String tail(String text, int maxTokens) {
+        int total = count(text);
+        if (total <= maxTokens) {
+            return text;
+        }
+        int tokensToDrop = total - maxTokens;
+        int dropped = 0;
+        Matcher matcher = PRE_TOKENIZER.matcher(text);
+        while (matcher.find()) {
+            dropped += countPiece(text, matcher.start(), matcher.end());
+            if (dropped >= tokensToDrop) {
+                return text.substring(matcher.end());
+            }
+        }
+        return "";
+    }
+
+    // Costs one pre-tokenized piece: digit groups are a single token, Latin words merge well,
+    // other scripts cost about a token per character and symbol runs merge poorly
+    private int countPiece(String text, int start, int end) {
+        int latin = 0;
+        int nonLatin = 0;
+        int symbols = 0;
+        boolean digits = false;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80 && Character.isLetter(c)) {
+                latin++;
+            } else if (Character.isLetter(c)) {
+                nonLatin++;
+            } else if (Character.isDigit(c)) {
+                digits = true;
+            } else if (!Character.isWhitespace(c) || symbols == 0) {
+                symbols++;
+            }
+        }
+        if (digits && latin == 0 && nonLatin == 0) {
+            return 1;
+        }
+        int tokens = ceilDiv(latin, LATIN_CHARS_PER_TOKEN) + nonLatin;
+        if (tokens > 0 && symbols <= 1) {
+            // A single leading space or punctuation character merges into the word
+            return tokens;
+        }
+        return Math.max(1, tokens + ceilDiv(symbols, SYMBOL_CHARS_PER_TOKEN));
+    }
+
+    private static int ceilDiv(int value, int divisor) {
+        return (value + divisor - 1) / divisor;
+    }
+}
@@ -2,33 +2,32 @@ package com.rashid.service.conversation;
 
 import com.rashid.constants.PromptConstants;
 import com.rashid.exception.ResearchException;
+import com.rashid.model.CallSite;
 import com.rashid.service.api.AIClient;
+import com.rashid.service.api.UserChannel;
 import com.rashid.service.api.UserClarificationService;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Scanner;
 
 // Service for handling clarification conversation with users
 public class ClarificationService implements UserClarificationService {
     private static final int MAX_QUESTIONS = 3;
 
     private final AIClient aiClient;
-    private final Scanner scanner;
 
-    // Constructs clarification service with AI client and scanner
-    public ClarificationService(AIClient aiClient, Scanner scanner) {
+    // Constructs clarification service with AI client; it is shared by all sessions
+    public ClarificationService(AIClient aiClient) {
         this.aiClient = aiClient;
-        this.scanner = scanner;
     }
 
     // AI-driven conversation to clarify what user wants
     @Override
-    public String clarifyThroughConversation(String topic) throws ResearchException {
+    public String clarifyThroughConversation(String topic, UserChannel channel) throws ResearchException {
         List<String> conversationHistory = new ArrayList<>();
         conversationHistory.add("User wants to research: " + topic);
 
-        System.out.println("Let me ask you a few questions to understand what you're looking for...\n");
+        channel.sendLine("Let me ask you a few questions to understand what you're looking for...\n");
 
         // Interactive clarification loop - AI asks questions until ready
         for (int questionCount = 0; questionCount < MAX_QUESTIONS; questionCount++) {
@@ -37,11 +36,11 @@ public class ClarificationService implements UserClarificationService {
             // Check if AI has gathered sufficient information
             if (isReadyToResearch(aiQuestion)) {
                 String instructions = extractInstructions(aiQuestion);
-                System.out.println("Got it! I have enough information to start researching.\n");
+                channel.sendLine("Got it! I have enough information to start researching.\n");
                 return instructions;
             }
 
-            String userResponse = askQuestionAndGetResponse(aiQuestion);
+            String userResponse = askQuestionAndGetResponse(aiQuestion, channel);
             if (userResponse != null) {
                 recordConversationExchange(conversationHistory, aiQuestion, userResponse);
             }
@@ -80,7 +79,7 @@ public class ClarificationService implements UserClarificationService {
             questionNum + 1
         );
 
-        return aiClient.chatWithSearch(systemPrompt, userPrompt);
+        return aiClient.chatWithSearch(CallSite.CLARIFICATION, systemPrompt, userPrompt);
     }
 
     // Generates research instructions from conversation history
@@ -96,7 +95,7 @@ public class ClarificationService implements UserClarificationService {
         String userPrompt = "Conversation:\n" + conversationContext.toString() + "\n\n" +
             "Summarize the research requirements briefly:";
 
-        return aiClient.chatWithSearch(systemPrompt, userPrompt);
+        return aiClient.chatWithSearch(CallSite.CLARIFICATION, systemPrompt, userPrompt);
     }
 
     // Checks if AI is ready to start research
@@ -110,13 +109,17 @@ public class ClarificationService implements UserClarificationService {
     }
 
     // Asks question and gets user response, returns null if empty
-    private String askQuestionAndGetResponse(String question) {
-        System.out.println("Agent: " + question);
-        System.out.print("You: ");
-        String response = scanner.nextLine().trim();
+    private String askQuestionAndGetResponse(String question, UserChannel channel) throws ResearchException {
+        channel.sendLine("Agent: " + question);
+        channel.send("You: ");
+        String response = channel.readLine();
+        if (response == null) {
+            throw new ResearchException("Session ended during clarification");
+        }
+        response = response.trim();
 
         if (response.isEmpty()) {
-            System.out.println("(Please provide an answer)");
+            channel.sendLine("(Please provide an answer)");
             return null;
         }
         return response;
@@ -0,0 +1,39 @@
+package com.rashid.service.conversation;
+
+import com.rashid.service.api.UserChannel;
+
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+
+// User channel for the interactive console: reads from the scanner and writes to standard output
+public class ConsoleChannel implements UserChannel {
+    private final Scanner scanner;
+    private int statusLength;
+
+    public ConsoleChannel(Scanner scanner) {
+        this.scanner = scanner;
+    }
+
+    @Override
+    public synchronized void send(String text) {
+        System.out.print(text);
+        System.out.flush();
+    }
+
+    // Overwrites the current console line so the status updates in place
+    @Override
+    public synchronized void status(String text) {
+        System.out.print("\r" + " ".repeat(statusLength) + "\r" + text);
+        System.out.flush();
+        statusLength = text.length();
+    }
+
+    @Override
+    public String readLine() {
+        try {
+            return scanner.nextLine();
+        } catch (NoSuchElementException e) {
+            return null;
+        }
+    }
+}
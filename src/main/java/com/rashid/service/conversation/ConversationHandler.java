@@ -1,81 +1,99 @@
 package com.rashid.service.conversation;
 
+import com.rashid.config.ConversationConfig;
 import com.rashid.constants.PromptConstants;
 import com.rashid.exception.ResearchException;
+import com.rashid.model.CallSite;
 import com.rashid.model.ResearchIteration;
+import com.rashid.model.StreamedResponse;
 import com.rashid.service.api.AIClient;
 import com.rashid.service.api.ConversationService;
+import com.rashid.service.api.UserChannel;
+import com.rashid.service.context.ContextBudgeter;
+import com.rashid.service.context.ContextPart;
+import com.rashid.service.retrieval.Bm25Index;
+import com.rashid.service.retrieval.RetrievedChunk;
+import com.rashid.util.Futures;
 
 import java.util.List;
-import java.util.Scanner;
 
 // Service for handling follow-up conversations after research
 public class ConversationHandler implements ConversationService {
-    private static final int CONTEXT_TRUNCATION_LENGTH = 1500;
-
     private final AIClient aiClient;
-    private final Scanner scanner;
+    private final ContextBudgeter contextBudgeter;
+    private final ConversationConfig conversationConfig;
 
-    // Constructs conversation handler with AI client and scanner
-    public ConversationHandler(AIClient aiClient, Scanner scanner) {
+    // Constructs conversation handler with AI client, context budget and retrieval settings; it is shared by all sessions
+    public ConversationHandler(AIClient aiClient, ContextBudgeter contextBudgeter,
+                               ConversationConfig conversationConfig) {
         this.aiClient = aiClient;
-        this.scanner = scanner;
+        this.contextBudgeter = contextBudgeter;
+        this.conversationConfig = conversationConfig;
     }
 
     // Handles unlimited follow-up conversation after initial research
     @Override
-    public void continuousConversation(String topic, String previousFindings, List<ResearchIteration> iterations) throws ResearchException {
-        StringBuilder fullContext = new StringBuilder(previousFindings);
+    public void continuousConversation(String topic, String previousFindings, List<ResearchIteration> iterations,
+            Bm25Index findingsIndex, UserChannel channel) throws ResearchException {
+        findingsIndex.add("Research synthesis", previousFindings);
+        int turn = 0;
 
         while (true) {
-            displayFollowUpPrompt();
-            String userInput = scanner.nextLine().trim();
+            displayFollowUpPrompt(channel);
+            String userInput = channel.readLine();
+            if (userInput == null) {
+                break;
+            }
+            userInput = userInput.trim();
 
             if (userInput.isEmpty()) {
                 continue;
             }
 
             if (isExitCommand(userInput)) {
-                System.out.println("Research session complete!");
+                channel.sendLine("Research session complete!");
                 break;
             }
 
-            String aiResponse = answerFollowUp(topic, userInput, fullContext.toString());
-            displayFollowUpResponse(aiResponse);
-            updateConversationContext(fullContext, userInput, aiResponse);
+            channel.send("\nAgent: ");
+            StreamedResponse aiResponse = answerFollowUp(topic, userInput, retrieveContext(findingsIndex, userInput),
+                channel);
+            displayFollowUpResponse(aiResponse, channel);
+            updateConversationContext(findingsIndex, ++turn, userInput, aiResponse.getContent());
         }
     }
 
-    // Generates AI response to a follow-up question with fresh web research
-    private String answerFollowUp(String topic, String question, String context) throws ResearchException {
+    // Generates AI response to a follow-up question with fresh web research, rendering it as it arrives
+    private StreamedResponse answerFollowUp(String topic, String question, String context, UserChannel channel)
+            throws ResearchException {
         String systemPrompt = "You are an expert research assistant with access to real-time web search. " +
             "The user has been researching " + topic + ". " +
             "IMPORTANT: You MUST search the web for current information to answer their question. " +
             "Do NOT just use the previous research context - always search for NEW, updated information. " +
             "Provide comprehensive answers with citations and URLs.";
 
-        String userPrompt = String.format(
-            "Previous research context:\n%s\n\n" +
+        String template =
+            "Relevant research context (retrieved from earlier findings and answers):\n%s\n\n" +
             "User's NEW question: %s\n\n" +
             "TASK: Search the web RIGHT NOW for current information to answer this question. " +
             "Provide a comprehensive answer with:\n" +
             "- Latest data and findings from web search\n" +
             "- Specific sources with URLs\n" +
             "- How this relates to the previous research if relevant\n\n" +
-            "Do NOT just summarize the previous research - SEARCH for new information!",
-            truncate(context, CONTEXT_TRUNCATION_LENGTH),
-            question
-        );
+            "Do NOT just summarize the previous research - SEARCH for new information!";
+        String fittedContext = contextBudgeter.fit(systemPrompt + template + question, ContextPart.head(context, 1));
+
+        String userPrompt = String.format(template, fittedContext, question);
 
-        return aiClient.chatWithSearch(systemPrompt, userPrompt);
+        return Futures.await(aiClient.streamChatWithSearchAsync(CallSite.FOLLOW_UP, systemPrompt, userPrompt, channel::send));
     }
 
     // Displays follow-up question prompt
-    private void displayFollowUpPrompt() {
-        System.out.println("\n" + "─".repeat(80));
-        System.out.println("Ask me anything else, or type 'done' when finished");
-        System.out.println("─".repeat(80));
-        System.out.print("\nYou: ");
+    private void displayFollowUpPrompt(UserChannel channel) {
+        channel.sendLine("\n" + "─".repeat(80));
+        channel.sendLine("Ask me anything else, or type 'done' when finished");
+        channel.sendLine("─".repeat(80));
+        channel.send("\nYou: ");
     }
 
     // Checks if user wants to exit conversation
@@ -85,23 +103,33 @@ public class ConversationHandler implements ConversationService {
                input.equalsIgnoreCase(PromptConstants.EXIT_QUIT);
     }
 
-    // Displays follow-up response
-    private void displayFollowUpResponse(String response) {
-        System.out.println("\nAgent: " + response);
-        System.out.println("─".repeat(80));
+    // Completes the streamed follow-up response with its latency timings
+    private void displayFollowUpResponse(StreamedResponse response, UserChannel channel) {
+        channel.sendLine("");
+        channel.sendLine(String.format("(first token: %.1fs | complete: %.1fs)",
+            response.getTimeToFirstTokenMillis() / 1000.0, response.getTimeToLastTokenMillis() / 1000.0));
+        channel.sendLine("─".repeat(80));
     }
 
-    // Updates conversation context with new exchange
-    private void updateConversationContext(StringBuilder context, String question, String answer) {
-        context.append("\n\nUser asked: ").append(question);
-        context.append("\nAgent answered: ").append(answer);
+    // Retrieves the chunks of findings and earlier answers most relevant to the question, best first,
+    // until the retrieval token budget is used
+    private String retrieveContext(Bm25Index findingsIndex, String question) {
+        StringBuilder context = new StringBuilder();
+        int remainingTokens = conversationConfig.getRetrievalMaxTokens();
+        for (RetrievedChunk chunk : findingsIndex.search(question, conversationConfig.getRetrievalTopK())) {
+            String section = "[" + chunk.label() + "]\n" + chunk.text() + "\n\n";
+            int tokens = contextBudgeter.count(section);
+            if (tokens > remainingTokens) {
+                continue;
+            }
+            context.append(section);
+            remainingTokens -= tokens;
+        }
+        return context.toString().trim();
     }
 
-    // Truncates text to avoid exceeding token limits
-    private String truncate(String text, int maxLength) {
-        if (text.length() <= maxLength) {
-            return text;
-        }
-        return text.substring(text.length() - maxLength) + "\n[Earlier context truncated]";
+    // Indexes the new exchange so later questions can refer back to it
+    private void updateConversationContext(Bm25Index findingsIndex, int turn, String question, String answer) {
+        findingsIndex.add("Follow-up " + turn, "User asked: " + question + "\nAgent answered: " + answer);
     }
 }
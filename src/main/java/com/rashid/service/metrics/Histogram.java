@@ -0,0 +1,57 @@
+package com.rashid.service.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Fixed-bucket histogram for concurrent recording: one striped counter per bucket, so recording never
+// contends on a lock or allocates
+public class Histogram {
+    private final long[] upperBounds;
+    private final LongAdder[] buckets;
+    private final LongAdder sum = new LongAdder();
+
+    // Constructs a histogram with ascending inclusive bucket bounds; larger values land in an overflow bucket
+    public Histogram(long... upperBounds) {
+        this.upperBounds = upperBounds.clone();
+        this.buckets = new LongAdder[upperBounds.length + 1];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long value) {
+        int bucket = 0;
+        while (bucket < upperBounds.length && value > upperBounds[bucket]) {
+            bucket++;
+        }
+        buckets[bucket].increment();
+        sum.add(value);
+    }
+
+    // Upper bounds of the buckets, excluding the overflow bucket
+    public long[] getUpperBounds() {
+        return upperBounds.clone();
+    }
+
+    // Cumulative counts per bucket as exposed by Prometheus; the last entry is the total count
+    public long[] getCumulativeCounts() {
+        long[] counts = new long[buckets.length];
+        long running = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            running += buckets[i].sum();
+            counts[i] = running;
+        }
+        return counts;
+    }
+
+    public long getCount() {
+        long count = 0;
+        for (LongAdder bucket : buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    public long getSum() {
+        return sum.sum();
+    }
+}
@@ -0,0 +1,45 @@
+package com.rashid.service.metrics;
+
+import com.rashid.model.CallSite;
+import com.rashid.model.ResponseSchema;
+import com.rashid.model.StreamedResponse;
+import com.rashid.service.api.AIClient;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+// AIClient decorator that records the latency and outcome of every call by call site. The delegate's
+// future is returned unchanged, so cancellation still reaches the underlying request
+public class InstrumentedAIClient implements AIClient {
+    private final AIClient delegate;
+    private final ResearchMetrics metrics;
+
+    public InstrumentedAIClient(AIClient delegate, ResearchMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public CompletableFuture<String> chatWithSearchAsync(CallSite callSite, String systemPrompt, String userPrompt) {
+        return timed(callSite, System.nanoTime(), delegate.chatWithSearchAsync(callSite, systemPrompt, userPrompt));
+    }
+
+    @Override
+    public CompletableFuture<String> chatStructuredAsync(CallSite callSite, String systemPrompt, String userPrompt,
+            ResponseSchema schema) {
+        return timed(callSite, System.nanoTime(),
+            delegate.chatStructuredAsync(callSite, systemPrompt, userPrompt, schema));
+    }
+
+    @Override
+    public CompletableFuture<StreamedResponse> streamChatWithSearchAsync(CallSite callSite, String systemPrompt,
+            String userPrompt, Consumer<String> onToken) {
+        return timed(callSite, System.nanoTime(),
+            delegate.streamChatWithSearchAsync(callSite, systemPrompt, userPrompt, onToken));
+    }
+
+    private <T> CompletableFuture<T> timed(CallSite callSite, long startNanos, CompletableFuture<T> call) {
+        call.whenComplete((result, error) -> metrics.recordCall(callSite, System.nanoTime() - startNanos, error != null));
+        return call;
+    }
+}
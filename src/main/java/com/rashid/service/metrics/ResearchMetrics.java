@@ -0,0 +1,249 @@
+package com.rashid.service.metrics;
+
+import com.rashid.model.CallSite;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Process-wide instrumentation: AI call latency per call site, token usage per model, HTTP status counts,
+// failed research queries and per-session iteration counts and durations. Recording only touches striped counters; the text
+// exposition and JMX attributes are computed when they are read
+public class ResearchMetrics implements ResearchMetricsMXBean {
+    public static final String OBJECT_NAME = "com.rashid:type=ResearchMetrics";
+
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private static final long[] LATENCY_BOUNDS_NANOS = nanos(
+        0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 20, 40, 80, 160);
+    private static final long[] SESSION_BOUNDS_NANOS = nanos(30, 60, 90, 120, 180, 240, 300, 600, 1200);
+    private static final long[] ITERATION_BOUNDS = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10};
+
+    private final Map<CallSite, Histogram> callLatency = new EnumMap<>(CallSite.class);
+    private final Map<CallSite, LongAdder> callFailures = new EnumMap<>(CallSite.class);
+    private final ConcurrentMap<String, TokenUsage> tokensByModel = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, LongAdder> httpStatuses = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongAdder> httpProtocols = new ConcurrentHashMap<>();
+    private final LongAdder failedQueries = new LongAdder();
+    private final Histogram sessionIterations = new Histogram(ITERATION_BOUNDS);
+    private final Histogram sessionDuration = new Histogram(SESSION_BOUNDS_NANOS);
+
+    public ResearchMetrics() {
+        // Every call site is registered up front so recording never mutates the maps
+        for (CallSite callSite : CallSite.values()) {
+            callLatency.put(callSite, new Histogram(LATENCY_BOUNDS_NANOS));
+            callFailures.put(callSite, new LongAdder());
+        }
+    }
+
+    // Records one AI call as seen by the pipeline, including time spent in cache, coalescing and retries
+    public void recordCall(CallSite callSite, long durationNanos, boolean failed) {
+        callLatency.get(callSite).record(durationNanos);
+        if (failed) {
+            callFailures.get(callSite).increment();
+        }
+    }
+
+    // Records the token usage reported by the API for one response
+    public void recordTokens(String model, long promptTokens, long completionTokens, long cachedPromptTokens) {
+        TokenUsage usage = tokensByModel.computeIfAbsent(model, ignored -> new TokenUsage());
+        usage.prompt.add(promptTokens);
+        usage.completion.add(completionTokens);
+        usage.cachedPrompt.add(cachedPromptTokens);
+    }
+
+    // Records the status of one HTTP response, including responses that were retried
+    public void recordHttpStatus(int status) {
+        httpStatuses.computeIfAbsent(status, ignored -> new LongAdder()).increment();
+    }
+
+    // Records the protocol version (HTTP/2 or HTTP/1.1) one HTTP response arrived over
+    public void recordHttpProtocol(String protocol) {
+        httpProtocols.computeIfAbsent(protocol, ignored -> new LongAdder()).increment();
+    }
+
+    // Records research queries whose search failed while other queries of the same iteration succeeded
+    public void recordFailedQueries(int count) {
+        failedQueries.add(count);
+    }
+
+    // Records a finished research loop
+    public void recordSession(int iterations, long durationNanos) {
+        sessionIterations.record(iterations);
+        sessionDuration.record(durationNanos);
+    }
+
+    // Renders all metrics in the Prometheus text exposition format
+    public String renderPrometheus() {
+        StringBuilder text = new StringBuilder();
+
+        text.append("# HELP research_ai_call_duration_seconds Latency of AI calls by pipeline call site\n");
+        text.append("# TYPE research_ai_call_duration_seconds histogram\n");
+        callLatency.forEach((callSite, histogram) -> appendHistogram(text, "research_ai_call_duration_seconds",
+            "call_site=\"" + callSite.getKey() + "\",", histogram, NANOS_PER_SECOND));
+
+        text.append("# HELP research_ai_call_failures_total Failed or cancelled AI calls by pipeline call site\n");
+        text.append("# TYPE research_ai_call_failures_total counter\n");
+        callFailures.forEach((callSite, failures) -> text.append("research_ai_call_failures_total{call_site=\"")
+            .append(callSite.getKey()).append("\"} ").append(failures.sum()).append('\n'));
+
+        text.append("# HELP research_tokens_total Tokens reported by the API by model and kind\n");
+        text.append("# TYPE research_tokens_total counter\n");
+        new TreeMap<>(tokensByModel).forEach((model, usage) -> {
+            appendTokens(text, model, "prompt", usage.prompt);
+            appendTokens(text, model, "completion", usage.completion);
+            appendTokens(text, model, "cached_prompt", usage.cachedPrompt);
+        });
+
+        text.append("# HELP research_http_responses_total HTTP responses from the AI API by status\n");
+        text.append("# TYPE research_http_responses_total counter\n");
+        new TreeMap<>(httpStatuses).forEach((status, count) -> text.append("research_http_responses_total{status=\"")
+            .append(status).append("\"} ").append(count.sum()).append('\n'));
+
+        text.append("# HELP research_http_protocol_responses_total HTTP responses from the AI API by protocol version\n");
+        text.append("# TYPE research_http_protocol_responses_total counter\n");
+        new TreeMap<>(httpProtocols).forEach((protocol, count) -> text
+            .append("research_http_protocol_responses_total{protocol=\"").append(protocol).append("\"} ")
+            .append(count.sum()).append('\n'));
+
+        text.append("# HELP research_query_failures_total Research queries dropped from a partially failed iteration\n");
+        text.append("# TYPE research_query_failures_total counter\n");
+        text.append("research_query_failures_total ").append(failedQueries.sum()).append('\n');
+
+        text.append("# HELP research_session_iterations Iterations per research session\n");
+        text.append("# TYPE research_session_iterations histogram\n");
+        appendHistogram(text, "research_session_iterations", "", sessionIterations, 1);
+
+        text.append("# HELP research_session_duration_seconds Duration of the research loop per session\n");
+        text.append("# TYPE research_session_duration_seconds histogram\n");
+        appendHistogram(text, "research_session_duration_seconds", "", sessionDuration, NANOS_PER_SECOND);
+        return text.toString();
+    }
+
+    @Override
+    public Map<String, Long> getCallCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        callLatency.forEach((callSite, histogram) -> counts.put(callSite.getKey(), histogram.getCount()));
+        return counts;
+    }
+
+    @Override
+    public Map<String, Long> getCallFailures() {
+        Map<String, Long> failures = new TreeMap<>();
+        callFailures.forEach((callSite, count) -> failures.put(callSite.getKey(), count.sum()));
+        return failures;
+    }
+
+    @Override
+    public Map<String, Double> getCallMeanMillis() {
+        Map<String, Double> means = new TreeMap<>();
+        callLatency.forEach((callSite, histogram) -> means.put(callSite.getKey(), mean(histogram) / 1_000_000.0));
+        return means;
+    }
+
+    @Override
+    public Map<String, Long> getPromptTokens() {
+        Map<String, Long> tokens = new TreeMap<>();
+        tokensByModel.forEach((model, usage) -> tokens.put(model, usage.prompt.sum()));
+        return tokens;
+    }
+
+    @Override
+    public Map<String, Long> getCompletionTokens() {
+        Map<String, Long> tokens = new TreeMap<>();
+        tokensByModel.forEach((model, usage) -> tokens.put(model, usage.completion.sum()));
+        return tokens;
+    }
+
+    @Override
+    public Map<String, Long> getCachedPromptTokens() {
+        Map<String, Long> tokens = new TreeMap<>();
+        tokensByModel.forEach((model, usage) -> tokens.put(model, usage.cachedPrompt.sum()));
+        return tokens;
+    }
+
+    @Override
+    public Map<String, Long> getHttpStatusCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        httpStatuses.forEach((status, count) -> counts.put(String.valueOf(status), count.sum()));
+        return counts;
+    }
+
+    @Override
+    public Map<String, Long> getHttpProtocolCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        httpProtocols.forEach((protocol, count) -> counts.put(protocol, count.sum()));
+        return counts;
+    }
+
+    @Override
+    public long getFailedQueries() {
+        return failedQueries.sum();
+    }
+
+    @Override
+    public long getSessions() {
+        return sessionIterations.getCount();
+    }
+
+    @Override
+    public double getMeanIterationsPerSession() {
+        return mean(sessionIterations);
+    }
+
+    @Override
+    public double getMeanSessionSeconds() {
+        return mean(sessionDuration) / NANOS_PER_SECOND;
+    }
+
+    private void appendHistogram(StringBuilder text, String name, String labels, Histogram histogram, double scale) {
+        long[] bounds = histogram.getUpperBounds();
+        long[] cumulative = histogram.getCumulativeCounts();
+        for (int i = 0; i < cumulative.length; i++) {
+            String bound = i < bounds.length ? formatNumber(bounds[i] / scale) : "+Inf";
+            text.append(name).append("_bucket{").append(labels).append("le=\"").append(bound).append("\"} ")
+                .append(cumulative[i]).append('\n');
+        }
+        String sumLabels = labels.isEmpty() ? "" : "{" + labels.substring(0, labels.length() - 1) + "}";
+        text.append(name).append("_sum").append(sumLabels).append(' ')
+            .append(formatNumber(histogram.getSum() / scale)).append('\n');
+        text.append(name).append("_count").append(sumLabels).append(' ')
+            .append(cumulative[cumulative.length - 1]).append('\n');
+    }
+
+    private void appendTokens(StringBuilder text, String model, String kind, LongAdder count) {
+        text.append("research_tokens_total{model=\"").append(escapeLabel(model)).append("\",kind=\"").append(kind)
+            .append("\"} ").append(count.sum()).append('\n');
+    }
+
+    private static double mean(Histogram histogram) {
+        long count = histogram.getCount();
+        return count == 0 ? 0 : (double) histogram.getSum() / count;
+    }
+
+    private static String formatNumber(double value) {
+        return value == Math.rint(value) ? String.valueOf((long) value) : String.valueOf(value);
+    }
+
+    private static String escapeLabel(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static long[] nanos(double... seconds) {
+        long[] bounds = new long[seconds.length];
+        for (int i = 0; i < seconds.length; i++) {
+            bounds[i] = (long) (seconds[i] * NANOS_PER_SECOND);
+        }
+        return bounds;
+    }
+
+    private static final class TokenUsage {
+        private final LongAdder prompt = new LongAdder();
+        private final LongAdder completion = new LongAdder();
+        private final LongAdder cachedPrompt = new LongAdder();
+    }
+}
@@ -0,0 +1,31 @@
+package com.rashid.service.metrics;
+
+import java.util.Map;
+
+// JMX view of the research metrics; maps are keyed by call site, model or HTTP status
+public interface ResearchMetricsMXBean {
+
+    Map<String, Long> getCallCounts();
+
+    Map<String, Long> getCallFailures();
+
+    Map<String, Double> getCallMeanMillis();
+
+    Map<String, Long> getPromptTokens();
+
+    Map<String, Long> getCompletionTokens();
+
+    Map<String, Long> getCachedPromptTokens();
+
+    Map<String, Long> getHttpStatusCounts();
+
+    Map<String, Long> getHttpProtocolCounts();
+
+    long getFailedQueries();
+
+    long getSessions();
+
+    double getMeanIterationsPerSession();
+
+    double getMeanSessionSeconds();
+}
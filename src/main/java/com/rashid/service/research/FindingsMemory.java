@@ -0,0 +1,145 @@
+package com.rashid.service.research;
+
+import com.rashid.constants.PromptConstants;
+import com.rashid.model.CallSite;
+import com.rashid.model.ResearchIteration;
+import com.rashid.service.api.AIClient;
+import com.rashid.service.context.ContextBudgeter;
+import com.rashid.service.context.ContextPart;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+// Rolling findings memory of one research session: a compact digest of older iterations plus the latest
+// iteration in full. The digest is updated asynchronously as each iteration lands, so rendered context
+// stays bounded by the digest and one iteration however many iterations have run
+class FindingsMemory {
+    private static final String TRUNCATION_MARKER = "\n[...]";
+
+    private final AIClient aiClient;
+    private final ContextBudgeter contextBudgeter;
+    private final String topic;
+    private final boolean digestEnabled;
+    private final int digestMaxChars;
+
+    private final List<IterationFindings> undigested = new ArrayList<>();
+    private String digest = "";
+    private int digestedThrough;
+    private IterationFindings latest;
+    private CompletableFuture<String> pendingDigest = CompletableFuture.completedFuture("");
+
+    FindingsMemory(AIClient aiClient, ContextBudgeter contextBudgeter, String topic, boolean digestEnabled,
+                   int digestMaxChars) {
+        this.aiClient = aiClient;
+        this.contextBudgeter = contextBudgeter;
+        this.topic = topic;
+        this.digestEnabled = digestEnabled;
+        this.digestMaxChars = digestMaxChars;
+    }
+
+    // Records an iteration's findings; the previous latest iteration is folded into the digest in the background
+    synchronized void record(int iterationNum, String findings) {
+        if (latest != null) {
+            IterationFindings previous = latest;
+            undigested.add(previous);
+            pendingDigest = pendingDigest
+                .thenCompose(current -> foldIntoDigestAsync(current, previous))
+                .whenComplete((updated, error) -> {
+                    if (error == null) {
+                        digestUpdated(updated, previous.iterationNum());
+                    }
+                });
+        }
+        latest = new IterationFindings(iterationNum, findings);
+    }
+
+    // Restores the memory of a resumed session without repeating digest calls: earlier iterations are
+    // compacted locally and the last one becomes the latest iteration
+    synchronized void restore(List<ResearchIteration> iterations) {
+        for (ResearchIteration iteration : iterations) {
+            if (latest != null) {
+                digest = compactLocally(digest, latest);
+                digestedThrough = latest.iterationNum();
+            }
+            latest = new IterationFindings(iteration.getIterationNumber(), iteration.getFindings());
+        }
+    }
+
+    // Renders the digest, any iterations whose digest update is still running, and the latest iteration
+    synchronized String render() {
+        if (latest == null) {
+            return "";
+        }
+        StringBuilder context = new StringBuilder();
+        if (!digest.isEmpty()) {
+            context.append("--- Digest of Iterations 1-").append(digestedThrough).append(" ---\n\n")
+                .append(digest).append("\n\n");
+        }
+        if (!undigested.isEmpty()) {
+            // Until their digest update lands, pending iterations share the digest's budget
+            int share = digestMaxChars / undigested.size();
+            for (IterationFindings pending : undigested) {
+                context.append("--- Iteration ").append(pending.iterationNum()).append(" Findings (excerpt) ---\n\n")
+                    .append(clip(pending.findings(), share)).append("\n\n");
+            }
+        }
+        context.append("--- Iteration ").append(latest.iterationNum()).append(" Findings ---\n\n")
+            .append(latest.findings());
+        return context.toString();
+    }
+
+    // Cancels a digest update that is still running, e.g. because research has finished
+    synchronized void close() {
+        pendingDigest.cancel(true);
+    }
+
+    private synchronized void digestUpdated(String updated, int iterationNum) {
+        digest = updated;
+        digestedThrough = iterationNum;
+        undigested.removeIf(pending -> pending.iterationNum() <= iterationNum);
+    }
+
+    // Merges one iteration into the digest, falling back to local compaction if the call is disabled or fails
+    private CompletableFuture<String> foldIntoDigestAsync(String currentDigest, IterationFindings iteration) {
+        if (!digestEnabled) {
+            return CompletableFuture.completedFuture(compactLocally(currentDigest, iteration));
+        }
+        return aiClient.chatAsync(CallSite.FINDINGS_DIGEST, buildDigestPrompt(currentDigest, iteration))
+            .thenApply(updated -> clip(updated.trim(), digestMaxChars))
+            .exceptionally(error -> compactLocally(currentDigest, iteration));
+    }
+
+    // Builds the prompt that folds an iteration's findings into the running digest
+    private String buildDigestPrompt(String currentDigest, IterationFindings iteration) {
+        String template =
+            "You maintain a running digest of research on '%s'.\n\n" +
+            "Current digest:\n%s\n\n" +
+            "New findings from iteration %d:\n%s\n\n" +
+            "Rewrite the digest so it also covers the new findings. Keep key facts, statistics, dates, " +
+            "named sources and open questions; drop repetition and background. " +
+            "Respond with the digest only, under %d characters.";
+        String digestText = currentDigest.isEmpty() ? "(empty)" : currentDigest;
+        String findings = contextBudgeter.fit(PromptConstants.DEFAULT_SYSTEM_PROMPT + template + topic + digestText,
+            ContextPart.head(iteration.findings(), 1));
+        return String.format(template, topic, digestText, iteration.iterationNum(), findings, digestMaxChars);
+    }
+
+    // Keeps the head of the existing digest and of the new iteration within the digest budget
+    private String compactLocally(String currentDigest, IterationFindings iteration) {
+        String excerpt = "Iteration " + iteration.iterationNum() + ": " + clip(iteration.findings(), digestMaxChars / 2);
+        if (currentDigest.isEmpty()) {
+            return excerpt;
+        }
+        return clip(currentDigest, digestMaxChars - excerpt.length() - 2) + "\n\n" + excerpt;
+    }
+
+    private String clip(String text, int maxChars) {
+        if (text.length() <= maxChars) {
+            return text;
+        }
+        return text.substring(0, Math.max(0, maxChars - TRUNCATION_MARKER.length())) + TRUNCATION_MARKER;
+    }
+
+    private record IterationFindings(int iterationNum, String findings) {}
+}
@@ -1,31 +1,37 @@
 package com.rashid.service.research;
 
 import com.rashid.constants.PromptConstants;
-import com.rashid.exception.ResearchException;
+import com.rashid.model.CallSite;
 import com.rashid.service.api.AIClient;
+import com.rashid.service.context.ContextBudgeter;
+import com.rashid.service.context.ContextPart;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 // Service for analyzing research findings to identify knowledge gaps
 public class GapAnalyzer {
     private static final int MAX_GAPS = 5;
-    private static final int FINDINGS_TRUNCATION_LENGTH = 2000;
+    private static final Pattern GAP_PATTERN =
+        Pattern.compile("(?i)" + PromptConstants.GAP_PREFIX + "\\s*(.+?)(?=\\n|$)", Pattern.MULTILINE);
 
     private final AIClient aiClient;
+    private final ContextBudgeter contextBudgeter;
 
-    public GapAnalyzer(AIClient aiClient) {
+    public GapAnalyzer(AIClient aiClient, ContextBudgeter contextBudgeter) {
         this.aiClient = aiClient;
+        this.contextBudgeter = contextBudgeter;
     }
 
     // Analyzes gaps while considering user's specific requirements
-    public List<String> analyzeGapsWithInstructions(String topic, String userInstructions,
-            String findings, int iteration) throws ResearchException {
+    public CompletableFuture<List<String>> analyzeGapsWithInstructionsAsync(String topic, String userInstructions,
+            String findings, int iteration) {
         String systemPrompt = "You are a critical research analyst. Identify gaps based on what the user wants to know.";
 
-        String userPrompt = String.format(
+        String template =
             "Topic: %s\n\n" +
             "What the user specifically wants to know:\n%s\n\n" +
             "Current findings (Iteration %d):\n%s\n\n" +
@@ -35,24 +41,22 @@ public class GapAnalyzer {
             "- Unexplored perspectives or contradictions?\n" +
             "- Technical details needed?\n" +
             "- Real-world examples or applications?\n\n" +
-            "Format each: 'GAP: [specific description]'",
-            topic,
-            userInstructions,
-            iteration,
-            truncate(findings, FINDINGS_TRUNCATION_LENGTH)
-        );
-
-        String response = aiClient.chat(userPrompt);
-        return extractGapsFromResponse(response);
+            "Format each: 'GAP: [specific description]'";
+        List<String> fitted = contextBudgeter.fitAll(PromptConstants.DEFAULT_SYSTEM_PROMPT + template + topic,
+            ContextPart.head(userInstructions, 1), ContextPart.tail(findings, 3));
+
+        String userPrompt = String.format(template, topic, fitted.get(0), iteration, fitted.get(1));
+
+        return aiClient.chatAsync(CallSite.GAP_ANALYSIS, userPrompt).thenApply(this::extractGapsFromResponse);
     }
 
     // Forces AI to generate deep-dive topics when no gaps are found
-    public List<String> forceDeepDiveTopics(String topic, String userInstructions,
-            String findings, int iteration) throws ResearchException {
+    public CompletableFuture<List<String>> forceDeepDiveTopicsAsync(String topic, String userInstructions,
+            String findings, int iteration) {
         String systemPrompt = "You are a research strategist. Even when research seems complete, there are ALWAYS " +
             "deeper aspects to explore. Generate topics for deeper investigation.";
 
-        String userPrompt = String.format(
+        String template =
             "Topic: %s\n\n" +
             "User wants: %s\n\n" +
             "Current findings (Iteration %d):\n%s\n\n" +
@@ -66,31 +70,29 @@ public class GapAnalyzer {
             "- Practical applications or case studies\n" +
             "- Expert debates or controversies\n\n" +
             "Format each: 'GAP: [specific topic to explore deeper]'\n" +
-            "Generate at least 2 topics even if you think research is comprehensive.",
-            topic,
-            userInstructions,
-            iteration,
-            truncate(findings, 1500),
-            iteration + 1
-        );
-
-        String response = aiClient.chat(userPrompt);
-        List<String> gaps = extractGapsFromResponse(response);
-
-        // Absolute fallback: if AI still doesn't generate gaps, create generic ones
-        if (gaps.isEmpty()) {
-            gaps.add("Latest developments and recent research on " + topic);
-            gaps.add("Expert opinions and different perspectives on " + topic);
-        }
+            "Generate at least 2 topics even if you think research is comprehensive.";
+        List<String> fitted = contextBudgeter.fitAll(PromptConstants.DEFAULT_SYSTEM_PROMPT + template + topic,
+            ContextPart.head(userInstructions, 1), ContextPart.tail(findings, 3));
 
-        return gaps;
+        String userPrompt = String.format(template, topic, fitted.get(0), iteration, fitted.get(1), iteration + 1);
+
+        return aiClient.chatAsync(CallSite.DEEP_DIVE_TOPICS, userPrompt).thenApply(response -> {
+            List<String> gaps = extractGapsFromResponse(response);
+
+            // Absolute fallback: if AI still doesn't generate gaps, create generic ones
+            if (gaps.isEmpty()) {
+                gaps.add("Latest developments and recent research on " + topic);
+                gaps.add("Expert opinions and different perspectives on " + topic);
+            }
+
+            return gaps;
+        });
     }
 
     // Extracts gaps from AI response
     public List<String> extractGapsFromResponse(String response) {
         List<String> gaps = new ArrayList<>();
-        Pattern pattern = Pattern.compile("(?i)" + PromptConstants.GAP_PREFIX + "\\s*(.+?)(?=\\n|$)", Pattern.MULTILINE);
-        Matcher matcher = pattern.matcher(response);
+        Matcher matcher = GAP_PATTERN.matcher(response);
 
         while (matcher.find() && gaps.size() < MAX_GAPS) {
             String gap = matcher.group(1).trim();
@@ -100,12 +102,4 @@ public class GapAnalyzer {
         }
         return gaps;
     }
-
-    // Truncates text to avoid exceeding token limits
-    private String truncate(String text, int maxLength) {
-        if (text.length() <= maxLength) {
-            return text;
-        }
-        return text.substring(text.length() - maxLength) + "\n[Earlier context truncated]";
-    }
 }
@@ -0,0 +1,125 @@
+package com.rashid.service.research;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rashid.constants.PromptConstants;
+import com.rashid.exception.AIException;
+import com.rashid.model.CallSite;
+import com.rashid.model.IterationPlan;
+import com.rashid.model.ResponseSchema;
+import com.rashid.service.api.AIClient;
+import com.rashid.service.context.ContextBudgeter;
+import com.rashid.service.context.ContextPart;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+// Service that plans the next research step (gaps, queries and continue decision) in one structured call
+public class IterationController {
+    private static final int MAX_GAPS = 5;
+    private static final int MAX_QUERIES = 3;
+
+    private static final ResponseSchema ITERATION_PLAN_SCHEMA = new ResponseSchema("iteration_plan", """
+        {
+          "type": "object",
+          "properties": {
+            "gaps": {"type": "array", "items": {"type": "string"}},
+            "queries": {"type": "array", "items": {"type": "string"}},
+            "decision": {"type": "string", "enum": ["CONTINUE", "COMPLETE"]}
+          },
+          "required": ["gaps", "queries", "decision"],
+          "additionalProperties": false
+        }
+        """);
+
+    private final AIClient aiClient;
+    private final ObjectMapper objectMapper;
+    private final ContextBudgeter contextBudgeter;
+
+    public IterationController(AIClient aiClient, ContextBudgeter contextBudgeter) {
+        this.aiClient = aiClient;
+        this.contextBudgeter = contextBudgeter;
+        this.objectMapper = new ObjectMapper();
+    }
+
+    // Identifies gaps, generates follow-up queries and decides whether to continue in a single call
+    public CompletableFuture<IterationPlan> planNextIterationAsync(String topic, String userInstructions,
+            String findings, int iteration, int minIterations) {
+        String systemPrompt = "You are a research director. Evaluate the findings so far, identify knowledge gaps, " +
+            "propose targeted follow-up search queries and decide whether more research is needed.";
+
+        String depthRequirement = iteration < minIterations
+            ? "This is iteration " + iteration + " of at least " + minIterations + ". Research MUST go deeper: " +
+              "return at least 2 gaps and 2 queries even if the research seems comprehensive, and decide CONTINUE."
+            : "Decide COMPLETE only if the user's requirements are fully addressed and no significant gaps remain.";
+
+        String template =
+            "Topic: %s\n\n" +
+            "What the user specifically wants to know:\n%s\n\n" +
+            "Current findings after %d iteration(s):\n%s\n\n" +
+            "1. gaps: 3-5 specific knowledge gaps considering the user's requirements " +
+            "(missing data, unexplored perspectives, technical details, real-world examples, contradictions).\n" +
+            "2. queries: 2-3 specific follow-up search queries that address the gaps and will find NEW information.\n" +
+            "3. decision: CONTINUE if more research is needed, COMPLETE if the research is comprehensive enough.\n\n" +
+            "%s";
+        // The response schema is sent with the request and counts against the context as well
+        List<String> fitted = contextBudgeter.fitAll(
+            systemPrompt + template + topic + depthRequirement + ITERATION_PLAN_SCHEMA.getSchemaJson(),
+            ContextPart.head(userInstructions, 1), ContextPart.tail(findings, 3));
+
+        String userPrompt = String.format(template, topic, fitted.get(0), iteration, fitted.get(1), depthRequirement);
+
+        return aiClient.chatStructuredAsync(CallSite.ITERATION_CONTROL, systemPrompt, userPrompt, ITERATION_PLAN_SCHEMA)
+            .thenApply(this::parsePlan);
+    }
+
+    // Parses the structured response into an iteration plan
+    private IterationPlan parsePlan(String response) {
+        try {
+            JsonNode root = objectMapper.readTree(stripCodeFence(response));
+            if (!root.isObject() || !root.has("decision")) {
+                throw new AIException("Iteration plan is missing required fields");
+            }
+
+            return new IterationPlan(
+                readStrings(root.path("gaps"), MAX_GAPS),
+                readStrings(root.path("queries"), MAX_QUERIES),
+                PromptConstants.DECISION_CONTINUE.equalsIgnoreCase(root.path("decision").asText().trim())
+            );
+        } catch (AIException e) {
+            throw new CompletionException(e);
+        } catch (Exception e) {
+            throw new CompletionException(new AIException("Failed to parse iteration plan", e));
+        }
+    }
+
+    // Reads up to limit non-blank strings from a JSON array
+    private List<String> readStrings(JsonNode array, int limit) {
+        List<String> values = new ArrayList<>();
+        for (JsonNode item : array) {
+            if (values.size() >= limit) {
+                break;
+            }
+            String value = item.asText().trim();
+            if (!value.isEmpty()) {
+                values.add(value);
+            }
+        }
+        return values;
+    }
+
+    // Clients without native structured output sometimes wrap the JSON in a markdown code fence
+    private String stripCodeFence(String response) {
+        String trimmed = response.trim();
+        if (trimmed.startsWith("```")) {
+            int start = trimmed.indexOf('\n');
+            int end = trimmed.lastIndexOf("```");
+            if (start >= 0 && end > start) {
+                return trimmed.substring(start + 1, end);
+            }
+        }
+        return trimmed;
+    }
+}
@@ -0,0 +1,43 @@
+package com.rashid.service.research;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Counters for continue/stop decisions taken locally from the novelty score instead of by the model
+public class NoveltyStats {
+    private final AtomicLong localStops = new AtomicLong();
+    private final AtomicLong localContinues = new AtomicLong();
+    private final AtomicLong modelDecisions = new AtomicLong();
+
+    void recordLocalStop() {
+        localStops.incrementAndGet();
+    }
+
+    void recordLocalContinue() {
+        localContinues.incrementAndGet();
+    }
+
+    void recordModelDecision() {
+        modelDecisions.incrementAndGet();
+    }
+
+    // Iterations after which research stopped because too little was new
+    public long getLocalStops() {
+        return localStops.get();
+    }
+
+    // Iterations after which research continued because enough was new
+    public long getLocalContinues() {
+        return localContinues.get();
+    }
+
+    // Iterations in the ambiguous band that were still decided by the model
+    public long getModelDecisions() {
+        return modelDecisions.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("stopped locally=%d continued locally=%d asked model=%d",
+            getLocalStops(), getLocalContinues(), getModelDecisions());
+    }
+}
@@ -0,0 +1,77 @@
+package com.rashid.service.research;
+
+import com.rashid.model.Source;
+import com.rashid.util.TextShingles;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Measures locally how much new information an iteration adds to everything a session has found so far:
+// the share of unseen word shingles in its findings, of sources with unseen URLs and of unseen numeric facts.
+// Lets the orchestrator stop or continue without asking the model when the answer is clear
+class NoveltyTracker {
+    private static final int SHINGLE_SIZE = 4;
+    private static final double TEXT_WEIGHT = 0.6;
+    private static final double SOURCE_WEIGHT = 0.2;
+    private static final double NUMBER_WEIGHT = 0.2;
+    // Figures with an optional decimal part and unit; single digits are mostly list numbering and are ignored
+    private static final Pattern NUMERIC_FACT = Pattern.compile(
+        "\\d[\\d,]*(?:\\.\\d+)?(?:\\s?%|\\s?(?:percent|million|billion|trillion|thousand|bn|m|k|x)\\b)?",
+        Pattern.CASE_INSENSITIVE);
+
+    private final Set<Long> seenShingles = new HashSet<>();
+    private final Set<String> seenUrls = new HashSet<>();
+    private final Set<String> seenNumbers = new HashSet<>();
+
+    // Scores an iteration's findings between 0 (nothing new) and 1 (entirely new), then adds them to what
+    // the session has seen. Signals the iteration has no data for do not count
+    double record(String findings, List<Source> sources) {
+        long[] shingles = TextShingles.hashes(TextShingles.tokens(findings), SHINGLE_SIZE);
+        int newShingles = 0;
+        for (long shingle : shingles) {
+            if (seenShingles.add(shingle)) {
+                newShingles++;
+            }
+        }
+
+        int newUrls = 0;
+        for (Source source : sources) {
+            if (seenUrls.add(source.getUrl())) {
+                newUrls++;
+            }
+        }
+
+        int numbers = 0;
+        int newNumbers = 0;
+        Matcher matcher = NUMERIC_FACT.matcher(findings);
+        while (matcher.find()) {
+            String number = matcher.group().replace(",", "").replace(" ", "").toLowerCase();
+            if (number.length() < 2) {
+                continue;
+            }
+            numbers++;
+            if (seenNumbers.add(number)) {
+                newNumbers++;
+            }
+        }
+
+        double weighted = 0;
+        double weights = 0;
+        if (shingles.length > 0) {
+            weighted += TEXT_WEIGHT * newShingles / shingles.length;
+            weights += TEXT_WEIGHT;
+        }
+        if (!sources.isEmpty()) {
+            weighted += SOURCE_WEIGHT * newUrls / sources.size();
+            weights += SOURCE_WEIGHT;
+        }
+        if (numbers > 0) {
+            weighted += NUMBER_WEIGHT * newNumbers / numbers;
+            weights += NUMBER_WEIGHT;
+        }
+        return weights == 0 ? 0 : weighted / weights;
+    }
+}
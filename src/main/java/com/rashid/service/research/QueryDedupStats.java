@@ -0,0 +1,43 @@
+package com.rashid.service.research;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Counters for follow-up queries dropped as near-duplicates and searches answered from other sessions
+public class QueryDedupStats {
+    private final AtomicLong skippedDuplicates = new AtomicLong();
+    private final AtomicLong stoppedOnDuplicates = new AtomicLong();
+    private final AtomicLong sharedHits = new AtomicLong();
+
+    void recordSkipped(int queries) {
+        skippedDuplicates.addAndGet(queries);
+    }
+
+    void recordStoppedOnDuplicates() {
+        stoppedOnDuplicates.incrementAndGet();
+    }
+
+    void recordSharedHit() {
+        sharedHits.incrementAndGet();
+    }
+
+    // Proposed follow-up queries that paraphrased a query the session had already researched
+    public long getSkippedDuplicates() {
+        return skippedDuplicates.get();
+    }
+
+    // Sessions that ended because every proposed follow-up query had already been researched
+    public long getStoppedOnDuplicates() {
+        return stoppedOnDuplicates.get();
+    }
+
+    // Searches served with the findings of a near-duplicate query from another session
+    public long getSharedHits() {
+        return sharedHits.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("skipped=%d stoppedOnDuplicates=%d sharedHits=%d",
+            getSkippedDuplicates(), getStoppedOnDuplicates(), getSharedHits());
+    }
+}
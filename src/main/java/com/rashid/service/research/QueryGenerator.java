@@ -1,17 +1,20 @@
 package com.rashid.service.research;
 
 import com.rashid.constants.PromptConstants;
-import com.rashid.exception.ResearchException;
+import com.rashid.model.CallSite;
 import com.rashid.service.api.AIClient;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 // Service for generating follow-up research queries based on identified gaps
 public class QueryGenerator {
     private static final int MAX_QUERIES = 3;
+    private static final Pattern QUERY_PATTERN =
+        Pattern.compile("(?i)" + PromptConstants.QUERY_PREFIX + "\\s*(.+?)(?=\\n|$)", Pattern.MULTILINE);
 
     private final AIClient aiClient;
 
@@ -20,8 +23,8 @@ public class QueryGenerator {
     }
 
     // Generates queries considering user's specific interests
-    public List<String> generateQueriesWithInstructions(String topic, String userInstructions,
-            List<String> gaps, String findings) throws ResearchException {
+    public CompletableFuture<List<String>> generateQueriesWithInstructionsAsync(String topic, String userInstructions,
+            List<String> gaps, String findings) {
         String systemPrompt = "You are a research query expert. Generate targeted follow-up queries.";
 
         String userPrompt = String.format(
@@ -39,15 +42,13 @@ public class QueryGenerator {
             userInstructions
         );
 
-        String response = aiClient.chat(userPrompt);
-        return extractQueriesFromResponse(response);
+        return aiClient.chatAsync(CallSite.QUERY_GENERATION, userPrompt).thenApply(this::extractQueriesFromResponse);
     }
 
     // Extracts queries from AI response
     public List<String> extractQueriesFromResponse(String response) {
         List<String> queries = new ArrayList<>();
-        Pattern pattern = Pattern.compile("(?i)" + PromptConstants.QUERY_PREFIX + "\\s*(.+?)(?=\\n|$)", Pattern.MULTILINE);
-        Matcher matcher = pattern.matcher(response);
+        Matcher matcher = QUERY_PATTERN.matcher(response);
 
         while (matcher.find() && queries.size() < MAX_QUERIES) {
             String query = matcher.group(1).trim();
@@ -0,0 +1,229 @@
+package com.rashid.service.research;
+
+import com.rashid.util.TextShingles;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Near-duplicate index of research queries. Queries are reduced to normalized content words and a MinHash
+// signature of that word set; banded signatures find candidates without comparing against every entry,
+// and the share of agreeing signature slots estimates their Jaccard similarity. Entries may be scoped, in which
+// case a query only matches entries of the same scope, and the index can be bounded, evicting the oldest entries
+class QueryIndex {
+    private static final String NO_SCOPE = "";
+
+    private static final int SIGNATURE_SIZE = 64;
+    // 32 bands of 2 rows make pairs at the usual thresholds (0.5-0.7) candidates with near certainty
+    private static final int ROWS_PER_BAND = 2;
+    private static final int BANDS = SIGNATURE_SIZE / ROWS_PER_BAND;
+    private static final long[] SEEDS = new long[SIGNATURE_SIZE];
+    private static final Set<String> STOP_WORDS = Set.of(
+        "a", "an", "and", "are", "as", "at", "be", "by", "do", "does", "for", "from", "how", "in", "into", "is",
+        "it", "its", "of", "on", "or", "such", "than", "that", "the", "their", "this", "to", "vs", "versus",
+        "what", "when", "where", "which", "who", "why", "with", "about", "between", "latest", "recent"
+    );
+
+    static {
+        long seed = 0x9e3779b97f4a7c15L;
+        for (int i = 0; i < SIGNATURE_SIZE; i++) {
+            seed += 0x9e3779b97f4a7c15L;
+            SEEDS[i] = mix(seed);
+        }
+    }
+
+    private final double similarityThreshold;
+    private final int maxEntries;
+    private final List<Map<Long, List<Entry>>> bands = new ArrayList<>();
+    private final Set<Entry> entries = new LinkedHashSet<>();
+
+    // Constructs an empty, unbounded index; queries whose estimated Jaccard similarity reaches the threshold
+    // are duplicates
+    QueryIndex(double similarityThreshold) {
+        this(similarityThreshold, Integer.MAX_VALUE);
+    }
+
+    // Constructs an empty index holding at most maxEntries queries, oldest evicted first
+    QueryIndex(double similarityThreshold, int maxEntries) {
+        this.similarityThreshold = similarityThreshold;
+        this.maxEntries = maxEntries;
+        for (int band = 0; band < BANDS; band++) {
+            bands.add(new HashMap<>());
+        }
+    }
+
+    // Returns the indexed query the given one nearly duplicates, or null if it covers new ground
+    synchronized String findNearDuplicate(String query) {
+        return findNearDuplicate(NO_SCOPE, query);
+    }
+
+    // Returns the query indexed under the scope that the given one nearly duplicates, or null if there is none
+    synchronized String findNearDuplicate(String scope, String query) {
+        long[] signature = signature(query);
+        if (signature == null) {
+            return null;
+        }
+        Entry match = findMatch(scope, signature);
+        return match == null ? null : match.query;
+    }
+
+    // Keeps the queries that neither duplicate an indexed query nor an earlier query of the list, in order
+    synchronized List<String> withoutNearDuplicates(List<String> queries) {
+        List<String> kept = new ArrayList<>();
+        List<long[]> keptSignatures = new ArrayList<>();
+        for (String query : queries) {
+            long[] signature = signature(query);
+            if (signature != null
+                    && (findMatch(NO_SCOPE, signature) != null || keptSignatures.stream().anyMatch(s -> isSimilar(s, signature)))) {
+                continue;
+            }
+            kept.add(query);
+            if (signature != null) {
+                keptSignatures.add(signature);
+            }
+        }
+        return kept;
+    }
+
+    // Adds a researched query; queries without content words are not indexed
+    synchronized void add(String query) {
+        add(NO_SCOPE, query);
+    }
+
+    // Adds a query under the scope, evicting the oldest entry once the index is full
+    synchronized void add(String scope, String query) {
+        long[] signature = signature(query);
+        if (signature == null) {
+            return;
+        }
+        Entry entry = new Entry(scope, query, signature);
+        entries.add(entry);
+        for (int band = 0; band < BANDS; band++) {
+            bands.get(band).computeIfAbsent(bandKey(signature, band), key -> new ArrayList<>()).add(entry);
+        }
+        if (entries.size() > maxEntries) {
+            unlink(entries.iterator().next());
+        }
+    }
+
+    // Removes a query indexed under the scope, if present
+    synchronized void remove(String scope, String query) {
+        long[] signature = signature(query);
+        if (signature == null) {
+            return;
+        }
+        for (Entry candidate : candidates(signature)) {
+            if (candidate.scope.equals(scope) && candidate.query.equals(query)) {
+                unlink(candidate);
+                return;
+            }
+        }
+    }
+
+    private Entry findMatch(String scope, long[] signature) {
+        for (Entry candidate : candidates(signature)) {
+            if (candidate.scope.equals(scope) && isSimilar(candidate.signature, signature)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    // Entries sharing at least one band with the signature
+    private Set<Entry> candidates(long[] signature) {
+        Set<Entry> candidates = new LinkedHashSet<>();
+        for (int band = 0; band < BANDS; band++) {
+            candidates.addAll(bands.get(band).getOrDefault(bandKey(signature, band), List.of()));
+        }
+        return candidates;
+    }
+
+    private void unlink(Entry entry) {
+        entries.remove(entry);
+        for (int band = 0; band < BANDS; band++) {
+            long key = bandKey(entry.signature, band);
+            List<Entry> bucket = bands.get(band).get(key);
+            bucket.remove(entry);
+            if (bucket.isEmpty()) {
+                bands.get(band).remove(key);
+            }
+        }
+    }
+
+    private boolean isSimilar(long[] first, long[] second) {
+        int agreeing = 0;
+        for (int i = 0; i < SIGNATURE_SIZE; i++) {
+            if (first[i] == second[i]) {
+                agreeing++;
+            }
+        }
+        return agreeing >= similarityThreshold * SIGNATURE_SIZE;
+    }
+
+    // MinHash signature of the query's content words, or null when it has none
+    private static long[] signature(String query) {
+        List<String> words = new ArrayList<>();
+        for (String token : TextShingles.tokens(query)) {
+            if (!STOP_WORDS.contains(token)) {
+                words.add(stem(token));
+            }
+        }
+        if (words.isEmpty()) {
+            return null;
+        }
+
+        long[] wordHashes = TextShingles.hashes(words, 1);
+        long[] signature = new long[SIGNATURE_SIZE];
+        for (int i = 0; i < SIGNATURE_SIZE; i++) {
+            long min = Long.MAX_VALUE;
+            for (long wordHash : wordHashes) {
+                min = Math.min(min, mix(wordHash ^ SEEDS[i]));
+            }
+            signature[i] = min;
+        }
+        return signature;
+    }
+
+    // Folds plural forms together so "battery costs" and "battery cost" match
+    private static String stem(String word) {
+        if (word.length() > 4 && word.endsWith("ies")) {
+            return word.substring(0, word.length() - 3) + "y";
+        }
+        if (word.length() > 3 && word.endsWith("s") && !word.endsWith("ss")) {
+            return word.substring(0, word.length() - 1);
+        }
+        return word;
+    }
+
+    private static long bandKey(long[] signature, int band) {
+        long key = band;
+        for (int row = 0; row < ROWS_PER_BAND; row++) {
+            key = mix(key ^ signature[band * ROWS_PER_BAND + row]);
+        }
+        return key;
+    }
+
+    // SplitMix64 finalizer; turns one word hash into independent-looking hashes per seed
+    private static long mix(long value) {
+        long z = value;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    // Entries are compared by identity: equal queries added twice are separate entries
+    private static final class Entry {
+        private final String scope;
+        private final String query;
+        private final long[] signature;
+
+        private Entry(String scope, String query, long[] signature) {
+            this.scope = scope;
+            this.query = query;
+            this.signature = signature;
+        }
+    }
+}
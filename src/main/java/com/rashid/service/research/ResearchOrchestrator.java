@@ -1,110 +1,511 @@
 package com.rashid.service.research;
 
+import com.rashid.config.ResearchConfig;
 import com.rashid.constants.PromptConstants;
 import com.rashid.exception.ResearchException;
+import com.rashid.model.CallSite;
+import com.rashid.model.IterationPlan;
 import com.rashid.model.ResearchIteration;
 import com.rashid.model.Source;
+import com.rashid.model.StreamedResponse;
 import com.rashid.service.api.AIClient;
 import com.rashid.service.api.ResearchService;
 import com.rashid.service.api.SourceExtractionService;
+import com.rashid.service.checkpoint.CheckpointStore;
+import com.rashid.service.checkpoint.IterationLog;
+import com.rashid.service.checkpoint.ResearchCheckpoint;
+import com.rashid.service.context.ContextBudgeter;
+import com.rashid.service.context.ContextPart;
+import com.rashid.service.metrics.ResearchMetrics;
+import com.rashid.util.Futures;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 // Orchestrates the deep iterative research process
 public class ResearchOrchestrator implements ResearchService {
     private static final int MIN_GUARANTEED_ITERATIONS = 3;
     private static final int MAX_SAFETY_ITERATIONS = 10;
-    private static final int FINDINGS_TRUNCATION_LENGTH = 2000;
 
     private final AIClient aiClient;
     private final GapAnalyzer gapAnalyzer;
     private final QueryGenerator queryGenerator;
     private final SynthesisService synthesisService;
+    private final IterationController iterationController;
     private final SourceExtractionService sourceExtractor;
+    private final ResearchConfig researchConfig;
+    private final ContextBudgeter contextBudgeter;
+    private final CheckpointStore checkpointStore;
+    private final SharedQueryResults sharedQueryResults;
+    private final ResearchMetrics metrics;
+    private final SpeculationStats speculationStats = new SpeculationStats();
+    private final NoveltyStats noveltyStats = new NoveltyStats();
+    private final QueryDedupStats queryDedupStats = new QueryDedupStats();
 
     public ResearchOrchestrator(AIClient aiClient, GapAnalyzer gapAnalyzer,
-                               QueryGenerator queryGenerator, SynthesisService synthesisService,
-                               SourceExtractionService sourceExtractor) {
+                               QueryGenerator queryGenerator, IterationController iterationController,
+                               SynthesisService synthesisService, SourceExtractionService sourceExtractor,
+                               ResearchConfig researchConfig, ContextBudgeter contextBudgeter,
+                               CheckpointStore checkpointStore, SharedQueryResults sharedQueryResults,
+                               ResearchMetrics metrics) {
         this.aiClient = aiClient;
         this.gapAnalyzer = gapAnalyzer;
         this.queryGenerator = queryGenerator;
+        this.iterationController = iterationController;
         this.synthesisService = synthesisService;
         this.sourceExtractor = sourceExtractor;
+        this.researchConfig = researchConfig;
+        this.contextBudgeter = contextBudgeter;
+        this.checkpointStore = checkpointStore;
+        this.sharedQueryResults = sharedQueryResults;
+        this.metrics = metrics;
     }
 
     // Conducts deep iterative research with ADAPTIVE iterations (AI decides when to stop)
     @Override
-    public List<ResearchIteration> conductDeepIterativeResearch(String topic, String instructions) throws ResearchException {
-        List<ResearchIteration> iterations = new ArrayList<>();
-        String accumulatedFindings = "";
-        String currentQuery = topic;
+    public CompletableFuture<List<ResearchIteration>> conductDeepIterativeResearchAsync(String topic, String instructions,
+            boolean checkpointed, Consumer<ResearchIteration> onIteration) {
+        long startNanos = System.nanoTime();
+        SpeculativeSearches speculativeSearches = new SpeculativeSearches(speculationStats);
+        FindingsMemory findingsMemory = new FindingsMemory(aiClient, contextBudgeter, topic,
+            researchConfig.isFindingsDigestEnabled(), researchConfig.getFindingsDigestMaxChars());
+        NoveltyTracker noveltyTracker = new NoveltyTracker();
+        QueryIndex queryIndex = new QueryIndex(researchConfig.getQueryDedupSimilarityPercent() / 100.0);
+        IterationLog iterationLog = checkpointed && checkpointStore != null
+            ? checkpointStore.open(topic, instructions) : null;
+        Consumer<ResearchIteration> recordIteration = iterationLog == null ? onIteration : iteration -> {
+            iterationLog.append(iteration);
+            onIteration.accept(iteration);
+        };
+
+        CompletableFuture<List<ResearchIteration>> research = iterationLog == null
+            ? runIterationsAsync(topic, instructions, new ArrayList<>(), List.of(topic), "", 1,
+                findingsMemory, noveltyTracker, queryIndex, speculativeSearches, recordIteration)
+            : resumeIterationsAsync(topic, instructions, iterationLog.getRestored(), findingsMemory,
+                noveltyTracker, queryIndex, speculativeSearches, onIteration, recordIteration);
+        return research
+            .thenApply(iterations -> {
+                if (iterationLog != null) {
+                    iterationLog.markComplete();
+                }
+                metrics.recordSession(iterations.size(), System.nanoTime() - startNanos);
+                return iterations;
+            })
+            .whenComplete((iterations, error) -> {
+                speculativeSearches.discardAll(true);
+                findingsMemory.close();
+                if (iterationLog != null) {
+                    iterationLog.close();
+                }
+            });
+    }
 
-        // Main research loop - continues until AI decides research is complete or limit reached
-        for (int iterationNum = 1; iterationNum <= MAX_SAFETY_ITERATIONS; iterationNum++) {
-            ResearchIteration iteration = executeResearchIteration(
-                topic, instructions, currentQuery, accumulatedFindings, iterationNum);
-            iterations.add(iteration);
+    // Returns a resumable checkpoint of an earlier session on the topic, or null if there is none
+    @Override
+    public ResearchCheckpoint findCheckpoint(String topic) {
+        return checkpointStore != null ? checkpointStore.find(topic) : null;
+    }
 
-            accumulatedFindings = updateAccumulatedFindings(accumulatedFindings, iteration.getFindings(), iterationNum);
+    // Deletes the topic's checkpoint once its results have been delivered
+    @Override
+    public void discardCheckpoint(String topic) {
+        if (checkpointStore != null) {
+            checkpointStore.discard(topic);
+        }
+    }
+
+    // Continues after the iterations restored from a checkpoint; they are replayed to the listener
+    // but not researched again
+    private CompletableFuture<List<ResearchIteration>> resumeIterationsAsync(String topic, String instructions,
+            ResearchCheckpoint checkpoint, FindingsMemory findingsMemory, NoveltyTracker noveltyTracker,
+            QueryIndex queryIndex, SpeculativeSearches speculativeSearches, Consumer<ResearchIteration> onIteration,
+            Consumer<ResearchIteration> recordIteration) {
+        List<ResearchIteration> iterations = new ArrayList<>(checkpoint.iterations());
+        if (iterations.isEmpty()) {
+            return runIterationsAsync(topic, instructions, iterations, List.of(topic), "", 1,
+                findingsMemory, noveltyTracker, queryIndex, speculativeSearches, recordIteration);
+        }
+        iterations.forEach(onIteration);
+
+        ResearchIteration last = iterations.get(iterations.size() - 1);
+        if (checkpoint.complete() || last.getIterationNumber() >= MAX_SAFETY_ITERATIONS) {
+            return CompletableFuture.completedFuture(iterations);
+        }
+        findingsMemory.restore(iterations);
+        iterations.forEach(iteration -> noveltyTracker.record(iteration.getFindings(), iteration.getSources()));
+        // Approximates the queries researched so far from the follow-ups each iteration handed on
+        queryIndex.add(topic);
+        iterations.subList(0, iterations.size() - 1).forEach(iteration ->
+            determineNextQueries(topic, iteration.getFollowUpQueries()).forEach(queryIndex::add));
+        return runIterationsAsync(topic, instructions, iterations,
+            determineNextQueries(topic, withoutResearched(queryIndex, last.getFollowUpQueries())),
+            findingsMemory.render(), last.getIterationNumber() + 1, findingsMemory, noveltyTracker, queryIndex,
+            speculativeSearches, recordIteration);
+    }
 
-            if (shouldStopResearch(iterationNum, iteration, topic, instructions, accumulatedFindings)) {
-                break;
+    // Returns hit-rate and waste counters of speculative (pipelined) searches across all sessions
+    public SpeculationStats getSpeculationStats() {
+        return speculationStats;
+    }
+
+    // Returns how many continue/stop decisions the novelty score settled without the model, across all sessions
+    public NoveltyStats getNoveltyStats() {
+        return noveltyStats;
+    }
+
+    // Returns how many duplicate follow-up queries were skipped and searches shared, across all sessions
+    public QueryDedupStats getQueryDedupStats() {
+        return queryDedupStats;
+    }
+
+    // Main research loop - continues until AI decides research is complete or limit reached
+    private CompletableFuture<List<ResearchIteration>> runIterationsAsync(String topic, String instructions,
+            List<ResearchIteration> iterations, List<String> currentQueries, String previousFindings, int iterationNum,
+            FindingsMemory findingsMemory, NoveltyTracker noveltyTracker, QueryIndex queryIndex,
+            SpeculativeSearches speculativeSearches, Consumer<ResearchIteration> onIteration) {
+        currentQueries.forEach(queryIndex::add);
+        CompletableFuture<IterationOutcome> outcomeFuture = researchConfig.isStructuredControllerEnabled()
+            ? executeControlledIterationAsync(topic, instructions, currentQueries, previousFindings, iterationNum,
+                withoutResearched(queryIndex, unexecutedQueries(iterations, currentQueries)), findingsMemory,
+                noveltyTracker, speculativeSearches)
+            : executeClassicIterationAsync(topic, instructions, currentQueries, previousFindings, iterationNum,
+                findingsMemory, noveltyTracker, queryIndex, speculativeSearches);
+
+        return outcomeFuture.thenCompose(outcome -> {
+            iterations.add(outcome.iteration());
+            onIteration.accept(outcome.iteration());
+            if (outcome.stop() || iterationNum >= MAX_SAFETY_ITERATIONS) {
+                return CompletableFuture.completedFuture(iterations);
+            }
+
+            List<String> followUpQueries = outcome.iteration().getFollowUpQueries();
+            List<String> novelQueries = withoutResearched(queryIndex, followUpQueries);
+            queryDedupStats.recordSkipped(followUpQueries.size() - novelQueries.size());
+            if (novelQueries.isEmpty() && !followUpQueries.isEmpty() && iterationNum >= MIN_GUARANTEED_ITERATIONS) {
+                // Every proposed query repeats ground the session already covered
+                queryDedupStats.recordStoppedOnDuplicates();
+                speculativeSearches.discardAll(true);
+                return CompletableFuture.completedFuture(iterations);
             }
+            List<String> nextQueries = determineNextQueries(topic, novelQueries);
+            return runIterationsAsync(topic, instructions, iterations, nextQueries, outcome.accumulatedFindings(),
+                iterationNum + 1, findingsMemory, noveltyTracker, queryIndex, speculativeSearches, onIteration);
+        });
+    }
+
+    // Drops queries that nearly duplicate a query the session already researched, or an earlier one in the list
+    private List<String> withoutResearched(QueryIndex queryIndex, List<String> queries) {
+        return researchConfig.isQueryDedupEnabled() ? queryIndex.withoutNearDuplicates(queries) : queries;
+    }
 
-            currentQuery = determineNextQuery(topic, iteration.getFollowUpQueries());
+    // Follow-up queries of the previous iteration that were not researched in the current one
+    private List<String> unexecutedQueries(List<ResearchIteration> iterations, List<String> currentQueries) {
+        if (iterations.isEmpty()) {
+            return List.of();
         }
+        List<String> leftover = new ArrayList<>(iterations.get(iterations.size() - 1).getFollowUpQueries());
+        leftover.removeAll(currentQueries);
+        return leftover;
+    }
 
-        return iterations;
+    // Starts the next iteration's searches before the control calls have finished; the results are
+    // claimed if the same queries are chosen and cancelled otherwise. Speculative searches go through the
+    // shared query results like any other search
+    private void speculateNextSearches(List<String> queries, String instructions, int nextIterationNum,
+            String accumulatedFindings, SpeculativeSearches speculativeSearches) {
+        if (!researchConfig.isPipeliningEnabled() || nextIterationNum > MAX_SAFETY_ITERATIONS) {
+            return;
+        }
+        for (String query : queries) {
+            SearchRequest request = buildSearchRequest(query, instructions, nextIterationNum, accumulatedFindings);
+            speculativeSearches.start(query, request.promptChars(), () -> searchAsync(query, instructions, request));
+        }
     }
 
-    // Executes a single research iteration
-    private ResearchIteration executeResearchIteration(String topic, String instructions,
-            String currentQuery, String accumulatedFindings, int iterationNum) throws ResearchException {
-        String findings = conductResearchIteration(currentQuery, instructions, iterationNum, accumulatedFindings);
-        List<Source> sources = sourceExtractor.extractSourcesFromResponse(findings);
-        List<String> gaps = identifyResearchGaps(topic, instructions, accumulatedFindings, iterationNum);
-        List<String> followUpQueries = generateFollowUpQueries(topic, instructions, gaps, accumulatedFindings, iterationNum);
+    // Classic control flow: separate gap analysis, query generation and continue-decision calls
+    private CompletableFuture<IterationOutcome> executeClassicIterationAsync(String topic, String instructions,
+            List<String> currentQueries, String previousFindings, int iterationNum,
+            FindingsMemory findingsMemory, NoveltyTracker noveltyTracker, QueryIndex queryIndex,
+            SpeculativeSearches speculativeSearches) {
+        return executeResearchIterationAsync(topic, instructions, currentQueries, previousFindings, iterationNum,
+                speculativeSearches)
+            .thenCompose(iteration -> {
+                String accumulatedFindings = updateAccumulatedFindings(findingsMemory, iteration.getFindings(), iterationNum);
+                double novelty = noveltyTracker.record(iteration.getFindings(), iteration.getSources());
+
+                // Gap analysis and query generation ran alongside this iteration's searches, so the next queries
+                // are known here; only the continue decision overlaps with the speculative searches
+                if (iterationNum >= MIN_GUARANTEED_ITERATIONS && !iteration.getFollowUpQueries().isEmpty()) {
+                    speculateNextSearches(
+                        determineNextQueries(topic, withoutResearched(queryIndex, iteration.getFollowUpQueries())),
+                        instructions, iterationNum + 1, accumulatedFindings, speculativeSearches);
+                }
+
+                return shouldStopResearchAsync(iterationNum, iteration, novelty, topic, instructions, accumulatedFindings)
+                    .thenApply(stop -> {
+                        if (stop) {
+                            speculativeSearches.discardAll(true);
+                        }
+                        return new IterationOutcome(iteration, accumulatedFindings, stop);
+                    });
+            });
+    }
 
-        return new ResearchIteration(iterationNum, findings, gaps, followUpQueries, sources);
+    // Structured control flow: after the searches, one structured call returns gaps, queries and the decision
+    private CompletableFuture<IterationOutcome> executeControlledIterationAsync(String topic, String instructions,
+            List<String> currentQueries, String previousFindings, int iterationNum,
+            List<String> preliminaryQueries, FindingsMemory findingsMemory, NoveltyTracker noveltyTracker,
+            SpeculativeSearches speculativeSearches) {
+        return researchQueriesAsync(currentQueries, instructions, iterationNum, previousFindings, speculativeSearches)
+            .thenCompose(findingsByQuery -> {
+                String findings = mergeFindings(findingsByQuery);
+                List<Source> sources = mergeSources(findingsByQuery);
+                String accumulatedFindings = updateAccumulatedFindings(findingsMemory, findings, iterationNum);
+
+                // Too little was new to be worth planning another iteration
+                double novelty = noveltyTracker.record(findings, sources);
+                if (iterationNum >= MIN_GUARANTEED_ITERATIONS && isStale(novelty)) {
+                    noveltyStats.recordLocalStop();
+                    speculativeSearches.discardAll(true);
+                    ResearchIteration iteration = new ResearchIteration(iterationNum, findings, List.of(), List.of(), sources);
+                    return CompletableFuture.completedFuture(new IterationOutcome(iteration, accumulatedFindings, true));
+                }
+
+                // The plan is not known yet, so speculate on the previous plan's queries that were not researched.
+                // Only sequential mode leaves such queries: in parallel mode every planned query was researched,
+                // so structured iterations start no speculative searches
+                if (!preliminaryQueries.isEmpty()) {
+                    speculateNextSearches(determineNextQueries(topic, preliminaryQueries),
+                        instructions, iterationNum + 1, accumulatedFindings, speculativeSearches);
+                }
+
+                return iterationController
+                    .planNextIterationAsync(topic, instructions, accumulatedFindings, iterationNum, MIN_GUARANTEED_ITERATIONS)
+                    .exceptionallyCompose(error -> planWithSeparateCallsAsync(topic, instructions, accumulatedFindings, iterationNum))
+                    .thenApply(plan -> {
+                        ResearchIteration iteration = new ResearchIteration(
+                            iterationNum, findings, plan.getGaps(), plan.getQueries(), sources);
+                        boolean stop = iterationNum >= MIN_GUARANTEED_ITERATIONS
+                            && (!plan.isContinueResearch() || plan.getQueries().isEmpty());
+                        if (stop) {
+                            speculativeSearches.discardAll(true);
+                        }
+                        return new IterationOutcome(iteration, accumulatedFindings, stop);
+                    });
+            });
     }
 
-    // Updates accumulated findings with new iteration results
-    private String updateAccumulatedFindings(String accumulated, String newFindings, int iterationNum) {
-        if (accumulated.isEmpty()) {
-            return newFindings;
+    // Executes a single research iteration; gap analysis only depends on earlier iterations,
+    // so it runs concurrently with this iteration's searches
+    private CompletableFuture<ResearchIteration> executeResearchIterationAsync(String topic, String instructions,
+            List<String> currentQueries, String accumulatedFindings, int iterationNum,
+            SpeculativeSearches speculativeSearches) {
+        CompletableFuture<Map<String, String>> findingsFuture =
+            researchQueriesAsync(currentQueries, instructions, iterationNum, accumulatedFindings, speculativeSearches);
+        CompletableFuture<ResearchIteration> iterationFuture =
+            identifyResearchGapsAsync(topic, instructions, accumulatedFindings, iterationNum)
+                .thenCompose(gaps -> generateFollowUpQueriesAsync(topic, instructions, gaps, accumulatedFindings, iterationNum)
+                    .thenCombine(findingsFuture, (followUpQueries, findingsByQuery) -> new ResearchIteration(
+                        iterationNum,
+                        mergeFindings(findingsByQuery),
+                        gaps,
+                        followUpQueries,
+                        mergeSources(findingsByQuery))));
+
+        // Do not leave searches running when the control calls already failed
+        iterationFuture.whenComplete((iteration, error) -> {
+            if (error != null) {
+                findingsFuture.cancel(true);
+            }
+        });
+        return iterationFuture;
+    }
+
+    // Falls back to the separate control calls when no valid structured plan could be obtained
+    private CompletableFuture<IterationPlan> planWithSeparateCallsAsync(String topic, String instructions,
+            String accumulatedFindings, int iterationNum) {
+        return identifyResearchGapsAsync(topic, instructions, accumulatedFindings, iterationNum)
+            .thenCompose(gaps -> generateFollowUpQueriesAsync(topic, instructions, gaps, accumulatedFindings, iterationNum)
+                .thenCompose(queries -> {
+                    if (iterationNum < MIN_GUARANTEED_ITERATIONS || queries.isEmpty()) {
+                        return CompletableFuture.completedFuture(new IterationPlan(gaps, queries, !queries.isEmpty()));
+                    }
+                    return aiDecideToContinueAsync(topic, instructions, accumulatedFindings, gaps, iterationNum)
+                        .thenApply(shouldContinue -> new IterationPlan(gaps, queries, shouldContinue));
+                }));
+    }
+
+    // Researches all queries of an iteration; in parallel mode they are spread over a bounded
+    // number of lanes that run concurrently while each lane works through its queries in order
+    private CompletableFuture<Map<String, String>> researchQueriesAsync(List<String> plannedQueries,
+            String instructions, int iterationNum, String previousFindings, SpeculativeSearches speculativeSearches) {
+        // Findings are keyed by query text, so a repeated query would be searched twice and keep one answer
+        List<String> queries = new ArrayList<>(new LinkedHashSet<>(plannedQueries));
+        Map<String, CompletableFuture<String>> speculated = speculativeSearches.claim(queries);
+        List<CompletableFuture<String>> inFlight = new CopyOnWriteArrayList<>();
+        CompletableFuture<Map<String, String>> combined;
+
+        if (queries.size() == 1) {
+            String query = queries.get(0);
+            CompletableFuture<String> call = speculated.containsKey(query)
+                ? speculated.get(query)
+                : conductResearchIterationAsync(query, instructions, iterationNum, previousFindings);
+            inFlight.add(call);
+            combined = call.thenApply(findings -> {
+                Map<String, String> findingsByQuery = new LinkedHashMap<>();
+                findingsByQuery.put(query, findings);
+                return findingsByQuery;
+            });
+        } else {
+            combined = researchQueriesInLanesAsync(queries, instructions, iterationNum, previousFindings,
+                speculated, inFlight);
         }
-        return accumulated + "\n\n--- Iteration " + iterationNum + " Findings ---\n\n" + newFindings;
+
+        // Derived futures do not propagate cancellation, so abort the underlying searches explicitly
+        combined.whenComplete((findingsByQuery, error) -> {
+            if (combined.isCancelled()) {
+                inFlight.forEach(call -> call.cancel(true));
+            }
+        });
+        return combined;
     }
 
-    // Identifies research gaps for current iteration
-    private List<String> identifyResearchGaps(String topic, String instructions,
-            String accumulatedFindings, int iterationNum) throws ResearchException {
-        List<String> gaps = gapAnalyzer.analyzeGapsWithInstructions(topic, instructions, accumulatedFindings, iterationNum);
+    // Spreads queries over the configured number of lanes
+    private CompletableFuture<Map<String, String>> researchQueriesInLanesAsync(List<String> queries, String instructions,
+            int iterationNum, String previousFindings, Map<String, CompletableFuture<String>> speculated,
+            List<CompletableFuture<String>> inFlight) {
+
+        int laneCount = Math.min(researchConfig.getMaxParallelQueries(), queries.size());
+        List<CompletableFuture<String>> results = new ArrayList<>(Collections.nCopies(queries.size(), null));
+        List<CompletableFuture<Void>> lanes = new ArrayList<>();
+
+        for (int lane = 0; lane < laneCount; lane++) {
+            CompletableFuture<Void> laneTail = CompletableFuture.completedFuture(null);
+            for (int i = lane; i < queries.size(); i += laneCount) {
+                String query = queries.get(i);
+                CompletableFuture<String> result;
+                if (speculated.containsKey(query)) {
+                    // Speculative searches are already running and do not occupy a lane slot
+                    result = speculated.get(query);
+                    inFlight.add(result);
+                } else {
+                    result = laneTail.thenCompose(ignored -> {
+                        CompletableFuture<String> call =
+                            conductResearchIterationAsync(query, instructions, iterationNum, previousFindings);
+                        inFlight.add(call);
+                        return call;
+                    });
+                }
+                results.set(i, result);
+                // A failed query must not stop the rest of its lane
+                laneTail = result.handle((findings, error) -> null);
+            }
+            lanes.add(laneTail);
+        }
+
+        return CompletableFuture.allOf(lanes.toArray(new CompletableFuture<?>[0]))
+            .thenApply(ignored -> collectQueryFindings(queries, results, iterationNum));
+    }
+
+    // Collects per-query findings; a single failed thread does not discard the others, but it is counted and
+    // noted in the merged findings so later gap analysis knows the query went unanswered
+    private Map<String, String> collectQueryFindings(List<String> queries, List<CompletableFuture<String>> results,
+            int iterationNum) {
+        Map<String, String> findingsByQuery = new LinkedHashMap<>();
+        Map<String, Throwable> failures = new LinkedHashMap<>();
+
+        for (int i = 0; i < queries.size(); i++) {
+            CompletableFuture<String> result = results.get(i);
+            if (result.isCompletedExceptionally()) {
+                failures.put(queries.get(i), Futures.unwrap(result.handle((findings, error) -> error).join()));
+            } else {
+                findingsByQuery.put(queries.get(i), result.join());
+            }
+        }
 
-        // Force deep dive topics for early iterations to ensure comprehensive research
-        if (iterationNum < MIN_GUARANTEED_ITERATIONS && gaps.isEmpty()) {
-            gaps = gapAnalyzer.forceDeepDiveTopics(topic, instructions, accumulatedFindings, iterationNum);
+        if (findingsByQuery.isEmpty()) {
+            throw new CompletionException(new ResearchException(
+                "All research queries failed in iteration " + iterationNum, failures.values().iterator().next()));
         }
-        return gaps;
+        if (!failures.isEmpty()) {
+            metrics.recordFailedQueries(failures.size());
+            failures.forEach((query, error) -> findingsByQuery.put(query,
+                "(No findings: the search for this query failed - " + error.getMessage() + ")"));
+        }
+        return findingsByQuery;
+    }
+
+    // Merges per-query findings into a single iteration body
+    private String mergeFindings(Map<String, String> findingsByQuery) {
+        if (findingsByQuery.size() == 1) {
+            return findingsByQuery.values().iterator().next();
+        }
+
+        StringBuilder merged = new StringBuilder();
+        for (Map.Entry<String, String> entry : findingsByQuery.entrySet()) {
+            if (merged.length() > 0) {
+                merged.append("\n\n");
+            }
+            merged.append("### Research thread: ").append(entry.getKey()).append("\n\n");
+            merged.append(entry.getValue());
+        }
+        return merged.toString();
+    }
+
+    // Extracts sources from each query's findings and deduplicates them by URL
+    private List<Source> mergeSources(Map<String, String> findingsByQuery) {
+        Map<String, Source> uniqueSources = new LinkedHashMap<>();
+        for (String findings : findingsByQuery.values()) {
+            for (Source source : sourceExtractor.extractSourcesFromResponse(findings)) {
+                uniqueSources.putIfAbsent(source.getUrl(), source);
+            }
+        }
+        return new ArrayList<>(uniqueSources.values());
+    }
+
+    // Records new iteration results and renders the bounded context (digest plus latest iteration) for the next steps
+    private String updateAccumulatedFindings(FindingsMemory findingsMemory, String newFindings, int iterationNum) {
+        findingsMemory.record(iterationNum, newFindings);
+        return findingsMemory.render();
+    }
+
+    // Identifies research gaps for current iteration
+    private CompletableFuture<List<String>> identifyResearchGapsAsync(String topic, String instructions,
+            String accumulatedFindings, int iterationNum) {
+        return gapAnalyzer.analyzeGapsWithInstructionsAsync(topic, instructions, accumulatedFindings, iterationNum)
+            .thenCompose(gaps -> {
+                // Force deep dive topics for early iterations to ensure comprehensive research
+                if (iterationNum < MIN_GUARANTEED_ITERATIONS && gaps.isEmpty()) {
+                    return gapAnalyzer.forceDeepDiveTopicsAsync(topic, instructions, accumulatedFindings, iterationNum);
+                }
+                return CompletableFuture.completedFuture(gaps);
+            });
     }
 
     // Generates follow-up queries based on gaps
-    private List<String> generateFollowUpQueries(String topic, String instructions,
-            List<String> gaps, String accumulatedFindings, int iterationNum) throws ResearchException {
+    private CompletableFuture<List<String>> generateFollowUpQueriesAsync(String topic, String instructions,
+            List<String> gaps, String accumulatedFindings, int iterationNum) {
         if (iterationNum < MIN_GUARANTEED_ITERATIONS || !gaps.isEmpty()) {
-            return queryGenerator.generateQueriesWithInstructions(topic, instructions, gaps, accumulatedFindings);
+            return queryGenerator.generateQueriesWithInstructionsAsync(topic, instructions, gaps, accumulatedFindings);
         }
-        return new ArrayList<>();
+        return CompletableFuture.completedFuture(new ArrayList<>());
     }
 
     // AI decides whether to continue researching or if it's comprehensive enough
-    private boolean aiDecideToContinue(String topic, String userInstructions, String findings,
-            List<String> gaps, int iterationNum) throws ResearchException {
+    private CompletableFuture<Boolean> aiDecideToContinueAsync(String topic, String userInstructions, String findings,
+            List<String> gaps, int iterationNum) {
         String systemPrompt = "You are a research quality evaluator. Decide if the research is comprehensive enough " +
             "or if more iteration is needed.";
 
-        String userPrompt = String.format(
+        String template =
             "Topic: %s\n\n" +
             "User wants to know about:\n%s\n\n" +
             "Current findings after %d iteration(s):\n%s\n\n" +
@@ -117,62 +518,114 @@ public class ResearchOrchestrator implements ResearchService {
             "5. Are contradictions explored and explained?\n\n" +
             "Respond with EXACTLY one word:\n" +
             "- 'CONTINUE' if more research is needed\n" +
-            "- 'COMPLETE' if research is comprehensive enough",
-            topic,
-            userInstructions,
-            iterationNum,
-            truncate(findings, FINDINGS_TRUNCATION_LENGTH),
-            gaps.isEmpty() ? "None" : String.join(", ", gaps),
-            userInstructions
-        );
+            "- 'COMPLETE' if research is comprehensive enough";
+        String gapList = gaps.isEmpty() ? "None" : String.join(", ", gaps);
+        // The instructions appear twice in the prompt, so they are budgeted twice
+        List<String> fitted = contextBudgeter.fitAll(PromptConstants.DEFAULT_SYSTEM_PROMPT + template + topic + gapList,
+            ContextPart.head(userInstructions, 1), ContextPart.head(userInstructions, 1), ContextPart.tail(findings, 3));
+
+        String userPrompt = String.format(template, topic, fitted.get(0), iterationNum, fitted.get(2), gapList,
+            fitted.get(1));
 
-        String decision = aiClient.chat(userPrompt).trim().toUpperCase();
-        return decision.contains(PromptConstants.DECISION_CONTINUE);
+        return aiClient.chatAsync(CallSite.DECISION, userPrompt)
+            .thenApply(decision -> decision.trim().toUpperCase().contains(PromptConstants.DECISION_CONTINUE));
     }
 
-    // Determines the next query to research
-    private String determineNextQuery(String topic, List<String> followUpQueries) {
+    // Determines the next queries to research (all follow-ups in parallel mode, otherwise the first)
+    private List<String> determineNextQueries(String topic, List<String> followUpQueries) {
         if (followUpQueries.isEmpty()) {
-            return topic + " - deeper analysis and additional perspectives";
+            return List.of(topic + " - deeper analysis and additional perspectives");
+        }
+        if (researchConfig.isParallelQueriesEnabled()) {
+            return List.copyOf(followUpQueries);
         }
-        return followUpQueries.get(0);
+        return List.of(followUpQueries.get(0));
     }
 
-    // Determines if research should stop
-    private boolean shouldStopResearch(int iterationNum, ResearchIteration iteration,
-            String topic, String instructions, String accumulatedFindings) throws ResearchException {
+    // Determines if research should stop; the novelty score settles clear cases without a model call
+    private CompletableFuture<Boolean> shouldStopResearchAsync(int iterationNum, ResearchIteration iteration,
+            double novelty, String topic, String instructions, String accumulatedFindings) {
         // Guarantee minimum iterations
         if (iterationNum < MIN_GUARANTEED_ITERATIONS) {
-            return false;
+            return CompletableFuture.completedFuture(false);
         }
 
         // Stop if no follow-up queries
         if (iteration.getFollowUpQueries().isEmpty()) {
-            return true;
+            return CompletableFuture.completedFuture(true);
+        }
+
+        if (isStale(novelty)) {
+            noveltyStats.recordLocalStop();
+            return CompletableFuture.completedFuture(true);
+        }
+        // A continue percentage of 100 leaves every decision above the stop band to the model
+        int continuePercent = researchConfig.getNoveltyContinuePercent();
+        if (researchConfig.isNoveltyEnabled() && continuePercent < 100 && novelty * 100 >= continuePercent) {
+            noveltyStats.recordLocalContinue();
+            return CompletableFuture.completedFuture(false);
+        }
+        if (researchConfig.isNoveltyEnabled()) {
+            noveltyStats.recordModelDecision();
         }
 
         // Let AI decide if research is comprehensive enough
-        return !aiDecideToContinue(topic, instructions, accumulatedFindings,
-            iteration.getIdentifiedGaps(), iterationNum);
+        return aiDecideToContinueAsync(topic, instructions, accumulatedFindings,
+            iteration.getIdentifiedGaps(), iterationNum).thenApply(shouldContinue -> !shouldContinue);
+    }
+
+    // Whether an iteration added so little that research should stop without asking the model
+    private boolean isStale(double novelty) {
+        return researchConfig.isNoveltyEnabled() && novelty * 100 < researchConfig.getNoveltyStopPercent();
     }
 
     // Conducts research for a single iteration
-    private String conductResearchIteration(String query, String instructions, int iterationNum,
-            String previousFindings) throws ResearchException {
-        String systemPrompt = "You are an expert research analyst with access to current web information. " +
+    private CompletableFuture<String> conductResearchIterationAsync(String query, String instructions, int iterationNum,
+            String previousFindings) {
+        return searchAsync(query, instructions, buildSearchRequest(query, instructions, iterationNum, previousFindings));
+    }
+
+    // Sends a search, reusing another session's findings for a near-duplicate query when sharing is enabled;
+    // cancelling the returned future cancels the search
+    private CompletableFuture<String> searchAsync(String query, String instructions, SearchRequest request) {
+        if (sharedQueryResults == null) {
+            return sendSearchAsync(request);
+        }
+        String shared = sharedQueryResults.find(query, instructions);
+        if (shared != null) {
+            queryDedupStats.recordSharedHit();
+            return CompletableFuture.completedFuture(shared);
+        }
+        CompletableFuture<String> search = sendSearchAsync(request);
+        return Futures.cancelling(search.thenApply(findings -> {
+            sharedQueryResults.store(query, instructions, findings);
+            return findings;
+        }), search);
+    }
+
+    // Builds the search call for a query; identical inputs give identical prompts, which lets speculative
+    // results be reused
+    private SearchRequest buildSearchRequest(String query, String instructions, int iterationNum,
+            String previousFindings) {
+        String systemTemplate = "You are an expert research analyst with access to current web information. " +
             "Search the web for the most current and authoritative information. " +
-            "User research requirements:\n" + instructions + "\n\n" +
+            "User research requirements:\n%s\n\n" +
             "Provide comprehensive, well-structured findings with proper citations. " +
             "Include specific sources, URLs, and publication dates where relevant.";
 
-        String userPrompt;
         if (iterationNum == 1) {
-            userPrompt = buildInitialResearchPrompt(query);
-        } else {
-            userPrompt = buildDeepDivePrompt(query, previousFindings);
+            String userPrompt = buildInitialResearchPrompt(query);
+            String fittedInstructions = contextBudgeter.fit(systemTemplate + userPrompt, ContextPart.head(instructions, 1));
+            return new SearchRequest(CallSite.INITIAL_SEARCH, String.format(systemTemplate, fittedInstructions), userPrompt);
         }
+        List<String> fitted = contextBudgeter.fitAll(systemTemplate + buildDeepDivePrompt(query, ""),
+            ContextPart.head(instructions, 1), ContextPart.tail(previousFindings, 3));
+        return new SearchRequest(CallSite.DEEP_DIVE, String.format(systemTemplate, fitted.get(0)),
+            buildDeepDivePrompt(query, fitted.get(1)));
+    }
 
-        return aiClient.chatWithSearch(systemPrompt, userPrompt);
+    private CompletableFuture<String> sendSearchAsync(SearchRequest request) {
+        return aiClient.chatWithSearchAsync(request.callSite(), request.systemPrompt(), request.userPrompt());
     }
 
     // Builds comprehensive initial research prompt
@@ -210,27 +663,44 @@ public class ResearchOrchestrator implements ResearchService {
             "Provide detailed findings with specific citations, URLs, and dates.\n" +
             "Be thorough and evidence-based. Focus on NEW information not in previous research.",
             focusQuery,
-            truncate(previousFindings, 1500)
+            previousFindings
         );
     }
 
     // Synthesizes findings from all iterations into a comprehensive report
     @Override
-    public String synthesizeAllIterations(String topic, List<ResearchIteration> iterations) throws ResearchException {
-        return synthesisService.synthesizeAllIterations(topic, iterations);
+    public CompletableFuture<String> synthesizeAllIterationsAsync(String topic, List<ResearchIteration> iterations) {
+        return synthesisService.synthesizeAllIterationsAsync(topic, iterations);
     }
 
     // Extracts key findings from the final synthesis
     @Override
-    public String extractKeyFindings(String topic, String synthesis) throws ResearchException {
-        return synthesisService.extractKeyFindings(topic, synthesis);
+    public CompletableFuture<String> extractKeyFindingsAsync(String topic, String synthesis) {
+        return synthesisService.extractKeyFindingsAsync(topic, synthesis);
+    }
+
+    // Synthesizes findings from all iterations, delivering the report text as it is generated
+    @Override
+    public CompletableFuture<StreamedResponse> streamSynthesisAsync(String topic, List<ResearchIteration> iterations,
+            Consumer<String> onToken) {
+        return synthesisService.streamSynthesisAsync(topic, iterations, onToken);
     }
 
-    // Truncates text to avoid exceeding token limits
-    private String truncate(String text, int maxLength) {
-        if (text.length() <= maxLength) {
-            return text;
+    // Extracts key findings from the final synthesis, delivering the text as it is generated
+    @Override
+    public CompletableFuture<StreamedResponse> streamKeyFindingsAsync(String topic, String synthesis,
+            Consumer<String> onToken) {
+        return synthesisService.streamKeyFindingsAsync(topic, synthesis, onToken);
+    }
+
+    // Result of one iteration: the iteration itself, findings accumulated so far and whether to stop
+    private record IterationOutcome(ResearchIteration iteration, String accumulatedFindings, boolean stop) {}
+
+    // Prompts and call site of a single search call
+    private record SearchRequest(CallSite callSite, String systemPrompt, String userPrompt) {
+
+        int promptChars() {
+            return systemPrompt.length() + userPrompt.length();
         }
-        return text.substring(text.length() - maxLength) + "\n[Earlier context truncated]";
     }
 }
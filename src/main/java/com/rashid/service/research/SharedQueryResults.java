@@ -0,0 +1,57 @@
+package com.rashid.service.research;
+
+import com.rashid.config.ModelProfile;
+import com.rashid.service.cache.ResponseCache;
+import com.rashid.util.PromptHashing;
+
+import java.time.Duration;
+
+// Shares search findings across sessions: a query that nearly duplicates one an earlier session of this
+// process researched under the same research instructions reuses that session's findings from the response
+// cache instead of searching again. Findings are written for the instructions, so sessions with other
+// instructions never share them
+public class SharedQueryResults {
+    private static final String KEY_MARKER = "shared-query";
+
+    private final QueryIndex index;
+    private final ResponseCache cache;
+    private final Duration ttl;
+    private final ModelProfile searchProfile;
+
+    // Constructs the shared index of at most maxQueries queries; findings are kept for the ttl and keyed by the
+    // search profile, instructions and query
+    public SharedQueryResults(ResponseCache cache, Duration ttl, ModelProfile searchProfile, double similarityThreshold,
+            int maxQueries) {
+        this.index = new QueryIndex(similarityThreshold, maxQueries);
+        this.cache = cache;
+        this.ttl = ttl;
+        this.searchProfile = searchProfile;
+    }
+
+    // Returns fresh findings of a near-duplicate query researched under the same instructions, or null if no
+    // session researched one
+    public String find(String query, String instructions) {
+        String match = index.findNearDuplicate(instructions, query);
+        return match == null ? null : cache.get(key(match, instructions), ttl);
+    }
+
+    // Stores a query's findings for later sessions; blank findings are not shared
+    public void store(String query, String instructions, String findings) {
+        if (findings == null || findings.isBlank()) {
+            return;
+        }
+        cache.put(key(query, instructions), findings);
+        // The lookup for this query missed, so a near-duplicate entry's findings have expired or been evicted;
+        // replace it so the family of queries is reachable again. Indexed only once the findings are in the
+        // cache, so a match always has something to reuse
+        String stale = index.findNearDuplicate(instructions, query);
+        if (stale != null) {
+            index.remove(instructions, stale);
+        }
+        index.add(instructions, query);
+    }
+
+    private String key(String query, String instructions) {
+        return PromptHashing.hash(searchProfile, KEY_MARKER + "\n" + instructions, query);
+    }
+}
@@ -64,8 +64,12 @@ public class SourceExtractor implements SourceExtractionService {
         return new ArrayList<>(uniqueSources.values());
     }
 
-    // Cleans URL by removing trailing markdown artifacts
+    // Cleans URL by removing trailing markdown artifacts; a plain scan avoids compiling a regex per URL
     private String cleanUrl(String url) {
-        return url.replaceAll("[)\\]]+$", "").trim();
+        int end = url.length();
+        while (end > 0 && (url.charAt(end - 1) == ')' || url.charAt(end - 1) == ']')) {
+            end--;
+        }
+        return url.substring(0, end).trim();
     }
 }
@@ -0,0 +1,62 @@
+package com.rashid.service.research;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Counters for speculative next-iteration searches, used to tune pipelined research
+public class SpeculationStats {
+    private static final int CHARS_PER_TOKEN_ESTIMATE = 4;
+
+    private final AtomicLong started = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong discardedOnStop = new AtomicLong();
+    private final AtomicLong discardedOnMismatch = new AtomicLong();
+    private final AtomicLong wastedTokens = new AtomicLong();
+
+    void recordStarted() {
+        started.incrementAndGet();
+    }
+
+    void recordHit() {
+        hits.incrementAndGet();
+    }
+
+    // Records a discarded speculation and the tokens it consumed (prompt always, completion if it finished)
+    void recordDiscarded(boolean becauseOfStop, long wastedChars) {
+        (becauseOfStop ? discardedOnStop : discardedOnMismatch).incrementAndGet();
+        wastedTokens.addAndGet(wastedChars / CHARS_PER_TOKEN_ESTIMATE);
+    }
+
+    public long getStarted() {
+        return started.get();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getDiscardedOnStop() {
+        return discardedOnStop.get();
+    }
+
+    public long getDiscardedOnMismatch() {
+        return discardedOnMismatch.get();
+    }
+
+    // Estimated tokens spent on speculative searches whose results were thrown away
+    public long getWastedTokens() {
+        return wastedTokens.get();
+    }
+
+    // Fraction of speculative searches whose result was used
+    public double getHitRate() {
+        long total = started.get();
+        return total == 0 ? 0.0 : (double) hits.get() / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("started=%d hits=%d hitRate=%.1f%% discarded(stop=%d, mismatch=%d) wastedTokens~%d",
+            getStarted(), getHits(), getHitRate() * 100, getDiscardedOnStop(), getDiscardedOnMismatch(),
+            getWastedTokens());
+    }
+}
@@ -0,0 +1,61 @@
+package com.rashid.service.research;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+// Speculative searches of one research session, started before the control calls have settled the next iteration
+class SpeculativeSearches {
+    private final SpeculationStats stats;
+    private final Map<String, Speculation> pending = new HashMap<>();
+
+    SpeculativeSearches(SpeculationStats stats) {
+        this.stats = stats;
+    }
+
+    // Starts a speculative search unless one for the same query is already pending
+    synchronized void start(String query, int promptChars, Supplier<CompletableFuture<String>> search) {
+        if (pending.containsKey(query)) {
+            return;
+        }
+        stats.recordStarted();
+        pending.put(query, new Speculation(search.get(), promptChars));
+    }
+
+    // Hands over the speculative results for the chosen queries and discards every other pending speculation
+    synchronized Map<String, CompletableFuture<String>> claim(List<String> chosenQueries) {
+        Map<String, CompletableFuture<String>> claimed = new HashMap<>();
+        for (String query : chosenQueries) {
+            Speculation speculation = pending.remove(query);
+            if (speculation != null) {
+                stats.recordHit();
+                claimed.put(query, speculation.result());
+            }
+        }
+        discardAll(false);
+        return claimed;
+    }
+
+    // Cancels all pending speculations, e.g. because research is stopping
+    synchronized void discardAll(boolean becauseOfStop) {
+        Iterator<Speculation> iterator = pending.values().iterator();
+        while (iterator.hasNext()) {
+            Speculation speculation = iterator.next();
+            iterator.remove();
+            stats.recordDiscarded(becauseOfStop, speculation.wastedChars());
+            speculation.result().cancel(true);
+        }
+    }
+
+    private record Speculation(CompletableFuture<String> result, int promptChars) {
+
+        // The prompt is always paid for; the completion only if it already arrived
+        long wastedChars() {
+            String completed = result.isDone() && !result.isCompletedExceptionally() ? result.join() : "";
+            return (long) promptChars + completed.length();
+        }
+    }
+}
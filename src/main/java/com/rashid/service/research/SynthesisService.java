@@ -1,29 +1,138 @@
 package com.rashid.service.research;
 
-import com.rashid.exception.ResearchException;
+import com.rashid.config.SynthesisConfig;
+import com.rashid.model.CallSite;
 import com.rashid.model.ResearchIteration;
+import com.rashid.model.StreamedResponse;
 import com.rashid.service.api.AIClient;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.regex.Pattern;
 
 // Service for synthesizing research findings into comprehensive reports
 public class SynthesisService {
 
+    private static final String TRUNCATION_MARKER = "\n[...]";
+    private static final Pattern PARAGRAPH_SPLITTER = Pattern.compile("\n\\s*\n");
+
     private final AIClient aiClient;
+    private final SynthesisConfig synthesisConfig;
 
-    public SynthesisService(AIClient aiClient) {
+    public SynthesisService(AIClient aiClient, SynthesisConfig synthesisConfig) {
         this.aiClient = aiClient;
+        this.synthesisConfig = synthesisConfig;
     }
 
     // Synthesizes findings from all iterations into a comprehensive report
-    public String synthesizeAllIterations(String topic, List<ResearchIteration> iterations) throws ResearchException {
-        StringBuilder allFindings = new StringBuilder();
+    public CompletableFuture<String> synthesizeAllIterationsAsync(String topic, List<ResearchIteration> iterations) {
+        return withCancellation(condenseFindingsAsync(topic, iterations), sections ->
+            aiClient.chatAsync(CallSite.SYNTHESIS, buildSynthesisPrompt(topic, iterations.size(), sections)));
+    }
+
+    // Synthesizes findings from all iterations, delivering the report text as it is generated
+    public CompletableFuture<StreamedResponse> streamSynthesisAsync(String topic, List<ResearchIteration> iterations,
+            Consumer<String> onToken) {
+        return withCancellation(condenseFindingsAsync(topic, iterations), sections ->
+            aiClient.streamChatAsync(CallSite.SYNTHESIS, buildSynthesisPrompt(topic, iterations.size(), sections),
+                onToken));
+    }
+
+    // Extracts key findings from the final synthesis
+    public CompletableFuture<String> extractKeyFindingsAsync(String topic, String synthesis) {
+        return aiClient.chatAsync(CallSite.KEY_FINDINGS, buildKeyFindingsPrompt(topic, synthesis));
+    }
+
+    // Extracts key findings from the final synthesis, delivering the text as it is generated
+    public CompletableFuture<StreamedResponse> streamKeyFindingsAsync(String topic, String synthesis,
+            Consumer<String> onToken) {
+        return aiClient.streamChatAsync(CallSite.KEY_FINDINGS, buildKeyFindingsPrompt(topic, synthesis), onToken);
+    }
+
+    // Reduces iteration findings to sections that fit the synthesis prompt budget. Findings that already fit
+    // are passed through unchanged; otherwise they are condensed in parallel (map) and merged fan-in at a time
+    // (reduce) until the remaining sections fit
+    private CompletableFuture<List<Section>> condenseFindingsAsync(String topic, List<ResearchIteration> iterations) {
+        List<Section> sections = new ArrayList<>();
         for (ResearchIteration iteration : iterations) {
-            allFindings.append("=== Iteration ").append(iteration.getIterationNumber()).append(" ===\n");
-            allFindings.append(iteration.getFindings()).append("\n\n");
+            sections.add(new Section(iteration.getIterationNumber(), iteration.getIterationNumber(),
+                iteration.getFindings()));
+        }
+        if (!synthesisConfig.isMapReduceEnabled() || totalChars(sections) <= synthesisConfig.getMaxPromptChars()) {
+            return CompletableFuture.completedFuture(sections);
+        }
+
+        List<CompletableFuture<Section>> mapped = new ArrayList<>();
+        for (Section section : sections) {
+            for (String piece : splitIntoPieces(section.text(), synthesisConfig.getMaxPromptChars())) {
+                mapped.add(aiClient.chatAsync(CallSite.SYNTHESIS_MAP, buildMapPrompt(topic, section, piece))
+                    .thenApply(condensed -> new Section(section.firstIteration(), section.lastIteration(), condensed)));
+            }
         }
+        return withCancellation(allOf(mapped), condensed -> reduceAsync(topic, condensed));
+    }
+
+    // Runs reduce rounds until the sections fit the final prompt; each round divides their count by the fan-in
+    private CompletableFuture<List<Section>> reduceAsync(String topic, List<Section> sections) {
+        int fanIn = synthesisConfig.getFanIn();
+        int maxChars = synthesisConfig.getMaxPromptChars();
+        if (sections.size() == 1 || (sections.size() <= fanIn && totalChars(sections) <= maxChars)) {
+            // Condensed output length is only requested, not guaranteed, so clip to keep the final prompt bounded
+            return CompletableFuture.completedFuture(clipToBudget(sections, maxChars));
+        }
+
+        List<CompletableFuture<Section>> merged = new ArrayList<>();
+        for (int start = 0; start < sections.size(); start += fanIn) {
+            List<Section> group = sections.subList(start, Math.min(start + fanIn, sections.size()));
+            if (group.size() == 1) {
+                merged.add(CompletableFuture.completedFuture(group.get(0)));
+                continue;
+            }
+            List<Section> clipped = clipToBudget(group, maxChars);
+            Section first = group.get(0);
+            Section last = group.get(group.size() - 1);
+            merged.add(aiClient.chatAsync(CallSite.SYNTHESIS_REDUCE, buildReducePrompt(topic, clipped))
+                .thenApply(text -> new Section(first.firstIteration(), last.lastIteration(), text)));
+        }
+        return withCancellation(allOf(merged), reduced -> reduceAsync(topic, reduced));
+    }
+
+    // Builds the map prompt condensing one iteration's findings (or a piece of them)
+    private String buildMapPrompt(String topic, Section section, String findings) {
+        return String.format(
+            "Condense the following research findings on '%s' from %s into dense research notes.\n\n" +
+            "Findings:\n%s\n\n" +
+            "Keep every specific fact, statistic, date, named source and URL, and note any contradictions. " +
+            "Drop repetition, filler and general background. " +
+            "Keep the notes under %d characters.",
+            topic, section.label(), findings, targetSectionChars()
+        );
+    }
+
+    // Builds the reduce prompt merging several condensed sections into one
+    private String buildReducePrompt(String topic, List<Section> group) {
+        return String.format(
+            "Merge the following condensed research notes on '%s' into a single set of notes.\n\n%s\n" +
+            "Deduplicate overlapping points, keep every specific fact, statistic, date, named source and URL, " +
+            "and note where the sections agree or contradict each other. " +
+            "Keep the merged notes under %d characters.",
+            topic, formatSections(group), targetSectionChars()
+        );
+    }
+
+    // Condensed sections are sized so that a full fan-in group fits a single prompt
+    private int targetSectionChars() {
+        return synthesisConfig.getMaxPromptChars() / synthesisConfig.getFanIn();
+    }
+
+    // Builds the synthesis prompt from all iteration findings
+    private String buildSynthesisPrompt(String topic, int iterationCount, List<Section> sections) {
+        String allFindings = formatSections(sections);
 
-        String synthesisPrompt = String.format(
+        return String.format(
             "Synthesize the following research findings on '%s' into a comprehensive, well-structured report.\n\n" +
             "Research findings from %d iterations:\n%s\n\n" +
             "Create a cohesive synthesis that:\n" +
@@ -36,15 +145,120 @@ public class SynthesisService {
             "IMPORTANT: Do NOT include a separate 'Citations' or 'References' section at the end. " +
             "Sources will be displayed automatically. Focus only on presenting the research findings and insights.\n\n" +
             "The final report should read as a unified, comprehensive research document.",
-            topic, iterations.size(), allFindings.toString()
+            topic, iterationCount, allFindings
         );
+    }
 
-        return aiClient.chat(synthesisPrompt);
+    private String formatSections(List<Section> sections) {
+        StringBuilder formatted = new StringBuilder();
+        for (Section section : sections) {
+            formatted.append("=== ").append(section.label()).append(" ===\n");
+            formatted.append(section.text()).append("\n\n");
+        }
+        return formatted.toString();
     }
 
-    // Extracts key findings from the final synthesis
-    public String extractKeyFindings(String topic, String synthesis) throws ResearchException {
-        String findingsPrompt = String.format(
+    private int totalChars(List<Section> sections) {
+        int total = 0;
+        for (Section section : sections) {
+            total += section.text().length();
+        }
+        return total;
+    }
+
+    // Shares the character budget evenly across sections, clipping any that exceed their share
+    private List<Section> clipToBudget(List<Section> sections, int maxChars) {
+        if (totalChars(sections) <= maxChars) {
+            return sections;
+        }
+        int share = maxChars / sections.size();
+        List<Section> clipped = new ArrayList<>();
+        for (Section section : sections) {
+            clipped.add(new Section(section.firstIteration(), section.lastIteration(), clip(section.text(), share)));
+        }
+        return clipped;
+    }
+
+    private String clip(String text, int maxChars) {
+        if (text.length() <= maxChars) {
+            return text;
+        }
+        return text.substring(0, Math.max(0, maxChars - TRUNCATION_MARKER.length())) + TRUNCATION_MARKER;
+    }
+
+    // Splits text at paragraph boundaries into pieces of at most maxChars, hard-cutting oversized paragraphs
+    private List<String> splitIntoPieces(String text, int maxChars) {
+        List<String> pieces = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (String paragraph : PARAGRAPH_SPLITTER.split(text)) {
+            if (current.length() > 0 && current.length() + paragraph.length() + 2 > maxChars) {
+                pieces.add(current.toString());
+                current.setLength(0);
+            }
+            while (paragraph.length() > maxChars) {
+                pieces.add(paragraph.substring(0, maxChars));
+                paragraph = paragraph.substring(maxChars);
+            }
+            if (current.length() > 0) {
+                current.append("\n\n");
+            }
+            current.append(paragraph);
+        }
+        if (current.length() > 0) {
+            pieces.add(current.toString());
+        }
+        return pieces;
+    }
+
+    // Waits for all calls; cancelling the combined future cancels the calls still running
+    private static <T> CompletableFuture<List<T>> allOf(List<CompletableFuture<T>> calls) {
+        CompletableFuture<List<T>> combined = CompletableFuture.allOf(calls.toArray(new CompletableFuture<?>[0]))
+            .thenApply(ignored -> calls.stream().map(CompletableFuture::join).toList());
+        combined.whenComplete((results, error) -> {
+            if (error != null) {
+                calls.forEach(call -> call.cancel(true));
+            }
+        });
+        return combined;
+    }
+
+    // Chains a dependent stage; derived futures do not propagate cancellation, so forward it to both stages
+    private static <T, R> CompletableFuture<R> withCancellation(CompletableFuture<T> stage,
+            Function<T, CompletableFuture<R>> next) {
+        CompletableFuture<R> result = new CompletableFuture<>();
+        stage.whenComplete((value, error) -> {
+            if (error != null) {
+                result.completeExceptionally(error);
+                return;
+            }
+            if (result.isDone()) {
+                return;
+            }
+            CompletableFuture<R> nextStage = next.apply(value);
+            result.whenComplete((ignored, resultError) -> {
+                if (resultError != null) {
+                    nextStage.cancel(true);
+                }
+            });
+            nextStage.whenComplete((nextValue, nextError) -> {
+                if (nextError != null) {
+                    result.completeExceptionally(nextError);
+                } else {
+                    result.complete(nextValue);
+                }
+            });
+        });
+        result.whenComplete((ignored, error) -> {
+            if (error != null) {
+                stage.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    // Builds the key findings extraction prompt
+    private String buildKeyFindingsPrompt(String topic, String synthesis) {
+        return String.format(
             "Based on this comprehensive research about %s, extract 7-10 key findings.\n\n" +
             "Research:\n%s\n\n" +
             "Include:\n" +
@@ -58,7 +272,15 @@ public class SynthesisService {
             "IMPORTANT: Do NOT include a 'Citations' or 'References' section. Sources are displayed separately.",
             topic, synthesis
         );
+    }
+
+    // Findings covering a contiguous range of iterations, either raw or condensed
+    private record Section(int firstIteration, int lastIteration, String text) {
 
-        return aiClient.chat(findingsPrompt);
+        String label() {
+            return firstIteration == lastIteration
+                ? "Iteration " + firstIteration
+                : "Iterations " + firstIteration + "-" + lastIteration;
+        }
     }
 }
@@ -0,0 +1,150 @@
+package com.rashid.service.retrieval;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+// In-process BM25 index over chunked research text. Documents are chunked and indexed incrementally as
+// they arrive, so a lookup only touches the postings of the query terms
+public class Bm25Index {
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int MAX_CHUNK_CHARS = 800;
+    private static final Pattern PARAGRAPH_SPLITTER = Pattern.compile("\\n\\s*\\n");
+    private static final Pattern SENTENCE_SPLITTER = Pattern.compile("(?<=[.!?])\\s+");
+    private static final Pattern TERM_SPLITTER = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Set<String> STOP_WORDS = Set.of(
+        "a", "an", "and", "are", "as", "at", "be", "but", "by", "for", "from", "has", "have", "in", "into", "is",
+        "it", "its", "of", "on", "or", "that", "the", "their", "this", "to", "was", "were", "what", "which", "with"
+    );
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<Chunk> chunks = new ArrayList<>();
+    private final Map<String, List<Posting>> postings = new HashMap<>();
+    private long totalTerms;
+
+    // Chunks and indexes a document; chunks keep the document's label
+    public void add(String label, String text) {
+        List<String> pieces = chunk(text);
+        List<Map<String, Integer>> termFrequencies = new ArrayList<>(pieces.size());
+        for (String piece : pieces) {
+            termFrequencies.add(termFrequencies(piece));
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < pieces.size(); i++) {
+                Map<String, Integer> frequencies = termFrequencies.get(i);
+                if (frequencies.isEmpty()) {
+                    continue;
+                }
+                int chunkId = chunks.size();
+                int length = frequencies.values().stream().mapToInt(Integer::intValue).sum();
+                chunks.add(new Chunk(label, pieces.get(i), length));
+                totalTerms += length;
+                for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+                    postings.computeIfAbsent(entry.getKey(), term -> new ArrayList<>())
+                        .add(new Posting(chunkId, entry.getValue()));
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Returns the top-k chunks for the query, best first
+    public List<RetrievedChunk> search(String query, int topK) {
+        lock.readLock().lock();
+        try {
+            if (chunks.isEmpty() || topK <= 0) {
+                return List.of();
+            }
+            int chunkCount = chunks.size();
+            double averageLength = (double) totalTerms / chunkCount;
+            Map<Integer, Double> scores = new HashMap<>();
+
+            for (String term : termFrequencies(query).keySet()) {
+                List<Posting> termPostings = postings.get(term);
+                if (termPostings == null) {
+                    continue;
+                }
+                int documentFrequency = termPostings.size();
+                double idf = Math.log(1 + (chunkCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+                for (Posting posting : termPostings) {
+                    double lengthNorm = 1 - B + B * chunks.get(posting.chunkId()).length() / averageLength;
+                    double termScore = idf * posting.frequency() * (K1 + 1) / (posting.frequency() + K1 * lengthNorm);
+                    scores.merge(posting.chunkId(), termScore, Double::sum);
+                }
+            }
+
+            PriorityQueue<Map.Entry<Integer, Double>> best = new PriorityQueue<>(Map.Entry.comparingByValue());
+            for (Map.Entry<Integer, Double> entry : scores.entrySet()) {
+                best.offer(entry);
+                if (best.size() > topK) {
+                    best.poll();
+                }
+            }
+            List<RetrievedChunk> results = new ArrayList<>(best.size());
+            for (Map.Entry<Integer, Double> entry : best) {
+                Chunk chunk = chunks.get(entry.getKey());
+                results.add(new RetrievedChunk(chunk.label(), chunk.text(), entry.getValue()));
+            }
+            results.sort(Comparator.comparingDouble(RetrievedChunk::score).reversed());
+            return Collections.unmodifiableList(results);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return chunks.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Splits text at paragraph and, for long paragraphs, sentence boundaries into chunks of bounded size
+    private List<String> chunk(String text) {
+        List<String> pieces = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (String paragraph : PARAGRAPH_SPLITTER.split(text)) {
+            boolean longParagraph = paragraph.length() > MAX_CHUNK_CHARS;
+            String[] parts = longParagraph ? SENTENCE_SPLITTER.split(paragraph) : new String[] {paragraph};
+            for (String part : parts) {
+                if (current.length() > 0 && current.length() + part.length() + 1 > MAX_CHUNK_CHARS) {
+                    pieces.add(current.toString().trim());
+                    current.setLength(0);
+                }
+                current.append(part).append(longParagraph ? " " : "\n\n");
+            }
+        }
+        if (!current.toString().isBlank()) {
+            pieces.add(current.toString().trim());
+        }
+        return pieces;
+    }
+
+    private Map<String, Integer> termFrequencies(String text) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String term : TERM_SPLITTER.split(text.toLowerCase())) {
+            if (term.length() > 1 && !STOP_WORDS.contains(term)) {
+                frequencies.merge(term, 1, Integer::sum);
+            }
+        }
+        return frequencies;
+    }
+
+    private record Chunk(String label, String text, int length) {}
+
+    private record Posting(int chunkId, int frequency) {}
+}
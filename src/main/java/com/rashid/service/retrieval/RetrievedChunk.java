@@ -0,0 +1,4 @@
+package com.rashid.service.retrieval;
+
+// A chunk of indexed text returned by a retrieval query, labelled with the document it came from
+public record RetrievedChunk(String label, String text, double score) {}
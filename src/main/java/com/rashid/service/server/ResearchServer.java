@@ -0,0 +1,255 @@
+package com.rashid.service.server;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.rashid.config.ServerConfig;
+import com.rashid.service.agent.ResearchAgent;
+import com.rashid.service.metrics.MetricsHandler;
+import com.rashid.service.metrics.ResearchMetrics;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+// Headless HTTP server running many research sessions concurrently, one virtual thread per session.
+// All sessions share the same agent and therefore the same AI client and HttpClient.
+//
+//   POST   /sessions              {"topic": "..."}  starts a session
+//   GET    /sessions              lists sessions
+//   GET    /sessions/{id}         session state
+//   GET    /sessions/{id}/events  streams the session's output as server-sent events (resumable via Last-Event-ID)
+//   POST   /sessions/{id}/input   answers a clarification question or asks a follow-up (plain text body)
+//   DELETE /sessions/{id}         cancels and removes a session
+//   GET    /metrics               Prometheus text metrics
+public class ResearchServer {
+    private static final long EVENT_POLL_MILLIS = 15_000;
+
+    private final ResearchAgent agent;
+    private final ServerConfig serverConfig;
+    private final ResearchMetrics metrics;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, ResearchSession> sessions = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore sessionSlots;
+    private HttpServer httpServer;
+
+    public ResearchServer(ResearchAgent agent, ServerConfig serverConfig, ResearchMetrics metrics) {
+        this.agent = agent;
+        this.serverConfig = serverConfig;
+        this.metrics = metrics;
+        this.sessionSlots = new Semaphore(serverConfig.getMaxSessions());
+    }
+
+    // Starts accepting requests; each exchange is handled on its own virtual thread
+    public void start() throws IOException {
+        httpServer = HttpServer.create(new InetSocketAddress(serverConfig.getPort()), 0);
+        httpServer.setExecutor(executor);
+        httpServer.createContext("/sessions", this::handle);
+        httpServer.createContext(MetricsHandler.PATH, new MetricsHandler(metrics));
+        httpServer.start();
+    }
+
+    // Stops the server and cancels all running sessions
+    public void stop() {
+        if (httpServer != null) {
+            httpServer.stop(1);
+        }
+        sessions.values().forEach(ResearchSession::cancel);
+        executor.shutdownNow();
+    }
+
+    public int getPort() {
+        return httpServer.getAddress().getPort();
+    }
+
+    public int getActiveSessionCount() {
+        return (int) sessions.values().stream().filter(session -> !session.getChannel().isClosed()).count();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String[] segments = exchange.getRequestURI().getPath().replaceAll("^/+|/+$", "").split("/");
+            String method = exchange.getRequestMethod();
+
+            if (segments.length == 1) {
+                switch (method) {
+                    case "POST" -> createSession(exchange);
+                    case "GET" -> listSessions(exchange);
+                    default -> sendError(exchange, 405, "Method not allowed");
+                }
+                return;
+            }
+
+            ResearchSession session = sessions.get(segments[1]);
+            if (session == null) {
+                sendError(exchange, 404, "Unknown session");
+                return;
+            }
+            String action = segments.length > 2 ? segments[2] : "";
+            switch (method + " " + action) {
+                case "GET " -> sendJson(exchange, 200, describe(session));
+                case "DELETE " -> deleteSession(exchange, session);
+                case "GET events" -> streamEvents(exchange, session);
+                case "POST input" -> submitInput(exchange, session);
+                default -> sendError(exchange, 404, "Unknown endpoint");
+            }
+        } catch (IOException e) {
+            // The client went away; nothing left to respond to
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void createSession(HttpExchange exchange) throws IOException {
+        purgeExpiredSessions();
+        String topic = readTopic(exchange);
+        if (topic == null || topic.isBlank()) {
+            sendError(exchange, 400, "A non-empty topic is required");
+            return;
+        }
+        // Reserve the slot before creating the session so concurrent requests cannot overshoot the limit;
+        // the session returns it when it finishes
+        if (!sessionSlots.tryAcquire()) {
+            sendError(exchange, 503, "Too many active sessions");
+            return;
+        }
+
+        ResearchSession session = new ResearchSession(UUID.randomUUID().toString(), topic.trim(), sessionSlots::release);
+        sessions.put(session.getId(), session);
+        session.start(() -> agent.startConversation(session.getTopic(), session.getChannel()));
+        sendJson(exchange, 201, describe(session));
+    }
+
+    private void listSessions(HttpExchange exchange) throws IOException {
+        purgeExpiredSessions();
+        ArrayNode list = objectMapper.createArrayNode();
+        sessions.values().forEach(session -> list.add(describe(session)));
+        sendJson(exchange, 200, list);
+    }
+
+    private void deleteSession(HttpExchange exchange, ResearchSession session) throws IOException {
+        session.cancel();
+        sessions.remove(session.getId());
+        exchange.sendResponseHeaders(204, -1);
+    }
+
+    private void submitInput(HttpExchange exchange, ResearchSession session) throws IOException {
+        String line = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8).strip();
+        if (!session.getChannel().submit(line)) {
+            sendError(exchange, 409, "Session has ended");
+            return;
+        }
+        sendJson(exchange, 202, describe(session));
+    }
+
+    // Streams events until the session ends or the client disconnects; the output is written as it is produced
+    private void streamEvents(HttpExchange exchange, ResearchSession session) throws IOException {
+        long lastEventId = parseLastEventId(exchange);
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream; charset=utf-8");
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        exchange.sendResponseHeaders(200, 0);
+
+        OutputStream body = exchange.getResponseBody();
+        try {
+            while (true) {
+                List<SessionEvent> events = session.getChannel().eventsAfter(lastEventId, EVENT_POLL_MILLIS);
+                if (events.isEmpty()) {
+                    body.write(": keep-alive\n\n".getBytes(StandardCharsets.UTF_8));
+                }
+                for (SessionEvent event : events) {
+                    body.write(formatEvent(event).getBytes(StandardCharsets.UTF_8));
+                    lastEventId = event.id();
+                }
+                body.flush();
+                if (!events.isEmpty() && SessionEvent.END.equals(events.get(events.size() - 1).type())) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private String formatEvent(SessionEvent event) {
+        StringBuilder formatted = new StringBuilder();
+        formatted.append("id: ").append(event.id()).append('\n');
+        formatted.append("event: ").append(event.type()).append('\n');
+        for (String line : event.data().split("\n", -1)) {
+            formatted.append("data: ").append(line).append('\n');
+        }
+        return formatted.append('\n').toString();
+    }
+
+    // Resumes after the Last-Event-ID header sent by reconnecting SSE clients, or the "after" query parameter
+    private long parseLastEventId(HttpExchange exchange) {
+        String lastEventId = exchange.getRequestHeaders().getFirst("Last-Event-ID");
+        String query = exchange.getRequestURI().getQuery();
+        if (lastEventId == null && query != null) {
+            for (String parameter : query.split("&")) {
+                if (parameter.startsWith("after=")) {
+                    lastEventId = parameter.substring("after=".length());
+                }
+            }
+        }
+        try {
+            return lastEventId == null ? 0 : Math.max(0, Long.parseLong(lastEventId.trim()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    // Accepts {"topic": "..."} or a plain-text topic
+    private String readTopic(HttpExchange exchange) throws IOException {
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8).strip();
+        if (!body.startsWith("{")) {
+            return body;
+        }
+        try {
+            JsonNode topic = objectMapper.readTree(body).get("topic");
+            return topic != null && topic.isTextual() ? topic.asText() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    // Removes finished sessions whose retention period has passed
+    private void purgeExpiredSessions() {
+        long cutoff = System.currentTimeMillis() - serverConfig.getSessionRetentionMinutes() * 60_000L;
+        sessions.values().removeIf(session -> session.getFinishedAt() != 0 && session.getFinishedAt() < cutoff);
+    }
+
+    private ObjectNode describe(ResearchSession session) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("id", session.getId());
+        node.put("topic", session.getTopic());
+        node.put("state", session.getState());
+        node.put("createdAt", session.getCreatedAt());
+        node.put("events", "/sessions/" + session.getId() + "/events");
+        return node;
+    }
+
+    private void sendJson(HttpExchange exchange, int status, JsonNode json) throws IOException {
+        byte[] body = objectMapper.writeValueAsBytes(json);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        exchange.getResponseBody().write(body);
+    }
+
+    private void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        ObjectNode error = objectMapper.createObjectNode();
+        error.put("error", message);
+        sendJson(exchange, status, error);
+    }
+}
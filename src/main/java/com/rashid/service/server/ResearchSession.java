@@ -0,0 +1,77 @@
+package com.rashid.service.server;
+
+// A research session served over HTTP: one virtual thread running the agent, talking through its channel
+class ResearchSession {
+    private final String id;
+    private final String topic;
+    private final SessionChannel channel = new SessionChannel();
+    private final long createdAt = System.currentTimeMillis();
+    private final Runnable onFinish;
+    private volatile Thread thread;
+    private volatile long finishedAt;
+
+    // onFinish runs exactly once, when the session ends or is cancelled
+    ResearchSession(String id, String topic, Runnable onFinish) {
+        this.id = id;
+        this.topic = topic;
+        this.onFinish = onFinish;
+    }
+
+    void start(Runnable body) {
+        thread = Thread.ofVirtual().name("research-session-" + id).start(() -> {
+            try {
+                body.run();
+            } finally {
+                finish();
+            }
+        });
+    }
+
+    // Stops the session's thread; blocked AI calls are cancelled by the interrupt
+    void cancel() {
+        Thread sessionThread = thread;
+        if (sessionThread != null) {
+            sessionThread.interrupt();
+        }
+        finish();
+    }
+
+    // Called by both the session's thread and cancel(); only the first call counts
+    private void finish() {
+        synchronized (this) {
+            if (finishedAt != 0) {
+                return;
+            }
+            finishedAt = System.currentTimeMillis();
+        }
+        channel.close();
+        onFinish.run();
+    }
+
+    String getId() {
+        return id;
+    }
+
+    String getTopic() {
+        return topic;
+    }
+
+    SessionChannel getChannel() {
+        return channel;
+    }
+
+    long getCreatedAt() {
+        return createdAt;
+    }
+
+    long getFinishedAt() {
+        return finishedAt;
+    }
+
+    String getState() {
+        if (channel.isClosed()) {
+            return "finished";
+        }
+        return channel.isAwaitingInput() ? "awaiting_input" : "running";
+    }
+}
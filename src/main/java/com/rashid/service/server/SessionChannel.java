@@ -0,0 +1,134 @@
+package com.rashid.service.server;
+
+import com.rashid.service.api.UserChannel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+// User channel of a remote session: output is appended to an event log that clients stream from,
+// input arrives through the HTTP API. Streamed output arrives a few characters at a time, so consecutive
+// output that no client has read yet is merged into one event instead of growing the log per token
+class SessionChannel implements UserChannel {
+    private final List<SessionEvent> events = new ArrayList<>();
+    private final BlockingQueue<Optional<String>> inputs = new LinkedBlockingQueue<>();
+    // Text of the last event while it is an output event that has not been handed to a client yet
+    private StringBuilder unreadOutput;
+    private boolean awaitingInput;
+    private boolean closed;
+
+    // Remote clients have no identity beyond their session, so they must never see or replace each other's
+    // checkpoints, and a checkpoint of a session could not be found again after a restart anyway
+    @Override
+    public boolean isCheckpointed() {
+        return false;
+    }
+
+    @Override
+    public void send(String text) {
+        append(SessionEvent.OUTPUT, text);
+    }
+
+    @Override
+    public void status(String text) {
+        append(SessionEvent.STATUS, text);
+    }
+
+    // Blocks the session's virtual thread until the client submits input or the session is closed
+    @Override
+    public String readLine() {
+        synchronized (this) {
+            if (closed) {
+                return null;
+            }
+            awaitingInput = true;
+        }
+        append(SessionEvent.INPUT, "");
+        try {
+            return inputs.take().orElse(null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } finally {
+            synchronized (this) {
+                awaitingInput = false;
+            }
+        }
+    }
+
+    // Queues a line of user input; returns false once the session has ended
+    synchronized boolean submit(String line) {
+        if (closed) {
+            return false;
+        }
+        inputs.add(Optional.of(line));
+        return true;
+    }
+
+    // Returns the events after the given id, waiting up to the timeout for new ones
+    synchronized List<SessionEvent> eventsAfter(long lastEventId, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (events.size() <= lastEventId && !closed) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                break;
+            }
+            wait(remaining);
+        }
+        int from = (int) Math.max(0, Math.min(lastEventId, events.size()));
+        if (from < events.size()) {
+            // The merged output event is handed out now, so later output must start a new event
+            sealUnreadOutput();
+        }
+        return new ArrayList<>(events.subList(from, events.size()));
+    }
+
+    synchronized boolean isAwaitingInput() {
+        return awaitingInput;
+    }
+
+    synchronized boolean isClosed() {
+        return closed;
+    }
+
+    // Ends the session: pending and future reads return null and streaming clients receive the end event
+    void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            sealUnreadOutput();
+            events.add(new SessionEvent(events.size() + 1, SessionEvent.END, ""));
+            closed = true;
+            notifyAll();
+        }
+        inputs.add(Optional.empty());
+    }
+
+    private synchronized void append(String type, String data) {
+        if (closed) {
+            return;
+        }
+        if (SessionEvent.OUTPUT.equals(type) && unreadOutput != null) {
+            unreadOutput.append(data);
+        } else {
+            sealUnreadOutput();
+            events.add(new SessionEvent(events.size() + 1, type, data));
+            if (SessionEvent.OUTPUT.equals(type)) {
+                unreadOutput = new StringBuilder(data);
+            }
+        }
+        notifyAll();
+    }
+
+    // Writes the merged text into the last output event and stops merging into it
+    private void sealUnreadOutput() {
+        if (unreadOutput != null) {
+            int last = events.size() - 1;
+            events.set(last, new SessionEvent(events.get(last).id(), SessionEvent.OUTPUT, unreadOutput.toString()));
+            unreadOutput = null;
+        }
+    }
+}
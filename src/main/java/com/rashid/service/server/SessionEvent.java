@@ -0,0 +1,9 @@
+package com.rashid.service.server;
+
+// One entry of a session's event log: output text, a status update, a request for input, or the end of the session
+public record SessionEvent(long id, String type, String data) {
+    public static final String OUTPUT = "output";
+    public static final String STATUS = "status";
+    public static final String INPUT = "input";
+    public static final String END = "end";
+}
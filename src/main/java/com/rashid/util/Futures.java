@@ -0,0 +1,74 @@
+package com.rashid.util;
+
+import com.rashid.exception.AIException;
+import com.rashid.exception.ResearchException;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+// Helpers for bridging CompletableFuture-based services back to checked research exceptions
+public final class Futures {
+
+    private Futures() {
+        throw new AssertionError("Cannot instantiate utility class");
+    }
+
+    // Blocks for a future's result, unwrapping failures into ResearchException
+    public static <T> T await(CompletableFuture<T> future) throws ResearchException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ResearchException("Interrupted while waiting for result", e);
+        } catch (CancellationException e) {
+            throw new ResearchException("Operation was cancelled", e);
+        } catch (ExecutionException e) {
+            throw toResearchException(e.getCause());
+        }
+    }
+
+    // Blocks for an AI call's result, unwrapping failures into AIException
+    public static <T> T awaitAI(CompletableFuture<T> future) throws AIException {
+        try {
+            return await(future);
+        } catch (AIException e) {
+            throw e;
+        } catch (ResearchException e) {
+            throw new AIException(e.getMessage(), e.getCause() != null ? e.getCause() : e);
+        }
+    }
+
+    // Forwards cancellation of a future derived by composition to the future it was derived from, which
+    // CompletableFuture does not do on its own; returns the derived future
+    public static <T> CompletableFuture<T> cancelling(CompletableFuture<T> derived, CompletableFuture<?> upstream) {
+        derived.whenComplete((value, error) -> {
+            if (derived.isCancelled()) {
+                upstream.cancel(true);
+            }
+        });
+        return derived;
+    }
+
+    // Strips CompletionException/ExecutionException wrappers added by future composition
+    public static Throwable unwrap(Throwable throwable) {
+        Throwable current = throwable;
+        while ((current instanceof CompletionException || current instanceof ExecutionException)
+                && current.getCause() != null) {
+            current = current.getCause();
+        }
+        return current;
+    }
+
+    // Converts an asynchronous failure into a ResearchException, preserving research exception types
+    public static ResearchException toResearchException(Throwable throwable) {
+        Throwable cause = unwrap(throwable);
+        if (cause instanceof ResearchException researchException) {
+            return researchException;
+        }
+        return new ResearchException("Asynchronous operation failed: " + cause.getMessage(), cause);
+    }
+
+}
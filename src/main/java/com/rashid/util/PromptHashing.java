@@ -0,0 +1,45 @@
+package com.rashid.util;
+
+import com.rashid.config.ModelProfile;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+// Computes stable content addresses for AI requests
+public final class PromptHashing {
+    private static final String HASH_ALGORITHM = "SHA-256";
+
+    private PromptHashing() {
+        throw new AssertionError("Cannot instantiate utility class");
+    }
+
+    // Hashes everything that influences a response into a hex SHA-256 digest: the request's model profile
+    // and both prompts
+    public static String hash(ModelProfile profile, String systemPrompt, String userPrompt) {
+        List<String> parts = new ArrayList<>();
+        parts.add(profile.getModel());
+        parts.add(String.valueOf(profile.getTemperature()));
+        parts.add(String.valueOf(profile.getMaxTokens()));
+        parts.add(String.valueOf(profile.getStopSequences().size()));
+        parts.addAll(profile.getStopSequences());
+        parts.add(systemPrompt);
+        parts.add(userPrompt);
+        try {
+            MessageDigest digest = MessageDigest.getInstance(HASH_ALGORITHM);
+            for (String part : parts) {
+                byte[] bytes = part.getBytes(StandardCharsets.UTF_8);
+                // Length prefix keeps field boundaries unambiguous
+                digest.update(String.valueOf(bytes.length).getBytes(StandardCharsets.US_ASCII));
+                digest.update((byte) ':');
+                digest.update(bytes);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(HASH_ALGORITHM + " is not available", e);
+        }
+    }
+}
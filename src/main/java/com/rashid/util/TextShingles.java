@@ -0,0 +1,55 @@
+package com.rashid.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Word tokens and hashed word shingles for cheap local text similarity, without regex work per call
+public final class TextShingles {
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private TextShingles() {
+        throw new AssertionError("Cannot instantiate utility class");
+    }
+
+    // Splits text into lower-case runs of letters and digits; punctuation, markdown and whitespace separate tokens
+    public static List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                token.append(Character.toLowerCase(c));
+            } else if (!token.isEmpty()) {
+                tokens.add(token.toString());
+                token.setLength(0);
+            }
+        }
+        if (!token.isEmpty()) {
+            tokens.add(token.toString());
+        }
+        return tokens;
+    }
+
+    // 64-bit FNV-1a hashes of every run of size consecutive tokens; texts shorter than one shingle hash as a whole
+    public static long[] hashes(List<String> tokens, int size) {
+        if (tokens.isEmpty()) {
+            return new long[0];
+        }
+        int count = Math.max(1, tokens.size() - size + 1);
+        long[] hashes = new long[count];
+        for (int start = 0; start < count; start++) {
+            long hash = FNV_OFFSET_BASIS;
+            for (int i = start; i < Math.min(start + size, tokens.size()); i++) {
+                String token = tokens.get(i);
+                for (int j = 0; j < token.length(); j++) {
+                    hash = (hash ^ token.charAt(j)) * FNV_PRIME;
+                }
+                // Separator between tokens so that "ab c" and "a bc" differ
+                hash = (hash ^ ' ') * FNV_PRIME;
+            }
+            hashes[start] = hash;
+        }
+        return hashes;
+    }
+}
@@ -0,0 +1,96 @@
+package com.rashid.service.ai;
+
+import com.rashid.config.CacheConfig;
+import com.rashid.config.ModelProfile;
+import com.rashid.config.ModelProfilesConfig;
+import com.rashid.model.CallSite;
+import com.rashid.model.ResponseSchema;
+import com.rashid.model.StreamedResponse;
+import com.rashid.service.api.AIClient;
+import com.rashid.service.cache.ResponseCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Cache misses call through and store the answer, and cancelling a miss cancels the request it waits for
+class CachingAIClientTest {
+    private static final CallSite CALL_SITE = CallSite.DEEP_DIVE;
+
+    private PendingAIClient upstream;
+    private CachingAIClient client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        upstream = new PendingAIClient();
+        CacheConfig config = new CacheConfig(true, 100, 1_000_000, false, "", 0, Duration.ofHours(1), Map.of());
+        ModelProfilesConfig profiles = new ModelProfilesConfig(new ModelProfile("gpt-4o", 1000, 0.2, List.of()), Map.of());
+        client = new CachingAIClient(upstream, new ResponseCache(config), config, profiles);
+    }
+
+    @Test
+    void missIsStoredAndServedFromCacheAfterwards() {
+        CompletableFuture<String> miss = client.chatWithSearchAsync(CALL_SITE, "system", "user");
+        upstream.calls.get(0).complete("answer");
+        assertEquals("answer", miss.join());
+
+        assertEquals("answer", client.chatWithSearchAsync(CALL_SITE, "system", "user").join());
+        assertEquals(1, upstream.calls.size());
+    }
+
+    @Test
+    void cancellingAMissCancelsTheRequest() {
+        client.chatWithSearchAsync(CALL_SITE, "system", "user").cancel(true);
+
+        assertTrue(upstream.calls.get(0).isCancelled());
+    }
+
+    @Test
+    void cancellingAStructuredMissCancelsTheRequest() {
+        client.chatStructuredAsync(CALL_SITE, "system", "user", new ResponseSchema("plan", "{}")).cancel(true);
+
+        assertTrue(upstream.calls.get(0).isCancelled());
+    }
+
+    @Test
+    void cancellingAStreamedMissCancelsTheStream() {
+        client.streamChatWithSearchAsync(CALL_SITE, "system", "user", token -> { }).cancel(true);
+
+        assertTrue(upstream.streams.get(0).isCancelled());
+    }
+
+    // Upstream client whose calls stay pending until the test completes them
+    private static final class PendingAIClient implements AIClient {
+        private final List<CompletableFuture<String>> calls = new CopyOnWriteArrayList<>();
+        private final List<CompletableFuture<StreamedResponse>> streams = new CopyOnWriteArrayList<>();
+
+        @Override
+        public CompletableFuture<String> chatWithSearchAsync(CallSite callSite, String systemPrompt, String userPrompt) {
+            CompletableFuture<String> call = new CompletableFuture<>();
+            calls.add(call);
+            return call;
+        }
+
+        @Override
+        public CompletableFuture<String> chatStructuredAsync(CallSite callSite, String systemPrompt, String userPrompt,
+                ResponseSchema schema) {
+            return chatWithSearchAsync(callSite, systemPrompt, userPrompt);
+        }
+
+        @Override
+        public CompletableFuture<StreamedResponse> streamChatWithSearchAsync(CallSite callSite, String systemPrompt,
+                String userPrompt, Consumer<String> onToken) {
+            CompletableFuture<StreamedResponse> stream = new CompletableFuture<>();
+            streams.add(stream);
+            return stream;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.rashid.service.ai;
+
+import com.rashid.config.ModelProfile;
+import com.rashid.config.ModelProfilesConfig;
+import com.rashid.model.CallSite;
+import com.rashid.model.StreamedResponse;
+import com.rashid.service.api.AIClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Cancellation semantics of shared flights: a caller leaving only cancels the upstream request once no other
+// caller is waiting for it, for plain and streamed calls alike
+class CoalescingAIClientTest {
+    private static final CallSite CALL_SITE = CallSite.DEEP_DIVE;
+
+    private PendingAIClient upstream;
+    private CoalescingAIClient client;
+
+    @BeforeEach
+    void setUp() {
+        upstream = new PendingAIClient();
+        ModelProfilesConfig profiles = new ModelProfilesConfig(new ModelProfile("gpt-4o", 1000, 0.2, List.of()), Map.of());
+        client = new CoalescingAIClient(upstream, profiles);
+    }
+
+    @Test
+    void identicalConcurrentCallsShareOneRequest() {
+        CompletableFuture<String> first = client.chatWithSearchAsync(CALL_SITE, "system", "user");
+        CompletableFuture<String> second = client.chatWithSearchAsync(CALL_SITE, "system", "user");
+
+        assertEquals(1, upstream.calls.size());
+        upstream.calls.get(0).complete("answer");
+        assertEquals("answer", first.join());
+        assertEquals("answer", second.join());
+        assertEquals(1, client.getCoalescedRequests());
+        assertEquals(0, client.getInFlightCount());
+    }
+
+    @Test
+    void cancellingOneCallerKeepsTheRequestForTheOthers() {
+        CompletableFuture<String> first = client.chatWithSearchAsync(CALL_SITE, "system", "user");
+        CompletableFuture<String> second = client.chatWithSearchAsync(CALL_SITE, "system", "user");
+
+        first.cancel(true);
+        assertFalse(upstream.calls.get(0).isCancelled());
+        upstream.calls.get(0).complete("answer");
+        assertEquals("answer", second.join());
+    }
+
+    @Test
+    void cancellingEveryCallerCancelsTheRequest() {
+        CompletableFuture<String> first = client.chatWithSearchAsync(CALL_SITE, "system", "user");
+        CompletableFuture<String> second = client.chatWithSearchAsync(CALL_SITE, "system", "user");
+
+        second.cancel(true);
+        first.cancel(true);
+        assertTrue(upstream.calls.get(0).isCancelled());
+    }
+
+    @Test
+    void callerArrivingAfterEveryoneLeftStartsANewRequest() {
+        client.chatWithSearchAsync(CALL_SITE, "system", "user").cancel(true);
+        CompletableFuture<String> late = client.chatWithSearchAsync(CALL_SITE, "system", "user");
+
+        assertEquals(2, upstream.calls.size());
+        upstream.calls.get(1).complete("fresh");
+        assertEquals("fresh", late.join());
+    }
+
+    @Test
+    void streamingJoinerLeavingDoesNotCancelTheLeadersStream() {
+        List<String> leaderTokens = new ArrayList<>();
+        CompletableFuture<StreamedResponse> leader =
+            client.streamChatWithSearchAsync(CALL_SITE, "system", "user", leaderTokens::add);
+        CompletableFuture<StreamedResponse> joiner =
+            client.streamChatWithSearchAsync(CALL_SITE, "system", "user", token -> { });
+
+        assertEquals(1, upstream.streams.size());
+        joiner.cancel(true);
+        assertFalse(upstream.streams.get(0).isCancelled());
+
+        upstream.tokens.get(0).accept("partial");
+        upstream.streams.get(0).complete(new StreamedResponse("partial", 1, 1));
+        assertEquals("partial", leader.join().getContent());
+        assertEquals(List.of("partial"), leaderTokens);
+    }
+
+    @Test
+    void streamingLeaderLeavingKeepsTheStreamForAJoiner() {
+        CompletableFuture<StreamedResponse> leader =
+            client.streamChatWithSearchAsync(CALL_SITE, "system", "user", token -> { });
+        List<String> joinerTokens = new ArrayList<>();
+        CompletableFuture<StreamedResponse> joiner =
+            client.streamChatWithSearchAsync(CALL_SITE, "system", "user", joinerTokens::add);
+
+        leader.cancel(true);
+        assertFalse(upstream.streams.get(0).isCancelled());
+
+        upstream.streams.get(0).complete(new StreamedResponse("full text", 1, 1));
+        assertEquals("full text", joiner.join().getContent());
+        assertEquals(List.of("full text"), joinerTokens);
+    }
+
+    @Test
+    void streamIsCancelledOnceLeaderAndJoinersHaveLeft() {
+        CompletableFuture<StreamedResponse> leader =
+            client.streamChatWithSearchAsync(CALL_SITE, "system", "user", token -> { });
+        CompletableFuture<StreamedResponse> joiner =
+            client.streamChatWithSearchAsync(CALL_SITE, "system", "user", token -> { });
+
+        joiner.cancel(true);
+        leader.cancel(true);
+        assertTrue(upstream.streams.get(0).isCancelled());
+    }
+
+    // Upstream client whose calls stay pending until the test completes them
+    private static final class PendingAIClient implements AIClient {
+        private final List<CompletableFuture<String>> calls = new CopyOnWriteArrayList<>();
+        private final List<CompletableFuture<StreamedResponse>> streams = new CopyOnWriteArrayList<>();
+        private final List<Consumer<String>> tokens = new CopyOnWriteArrayList<>();
+
+        @Override
+        public CompletableFuture<String> chatWithSearchAsync(CallSite callSite, String systemPrompt, String userPrompt) {
+            CompletableFuture<String> call = new CompletableFuture<>();
+            calls.add(call);
+            return call;
+        }
+
+        @Override
+        public CompletableFuture<StreamedResponse> streamChatWithSearchAsync(CallSite callSite, String systemPrompt,
+                String userPrompt, Consumer<String> onToken) {
+            CompletableFuture<StreamedResponse> stream = new CompletableFuture<>();
+            streams.add(stream);
+            tokens.add(onToken);
+            return stream;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.rashid.service.ai;
+
+import com.rashid.config.HedgingConfig;
+import com.rashid.exception.AIException;
+import com.rashid.model.CallSite;
+import com.rashid.service.api.AIClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Races between a slow call and its hedge: the first success wins and cancels the other request, a failure
+// waits for the request still running, and cancelling the caller's future cancels both
+class HedgingAIClientTest {
+    private static final CallSite CALL_SITE = CallSite.GAP_ANALYSIS;
+    private static final long HEDGE_WAIT_MILLIS = 5_000;
+
+    private PendingAIClient upstream;
+    private HedgingAIClient client;
+
+    @BeforeEach
+    void setUp() {
+        upstream = new PendingAIClient();
+        // One fast sample sets the threshold, so every later call is hedged almost at once
+        client = new HedgingAIClient(upstream, new HedgingConfig(true, 50, 100, 1));
+        CompletableFuture<String> warmUp = client.chatWithSearchAsync(CALL_SITE, "system", "warm-up");
+        upstream.calls.get(0).complete("warm");
+        warmUp.join();
+    }
+
+    @Test
+    void hedgeAnsweringFirstWinsAndCancelsThePrimary() throws InterruptedException {
+        CompletableFuture<String> result = client.chatWithSearchAsync(CALL_SITE, "system", "user");
+        CompletableFuture<String> primary = upstream.calls.get(1);
+        CompletableFuture<String> hedge = awaitCall(2);
+
+        hedge.complete("from hedge");
+
+        assertEquals("from hedge", result.join());
+        awaitCancelled(primary);
+        assertEquals(1, client.getHedgedCalls());
+        assertEquals(1, client.getHedgeWins());
+    }
+
+    @Test
+    void primaryAnsweringFirstWinsAndCancelsTheHedge() throws InterruptedException {
+        CompletableFuture<String> result = client.chatWithSearchAsync(CALL_SITE, "system", "user");
+        CompletableFuture<String> hedge = awaitCall(2);
+
+        upstream.calls.get(1).complete("from primary");
+
+        assertEquals("from primary", result.join());
+        awaitCancelled(hedge);
+        assertEquals(0, client.getHedgeWins());
+    }
+
+    @Test
+    void failureWaitsForTheRequestStillRunning() throws InterruptedException {
+        CompletableFuture<String> result = client.chatWithSearchAsync(CALL_SITE, "system", "user");
+        CompletableFuture<String> hedge = awaitCall(2);
+
+        upstream.calls.get(1).completeExceptionally(new AIException("OpenAI API error: 503", 503));
+        assertFalse(result.isDone());
+
+        hedge.complete("from hedge");
+        assertEquals("from hedge", result.join());
+    }
+
+    @Test
+    void failsOnceBothRequestsFailed() throws InterruptedException {
+        CompletableFuture<String> result = client.chatWithSearchAsync(CALL_SITE, "system", "user");
+        CompletableFuture<String> hedge = awaitCall(2);
+
+        upstream.calls.get(1).completeExceptionally(new AIException("OpenAI API error: 503", 503));
+        hedge.completeExceptionally(new AIException("OpenAI API error: 502", 502));
+
+        CompletionException error = assertThrows(CompletionException.class, result::join);
+        assertInstanceOf(AIException.class, error.getCause());
+    }
+
+    @Test
+    void cancellingTheResultCancelsBothRequests() throws InterruptedException {
+        CompletableFuture<String> result = client.chatWithSearchAsync(CALL_SITE, "system", "user");
+        CompletableFuture<String> hedge = awaitCall(2);
+
+        result.cancel(true);
+
+        assertTrue(upstream.calls.get(1).isCancelled());
+        awaitCancelled(hedge);
+    }
+
+    @Test
+    void budgetLimitsTheShareOfHedgedCalls() throws InterruptedException {
+        client = new HedgingAIClient(upstream, new HedgingConfig(true, 50, 0, 1));
+        CompletableFuture<String> warmUp = client.chatWithSearchAsync(CALL_SITE, "system", "warm-up");
+        upstream.calls.get(1).complete("warm");
+        warmUp.join();
+
+        CompletableFuture<String> result = client.chatWithSearchAsync(CALL_SITE, "system", "user");
+        Thread.sleep(50);
+
+        assertEquals(3, upstream.calls.size());
+        upstream.calls.get(2).complete("unhedged");
+        assertEquals("unhedged", result.join());
+        assertEquals(0, client.getHedgedCalls());
+    }
+
+    // Waits for the hedge scheduler to send the given upstream call (0-based)
+    private CompletableFuture<String> awaitCall(int index) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + HEDGE_WAIT_MILLIS;
+        while (upstream.calls.size() <= index) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("No hedge was sent");
+            }
+            Thread.sleep(1);
+        }
+        return upstream.calls.get(index);
+    }
+
+    // The hedge thread may still be attaching to its request when the test completes it, so the losing request
+    // is cancelled shortly after the result rather than before it
+    private static void awaitCancelled(CompletableFuture<String> request) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + HEDGE_WAIT_MILLIS;
+        while (!request.isCancelled()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("The losing request was not cancelled");
+            }
+            Thread.sleep(1);
+        }
+    }
+
+    // Upstream client whose calls stay pending until the test completes them
+    private static final class PendingAIClient implements AIClient {
+        private final List<CompletableFuture<String>> calls = new CopyOnWriteArrayList<>();
+
+        @Override
+        public CompletableFuture<String> chatWithSearchAsync(CallSite callSite, String systemPrompt, String userPrompt) {
+            CompletableFuture<String> call = new CompletableFuture<>();
+            calls.add(call);
+            return call;
+        }
+    }
+}
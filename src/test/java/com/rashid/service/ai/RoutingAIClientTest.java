@@ -0,0 +1,214 @@
+package com.rashid.service.ai;
+
+import com.rashid.config.HttpConfig;
+import com.rashid.config.ModelProfile;
+import com.rashid.config.ModelProfilesConfig;
+import com.rashid.config.RateLimitConfig;
+import com.rashid.config.RoutingConfig;
+import com.rashid.exception.AIException;
+import com.rashid.model.CallSite;
+import com.rashid.service.metrics.ResearchMetrics;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Failover, ejection, probing and retries of the router over real endpoint clients talking to stub
+// OpenAI-compatible servers
+class RoutingAIClientTest {
+    private static final CallSite CALL_SITE = CallSite.DEEP_DIVE;
+
+    private final ResearchMetrics metrics = new ResearchMetrics();
+    private final ModelProfilesConfig profiles =
+        new ModelProfilesConfig(new ModelProfile("gpt-4o", 1000, 0.2, List.of()), Map.of());
+    private StubEndpoint first;
+    private StubEndpoint second;
+    private HttpTransport transport;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        first = new StubEndpoint("first");
+        second = new StubEndpoint("second");
+        transport = new HttpTransport(new HttpConfig(false, false, false, Duration.ofSeconds(2),
+            Duration.ofSeconds(5), Map.of()), metrics);
+    }
+
+    @AfterEach
+    void tearDown() {
+        first.stop();
+        second.stop();
+    }
+
+    @Test
+    void failsOverToTheNextEndpointOnServerError() {
+        first.status.set(503);
+        RoutingAIClient router = router(3, Duration.ofSeconds(30), 0);
+
+        assertEquals("second", call(router));
+        assertEquals(1, first.requests.get(), "the failing endpoint must not retry on its own");
+        assertEquals(1, router.getFailovers());
+    }
+
+    @Test
+    void ejectedEndpointReceivesNoCalls() {
+        first.status.set(503);
+        RoutingAIClient router = router(1, Duration.ofSeconds(30), 0);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals("second", call(router));
+        }
+        assertEquals(1, first.requests.get());
+        RoutingAIClient.EndpointStats stats = router.getEndpointStats().get(0);
+        assertTrue(stats.ejected());
+        assertEquals(1, stats.ejections());
+    }
+
+    @Test
+    void successfulProbeBringsAnEjectedEndpointBack() throws InterruptedException {
+        first.status.set(503);
+        RoutingAIClient router = router(1, Duration.ofMillis(100), 0);
+        call(router);
+
+        first.status.set(200);
+        Thread.sleep(150);
+
+        assertEquals("first", call(router));
+        assertFalse(router.getEndpointStats().get(0).ejected());
+    }
+
+    @Test
+    void failedProbeEjectsTheEndpointAgain() throws InterruptedException {
+        first.status.set(503);
+        second.status.set(503);
+        RoutingAIClient router = router(3, Duration.ofMillis(100), 0);
+        // With both endpoints failing, three calls in a row reach the first one and eject it
+        for (int i = 0; i < 3; i++) {
+            assertThrows(CompletionException.class, () -> call(router));
+        }
+        second.status.set(200);
+        Thread.sleep(150);
+
+        // A single failed probe ejects it again, regardless of the failure threshold
+        assertEquals("second", call(router));
+        RoutingAIClient.EndpointStats stats = router.getEndpointStats().get(0);
+        assertTrue(stats.ejected());
+        assertEquals(2, stats.ejections());
+        assertEquals(4, first.requests.get());
+    }
+
+    @Test
+    void retriesWithBackoffOnceEveryEndpointFailed() {
+        first.failNext(1, 503);
+        second.failNext(1, 429);
+        RoutingAIClient router = router(3, Duration.ofSeconds(30), 2);
+
+        String answer = call(router);
+
+        assertTrue(answer.equals("first") || answer.equals("second"));
+        assertEquals(1, router.getRetries());
+        assertEquals(3, first.requests.get() + second.requests.get());
+    }
+
+    @Test
+    void failsOnceRetriesAreExhausted() {
+        first.status.set(503);
+        second.status.set(503);
+        RoutingAIClient router = router(10, Duration.ofSeconds(30), 2);
+
+        CompletionException error = assertThrows(CompletionException.class, () -> call(router));
+
+        assertEquals(503, (int) assertInstanceOf(AIException.class, error.getCause()).getStatusCode());
+        assertEquals(2, router.getRetries());
+        assertEquals(4, first.requests.get() + second.requests.get());
+    }
+
+    @Test
+    void badRequestDoesNotFailOver() {
+        first.status.set(400);
+        RoutingAIClient router = router(1, Duration.ofSeconds(30), 2);
+
+        CompletionException error = assertThrows(CompletionException.class, () -> call(router));
+
+        assertEquals(400, (int) assertInstanceOf(AIException.class, error.getCause()).getStatusCode());
+        assertEquals(0, second.requests.get());
+        assertFalse(router.getEndpointStats().get(0).ejected());
+    }
+
+    // Builds the router the way the application does: endpoint clients without retries of their own
+    private RoutingAIClient router(int ejectAfterFailures, Duration ejection, int maxRetries) {
+        RateLimitConfig rateLimits = new RateLimitConfig(false, 500, 30_000, maxRetries, 1, 10);
+        Map<String, OpenAISearchClient> clients = new LinkedHashMap<>();
+        for (StubEndpoint endpoint : List.of(first, second)) {
+            clients.put(endpoint.name, new OpenAISearchClient("test-key", endpoint.baseUrl(), profiles,
+                rateLimits.withoutRetries(), transport, metrics));
+        }
+        return new RoutingAIClient(clients, new RoutingConfig(List.of(), ejectAfterFailures, ejection), rateLimits);
+    }
+
+    private static String call(RoutingAIClient router) {
+        return router.chatWithSearchAsync(CALL_SITE, "system", "user").join();
+    }
+
+    // Chat completions endpoint that answers with its own name, or with the configured error status
+    private static final class StubEndpoint {
+        private final String name;
+        private final HttpServer server;
+        private final AtomicInteger status = new AtomicInteger(200);
+        private final AtomicInteger failuresLeft = new AtomicInteger();
+        private final AtomicInteger failureStatus = new AtomicInteger();
+        private final AtomicInteger requests = new AtomicInteger();
+
+        private StubEndpoint(String name) throws IOException {
+            this.name = name;
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+            server.createContext("/", this::handle);
+            server.start();
+        }
+
+        // Fails the next requests with the status, then falls back to the configured one
+        private void failNext(int count, int failure) {
+            failureStatus.set(failure);
+            failuresLeft.set(count);
+        }
+
+        private String baseUrl() {
+            return "http://localhost:" + server.getAddress().getPort() + "/v1";
+        }
+
+        private void handle(HttpExchange exchange) throws IOException {
+            exchange.getRequestBody().readAllBytes();
+            requests.incrementAndGet();
+            int responseStatus = failuresLeft.getAndDecrement() > 0 ? failureStatus.get() : status.get();
+            String body = responseStatus == 200
+                ? "{\"choices\":[{\"index\":0,\"message\":{\"role\":\"assistant\",\"content\":\"" + name + "\"}}]}"
+                : "{\"error\":{\"message\":\"stub failure\",\"type\":\"server_error\"}}";
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(responseStatus, bytes.length);
+            exchange.getResponseBody().write(bytes);
+            exchange.close();
+        }
+
+        private void stop() {
+            server.stop(0);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.rashid.service.checkpoint;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rashid.config.CheckpointConfig;
+import com.rashid.model.ResearchIteration;
+import com.rashid.model.Source;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Replay of iteration logs left behind by a crash: records up to the first torn or corrupt line are recovered
+// and everything after it is cut off when the log is reopened
+class IterationLogTest {
+    private static final String TOPIC = "solid-state batteries";
+    private static final String INSTRUCTIONS = "focus on manufacturing cost";
+
+    @TempDir
+    Path directory;
+
+    private CheckpointStore store;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeEach
+    void setUp() {
+        store = new CheckpointStore(new CheckpointConfig(true, directory.toString(), 0));
+    }
+
+    @Test
+    void replaysEveryIterationOfACleanLog() throws IOException {
+        writeLog(2, true);
+
+        IterationLog.Replay replay = IterationLog.replay(Files.readAllBytes(logFile()), objectMapper);
+
+        assertEquals(INSTRUCTIONS, replay.checkpoint().instructions());
+        assertEquals(2, replay.checkpoint().iterations().size());
+        assertTrue(replay.checkpoint().complete());
+        assertEquals(Files.size(logFile()), replay.validLength());
+        ResearchIteration second = replay.checkpoint().iterations().get(1);
+        assertEquals(2, second.getIterationNumber());
+        assertEquals("findings 2", second.getFindings());
+        assertEquals(List.of("query 2"), second.getFollowUpQueries());
+        assertEquals("https://example.com/2", second.getSources().get(0).getUrl());
+    }
+
+    @Test
+    void stopsAtATornTail() throws IOException {
+        writeLog(2, false);
+        long intactLength = Files.size(logFile());
+        // A record whose write was interrupted before the newline
+        Files.write(logFile(), "1a2b3c4d {\"type\":\"iteration\",\"findi".getBytes(StandardCharsets.UTF_8),
+            StandardOpenOption.APPEND);
+
+        IterationLog.Replay replay = IterationLog.replay(Files.readAllBytes(logFile()), objectMapper);
+
+        assertEquals(2, replay.checkpoint().iterations().size());
+        assertFalse(replay.checkpoint().complete());
+        assertEquals(intactLength, replay.validLength());
+    }
+
+    @Test
+    void stopsAtACorruptRecordAndIgnoresLaterOnes() throws IOException {
+        writeLog(3, true);
+        byte[] data = Files.readAllBytes(logFile());
+        // Flip a byte inside the second iteration's JSON so its checksum no longer matches
+        int secondIteration = indexOf(data, "findings 2");
+        data[secondIteration] = 'F';
+
+        IterationLog.Replay replay = IterationLog.replay(data, objectMapper);
+
+        assertEquals(1, replay.checkpoint().iterations().size());
+        assertFalse(replay.checkpoint().complete());
+        assertEquals(lineStart(data, secondIteration), replay.validLength());
+    }
+
+    @Test
+    void logWithoutValidHeaderHasNoCheckpoint() throws IOException {
+        writeLog(1, false);
+        byte[] data = Files.readAllBytes(logFile());
+        data[0] = data[0] == '0' ? (byte) '1' : (byte) '0';
+
+        IterationLog.Replay replay = IterationLog.replay(data, objectMapper);
+
+        assertNull(replay.checkpoint());
+        assertEquals(0, replay.validLength());
+    }
+
+    @Test
+    void reopeningCutsOffTheTornTailAndAppendsAfterTheLastValidRecord() throws IOException {
+        writeLog(1, false);
+        long intactLength = Files.size(logFile());
+        Files.write(logFile(), "garbage without newline".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        IterationLog log = store.open(TOPIC, INSTRUCTIONS);
+        assertNotNull(log);
+        assertEquals(1, log.getRestored().iterations().size());
+        assertEquals(intactLength, Files.size(logFile()));
+        log.append(iteration(2));
+        log.close();
+
+        ResearchCheckpoint checkpoint = store.find(TOPIC);
+        assertEquals(2, checkpoint.iterations().size());
+        assertEquals("findings 2", checkpoint.iterations().get(1).getFindings());
+    }
+
+    @Test
+    void reopeningWithOtherInstructionsStartsOver() throws IOException {
+        writeLog(2, false);
+
+        IterationLog log = store.open(TOPIC, "compare with lithium-ion");
+        assertTrue(log.getRestored().iterations().isEmpty());
+        log.close();
+
+        assertNull(store.find(TOPIC));
+    }
+
+    private void writeLog(int iterations, boolean complete) {
+        IterationLog log = store.open(TOPIC, INSTRUCTIONS);
+        for (int i = 1; i <= iterations; i++) {
+            log.append(iteration(i));
+        }
+        if (complete) {
+            log.markComplete();
+        }
+        log.close();
+    }
+
+    private static ResearchIteration iteration(int number) {
+        return new ResearchIteration(number, "findings " + number, List.of("gap " + number),
+            List.of("query " + number), List.of(new Source("Source " + number, "https://example.com/" + number)));
+    }
+
+    private Path logFile() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.findFirst().orElseThrow();
+        }
+    }
+
+    private static int indexOf(byte[] data, String text) {
+        byte[] needle = text.getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i + needle.length <= data.length; i++) {
+            if (Arrays.equals(data, i, i + needle.length, needle, 0, needle.length)) {
+                return i;
+            }
+        }
+        throw new AssertionError("'" + text + "' not found in the log");
+    }
+
+    private static int lineStart(byte[] data, int index) {
+        int start = index;
+        while (start > 0 && data[start - 1] != '\n') {
+            start--;
+        }
+        return start;
+    }
+}